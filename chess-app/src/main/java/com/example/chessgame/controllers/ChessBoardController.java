@@ -1,38 +1,34 @@
 package com.example.chessgame.controllers;
 
-import com.example.chessgame.DTO.PawnPromoteDTO;
+import com.example.chessgame.bitboard.Bitboard;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.bitboard.MoveGenerator;
 import com.example.chessgame.data.ChessBoardData;
 import com.example.chessgame.data.Move;
 import com.example.chessgame.data.Position;
 import com.example.chessgame.graphics.ChessBoard;
-import com.example.chessgame.helper.CheckSquares;
-import com.example.chessgame.pieces.Pawn;
 import com.example.chessgame.pieces.Piece;
-import javafx.fxml.FXMLLoader;
-import javafx.geometry.Insets;
-import javafx.geometry.Pos;
 import javafx.scene.Node;
-import javafx.scene.Scene;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.StackPane;
-import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.shape.Shape;
 
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Objects;
-
 /**
  * Controller class for the chess board UI.
  * Handles user interactions with the chess board, such as selecting pieces and making moves.
+ * One controller is reused for all clicks on a board, so its move buffers are allocated once.
  */
 public class ChessBoardController {
 
+    // Moves of the previously selected piece, and of the piece that was just clicked
+    private final int[] selectedMoves = new int[MoveGenerator.MAX_MOVES];
+    private final int[] clickedMoves = new int[MoveGenerator.MAX_MOVES];
+
     /**
      * Handles mouse click events on the chess board.
      * Calculates which square was clicked and passes the information to the move logic handler.
@@ -69,69 +65,46 @@ public class ChessBoardController {
         if (previousClick == null || chessBoardData.getChessBoard()[previousClick.getRow()][previousClick.getCol()] == null) {
             // If the user clicked on a piece, show possible moves
             if (chessBoard[clickedRow][clickedCol] != null) {
-                addHints(chessBoard[clickedRow][clickedCol].getPossibleMoves(chessBoardData), gridPane, clickedRow, clickedCol, chessBoardData);
+                int clickedCount = chessBoard[clickedRow][clickedCol].generateMoves(chessBoardData, clickedMoves, 0);
+                addHints(clickedMoves, clickedCount, gridPane, clickedRow, clickedCol, chessBoardData);
             }
             // Store the current click position for next time
             gridPane.setUserData(new Position(clickedRow, clickedCol));
         } else {
+            // The moves of the previously selected piece are needed twice: for its hints and to check the clicked square
+            int selectedCount = chessBoard[previousClick.getRow()][previousClick.getCol()].generateMoves(chessBoardData, selectedMoves, 0);
+
             // Remove hints from the previously selected piece
-            removeHints(chessBoard[previousClick.getRow()][previousClick.getCol()].getPossibleMoves(chessBoardData), gridPane, previousClick.getRow(), previousClick.getCol(), chessBoardData);
+            removeHints(selectedMoves, selectedCount, gridPane, previousClick.getRow(), previousClick.getCol(), chessBoardData);
 
             // If the user clicked on a piece, show its possible moves
             if (chessBoard[clickedRow][clickedCol] != null) {
-                addHints(chessBoard[clickedRow][clickedCol].getPossibleMoves(chessBoardData), gridPane, clickedRow, clickedCol, chessBoardData);
+                int clickedCount = chessBoard[clickedRow][clickedCol].generateMoves(chessBoardData, clickedMoves, 0);
+                addHints(clickedMoves, clickedCount, gridPane, clickedRow, clickedCol, chessBoardData);
             }
 
             // Check if the clicked square is a legal move for the previously selected piece
-            ArrayList<Position> legalMoves = chessBoard[previousClick.getRow()][previousClick.getCol()].getPossibleMoves(chessBoardData);
-            for (Position move : legalMoves) {
-                if (move.getRow() == clickedRow && move.getCol() == clickedCol) {
+            int clickedSquare = Bitboard.square(clickedRow, clickedCol);
+            for (int i = 0; i < selectedCount; i++) {
+                if (MoveCode.to(selectedMoves[i]) == clickedSquare) {
+                    Move specialMove = Move.of(selectedMoves[i]);
+
                     // Remove highlighting from previous move
                     removePreviousMovePositions(gridPane);
 
                     // Get the piece that's moving
                     Piece movingPiece = chessBoard[previousClick.getRow()][previousClick.getCol()];
 
-                    // Handle special moves (en passant, castling, pawn promotion)
-                    if (move.getSpecialMove() != null) {
-                        if (move.getSpecialMove().equals(Move.EN_PASSANT)) {
-                            moveIsEnPassant(gridPane, chessBoard, previousClick, movingPiece);
-                        }
-                        if (move.getSpecialMove().equals(Move.CASTLING)) {
-                            moveIsCastling(gridPane, clickedCol, previousClick, movingPiece);
-                        }
-                        if (move.getSpecialMove().equals(Move.PROMOTE) || move.getSpecialMove().equals(Move.PROMOTE_TAKING)) {
-                            // Set up UI for pawn promotion
-                            StackPane stackPane = new StackPane();
-                            Scene scene = gridPane.getScene();
-                            stackPane.getChildren().add(gridPane);
-                            try {
-                                // Load promotion UI based on the current player's color
-                                VBox vBox = FXMLLoader.load(Objects.requireNonNull(getClass().getClassLoader().getResource("com/example/chessgame/fxml/PawnPromoteScreenWhite.fxml")));
-                                vBox.setUserData(new PawnPromoteDTO(gridPane, clickedRow, clickedCol, chessBoardData));
-
-                                // Position the promotion UI differently based on player color
-                                if (chessBoardData.getTurn() == 'w') {
-                                    // White promotion UI appears at the top
-                                    StackPane.setAlignment(vBox, Pos.TOP_LEFT);
-                                    StackPane.setMargin(vBox, new Insets(0, 0, 0, clickedCol * 92));
-                                } else {
-                                    // Black promotion UI appears at the bottom
-                                    vBox = FXMLLoader.load(Objects.requireNonNull(getClass().getClassLoader().getResource("com/example/chessgame/fxml/PawnPromoteScreenBlack.fxml")));
-                                    StackPane.setAlignment(vBox, Pos.BOTTOM_LEFT);
-                                    StackPane.setMargin(vBox, new Insets(0, 0, 0, clickedCol * 92));
-                                    vBox.setUserData(new PawnPromoteDTO(gridPane, clickedRow, clickedCol, chessBoardData));
-                                }
-                                stackPane.getChildren().add(vBox);
-                            } catch (IOException e) {
-                                throw new RuntimeException(e);
-                            }
-                            scene.setRoot(stackPane);
-                        }
+                    // Handle special moves (en passant, castling); the board's game listener shows the promotion screen
+                    if (specialMove == Move.EN_PASSANT) {
+                        moveIsEnPassant(gridPane, previousClick, clickedCol);
+                    }
+                    if (specialMove == Move.CASTLING) {
+                        moveIsCastling(gridPane, clickedCol, previousClick, movingPiece);
                     }
 
                     // Update the game state by moving the piece
-                    movingPiece.move(clickedRow, clickedCol, chessBoardData, move.getSpecialMove(), gridPane);
+                    movingPiece.move(clickedRow, clickedCol, chessBoardData, specialMove);
 
                     // Update the UI by moving the piece's image
                     StackPane sourceSquare = (StackPane) gridPane.getChildren().get(previousClick.getRow() * 8 + previousClick.getCol());
@@ -231,30 +204,17 @@ public class ChessBoardController {
      * Removes the captured pawn from the board.
      *
      * @param gridPane      The chess board's GridPane
-     * @param chessBoard    The logical chess board representation
      * @param previousClick The position of the capturing pawn
-     * @param movingPiece   The pawn making the en passant capture
+     * @param clickedCol    The column the pawn moves to, where the captured pawn stands
      */
-    private void moveIsEnPassant(GridPane gridPane, Piece[][] chessBoard, Position previousClick, Piece movingPiece) {
-        // Check if the pawn to be captured is to the right of the moving pawn
-        if (CheckSquares.squareInBoardNotEmptyOppositeColor(chessBoard, previousClick.getRow(), previousClick.getCol() + 1, movingPiece.getColor()) && chessBoard[previousClick.getRow()][previousClick.getCol() + 1] instanceof Pawn && ((Pawn) chessBoard[previousClick.getRow()][previousClick.getCol() + 1]).isMovedFar()) {
-
-            // Remove the captured pawn's image from the UI
-            StackPane stackPane = ((StackPane) gridPane.getChildren().get(previousClick.getRow() * 8 + previousClick.getCol() + 1));
-            for (Node item : stackPane.getChildren()) {
-                if (item instanceof ImageView imageView) {
-                    stackPane.getChildren().remove(imageView);
-                    break;
-                }
-            }
-        } else {
-            // The pawn to be captured is to the left of the moving pawn
-            StackPane stackPane = ((StackPane) gridPane.getChildren().get(previousClick.getRow() * 8 + previousClick.getCol() - 1));
-            for (Node item : stackPane.getChildren()) {
-                if (item instanceof ImageView imageView) {
-                    stackPane.getChildren().remove(imageView);
-                    break;
-                }
+    private void moveIsEnPassant(GridPane gridPane, Position previousClick, int clickedCol) {
+        // The captured pawn is on the same row as the moving pawn, in the column it moves to
+        StackPane stackPane = ((StackPane) gridPane.getChildren().get(previousClick.getRow() * 8 + clickedCol));
+        for (Node item : stackPane.getChildren()) {
+            if (item instanceof ImageView imageView) {
+                // Remove the captured pawn's image from the UI
+                stackPane.getChildren().remove(imageView);
+                break;
             }
         }
     }
@@ -323,19 +283,22 @@ public class ChessBoardController {
     /**
      * Adds visual hints to show possible moves for a selected piece.
      *
-     * @param placesToAddHints List of positions where hints should be added
-     * @param gridPane         The chess board's GridPane
-     * @param row              The row of the selected piece
-     * @param col              The column of the selected piece
-     * @param chessBoardData   The chess game data
+     * @param moves          The packed moves whose target squares get a hint
+     * @param count          The number of moves in the buffer
+     * @param gridPane       The chess board's GridPane
+     * @param row            The row of the selected piece
+     * @param col            The column of the selected piece
+     * @param chessBoardData The chess game data
      */
-    private void addHints(ArrayList<Position> placesToAddHints, GridPane gridPane, int row, int col, ChessBoardData chessBoardData) {
+    private void addHints(int[] moves, int count, GridPane gridPane, int row, int col, ChessBoardData chessBoardData) {
         // Add visual indicators for each possible move
-        for (Position place : placesToAddHints) {
-            StackPane square = (StackPane) gridPane.getChildren().get(place.getRow() * 8 + place.getCol());
+        for (int i = 0; i < count; i++) {
+            // Squares are numbered row * 8 + col, the same as the grid's children
+            StackPane square = (StackPane) gridPane.getChildren().get(MoveCode.to(moves[i]));
 
-            // Different visual indicators for capturing moves vs. non-capturing moves
-            if (place.getSpecialMove() != null && (place.getSpecialMove().equals(Move.TAKING) || place.getSpecialMove().equals(Move.PROMOTE_TAKING))) {
+            // Different visual indicators for capturing moves vs. non-capturing moves (en passant lands on an empty square)
+            Move specialMove = Move.of(moves[i]);
+            if (specialMove == Move.TAKING || specialMove == Move.PROMOTE_TAKING) {
                 // For capturing moves, show a hollow circle
                 Circle outerCircle = new Circle(45, Color.rgb(0, 0, 0, 0.14));
                 Circle innerCircle = new Circle(35);
@@ -370,16 +333,17 @@ public class ChessBoardController {
     /**
      * Removes visual hints for possible moves.
      *
-     * @param placesToRemoveHints List of positions where hints should be removed
-     * @param gridPane            The chess board's GridPane
-     * @param row                 The row of the previously selected piece
-     * @param col                 The column of the previously selected piece
-     * @param chessBoardData      The chess game data
+     * @param moves          The packed moves whose target squares have a hint
+     * @param count          The number of moves in the buffer
+     * @param gridPane       The chess board's GridPane
+     * @param row            The row of the previously selected piece
+     * @param col            The column of the previously selected piece
+     * @param chessBoardData The chess game data
      */
-    private void removeHints(ArrayList<Position> placesToRemoveHints, GridPane gridPane, int row, int col, ChessBoardData chessBoardData) {
+    private void removeHints(int[] moves, int count, GridPane gridPane, int row, int col, ChessBoardData chessBoardData) {
         // Remove visual indicators for each possible move
-        for (Position move : placesToRemoveHints) {
-            StackPane square = (StackPane) gridPane.getChildren().get(move.getRow() * 8 + move.getCol());
+        for (int i = 0; i < count; i++) {
+            StackPane square = (StackPane) gridPane.getChildren().get(MoveCode.to(moves[i]));
             for (Node item : square.getChildren()) {
                 // Remove circles (non-capturing move indicators)
                 if (item instanceof Circle) {
@@ -0,0 +1,80 @@
+package com.example.chessgame.controllers;
+
+import com.example.chessgame.DTO.PawnPromoteDTO;
+import com.example.chessgame.data.ChessBoardData;
+import com.example.chessgame.data.GameListener;
+import com.example.chessgame.data.GameResult;
+import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Shows the screens the game asks for on top of the chess board:
+ * the piece selection when a pawn is promoted and the game over screen.
+ */
+public class ChessBoardListener implements GameListener {
+
+    private final GridPane gridPane;
+    private final ChessBoardData chessBoardData;
+
+    /**
+     * Creates a listener for one chess board.
+     *
+     * @param gridPane       The GridPane representing the chess board
+     * @param chessBoardData The data model of the game shown on the board
+     */
+    public ChessBoardListener(GridPane gridPane, ChessBoardData chessBoardData) {
+        this.gridPane = gridPane;
+        this.chessBoardData = chessBoardData;
+    }
+
+    /**
+     * Shows the promotion screen next to the promoting pawn.
+     *
+     * @param row The row of the pawn
+     * @param col The column of the pawn
+     */
+    @Override
+    public void onPromotion(int row, int col) {
+        // Set up UI for pawn promotion
+        StackPane stackPane = new StackPane();
+        Scene scene = gridPane.getScene();
+        stackPane.getChildren().add(gridPane);
+        try {
+            // The move has been played, so the promoting player is the one who just moved
+            VBox vBox;
+            if (chessBoardData.getTurn() == 'b') {
+                // White promotion UI appears at the top
+                vBox = FXMLLoader.load(Objects.requireNonNull(getClass().getClassLoader().getResource("com/example/chessgame/fxml/PawnPromoteScreenWhite.fxml")));
+                StackPane.setAlignment(vBox, Pos.TOP_LEFT);
+            } else {
+                // Black promotion UI appears at the bottom
+                vBox = FXMLLoader.load(Objects.requireNonNull(getClass().getClassLoader().getResource("com/example/chessgame/fxml/PawnPromoteScreenBlack.fxml")));
+                StackPane.setAlignment(vBox, Pos.BOTTOM_LEFT);
+            }
+            StackPane.setMargin(vBox, new Insets(0, 0, 0, col * 92));
+            vBox.setUserData(new PawnPromoteDTO(gridPane, row, col, chessBoardData));
+            stackPane.getChildren().add(vBox);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        scene.setRoot(stackPane);
+    }
+
+    /**
+     * Shows the game over screen.
+     *
+     * @param gameResult The result of the game
+     */
+    @Override
+    public void onGameEnd(GameResult gameResult) {
+        new GameOverController().createMatchOverScreen(gameResult, gridPane);
+    }
+}
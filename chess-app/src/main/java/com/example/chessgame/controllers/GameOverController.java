@@ -25,7 +25,7 @@ public class GameOverController {
     /**
      * Creates and displays the game over screen when a chess match ends.
      *
-     * @param gameResult The result of the completed game (WHITE_WIN, BLACK_WIN, or STALEMATE)
+     * @param gameResult The result of the completed game (WHITE_WIN, BLACK_WIN, or one of the draws)
      * @param gridPane   The current GridPane containing the chess board
      */
     public void createMatchOverScreen(GameResult gameResult, GridPane gridPane) {
@@ -64,7 +64,7 @@ public class GameOverController {
     /**
      * Sets the appropriate text on the result screen based on game outcome.
      *
-     * @param gameResult The result of the game (WHITE_WIN, BLACK_WIN, or STALEMATE)
+     * @param gameResult The result of the game (WHITE_WIN, BLACK_WIN, or one of the draws)
      * @param vBox       The VBox containing the result text element
      */
     private void addResultText(GameResult gameResult, VBox vBox) {
@@ -76,6 +76,9 @@ public class GameOverController {
             case WHITE_WIN -> text.setText("Valge võitis!"); // "White won!"
             case BLACK_WIN -> text.setText("Must võitis!"); // "Black won!"
             case STALEMATE -> text.setText("Mäng lõppes viigiga!"); // "Game ended in a draw!"
+            case THREEFOLD_REPETITION -> text.setText("Viik kolmekordse korduse tõttu!"); // "Draw by threefold repetition!"
+            case FIFTY_MOVE_RULE -> text.setText("Viik 50 käigu reegli tõttu!"); // "Draw by the fifty-move rule!"
+            case INSUFFICIENT_MATERIAL -> text.setText("Viik ebapiisava materjali tõttu!"); // "Draw by insufficient material!"
         }
     }
 
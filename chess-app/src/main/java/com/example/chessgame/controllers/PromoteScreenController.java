@@ -92,7 +92,7 @@ public class PromoteScreenController {
         Pawn pawn = (Pawn) chessBoard[row][col];
 
         // Promote the pawn to the selected piece type
-        pawn.promotePiece(chessBoard, id);
+        pawn.promotePiece(chessBoardData, id);
 
         // Print the updated chess board (likely for debugging or console representation)
         chessBoardData.printChessBoard();
@@ -1,6 +1,7 @@
 package com.example.chessgame.graphics;
 
 import com.example.chessgame.controllers.ChessBoardController;
+import com.example.chessgame.controllers.ChessBoardListener;
 import com.example.chessgame.data.ChessBoardData;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -61,9 +62,11 @@ public class ChessBoard {
         GridPane gridPane = new GridPane();
         gridPane.setAlignment(Pos.CENTER);
         ChessBoardData chessBoardData = new ChessBoardData();
+        chessBoardData.setGameListener(new ChessBoardListener(gridPane, chessBoardData));
 
         // Set up mouse click event handling
-        gridPane.setOnMouseClicked(event -> new ChessBoardController().handleMouseClick(event, sizeOfSquare, chessBoardData));
+        ChessBoardController chessBoardController = new ChessBoardController();
+        gridPane.setOnMouseClicked(event -> chessBoardController.handleMouseClick(event, sizeOfSquare, chessBoardData));
 
         // Create the 8x8 board grid
         for (int i = 0; i < 8; i++) {
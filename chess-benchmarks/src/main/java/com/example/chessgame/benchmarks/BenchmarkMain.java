@@ -0,0 +1,51 @@
+package com.example.chessgame.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the benchmarks and writes the results as JSON.
+ * <p>
+ * Usage: {@code java -jar chess-benchmarks/target/benchmarks.jar [JMH options]}
+ * <br>
+ * Takes the usual JMH command line options (for example a benchmark name pattern, {@code -p position=START}
+ * or {@code -prof gc}, whose {@code gc.alloc.rate.norm} shows the bytes allocated per operation).
+ * Unless {@code -rf} or {@code -rff} are given, the results are written in JSON to {@code jmh-result.json},
+ * so runs of different releases can be compared by tools.
+ */
+public final class BenchmarkMain {
+
+    // Where the results go unless the command line says otherwise
+    private static final ResultFormatType DEFAULT_RESULT_FORMAT = ResultFormatType.JSON;
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private BenchmarkMain() {
+
+    }
+
+    /**
+     * Runs JMH with JSON results by default.
+     *
+     * @param args JMH command line options
+     * @throws Exception if JMH fails to run the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        // Parsed the way JMH parses them, so every spelling of the result options is recognised
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.addAll(List.of("-rf", DEFAULT_RESULT_FORMAT.name().toLowerCase()));
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.addAll(List.of("-rff", DEFAULT_RESULT_FILE));
+        }
+        org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.chessgame.benchmarks;
+
+import com.example.chessgame.bitboard.BitboardPosition;
+
+/**
+ * The positions the benchmarks are run on, named so they can be chosen with JMH's {@code -p} option.
+ */
+public enum BenchmarkPosition {
+
+    /**
+     * The starting position: few moves, no captures
+     */
+    START(BitboardPosition.START_FEN),
+
+    /**
+     * A crowded middlegame with castling, en passant, pins and many captures
+     */
+    KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"),
+
+    /**
+     * A rook endgame with discovered checks along the ranks
+     */
+    ENDGAME("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"),
+
+    /**
+     * A position with promotions, promotion captures and a king in check after the first moves
+     */
+    PROMOTION("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8"),
+
+    /**
+     * White is checkmated (fool's mate), so the game result scan looks at every piece
+     */
+    CHECKMATE("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3"),
+
+    /**
+     * Black is stalemated, so the game result scan looks at every piece
+     */
+    STALEMATE("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+
+    private final String fen;
+
+    /**
+     * Creates a benchmark position.
+     *
+     * @param fen The position in Forsyth-Edwards Notation
+     */
+    BenchmarkPosition(String fen) {
+        this.fen = fen;
+    }
+
+    public String getFen() {
+        return fen;
+    }
+}
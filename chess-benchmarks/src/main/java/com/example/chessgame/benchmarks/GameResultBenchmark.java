@@ -0,0 +1,55 @@
+package com.example.chessgame.benchmarks;
+
+import com.example.chessgame.data.ChessBoardData;
+import com.example.chessgame.data.GameResult;
+import com.example.chessgame.pieces.Piece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Piece#getGameResult}, which runs after every move of the game. It returns at
+ * the first legal move it finds; when the game is over, every piece of the side to move has to be
+ * tried before it can tell, so the checkmate and stalemate positions are the slow cases.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameResultBenchmark {
+
+    @Param({"START", "KIWIPETE", "CHECKMATE", "STALEMATE"})
+    public BenchmarkPosition position;
+
+    private ChessBoardData chessBoardData;
+
+    /**
+     * Sets up the position.
+     */
+    @Setup
+    public void setUp() {
+        chessBoardData = new ChessBoardData(position.getFen());
+    }
+
+    /**
+     * Determines the result of the game in the position.
+     *
+     * @return The game result
+     */
+    @Benchmark
+    public GameResult getGameResult() {
+        return Piece.getGameResult(chessBoardData);
+    }
+}
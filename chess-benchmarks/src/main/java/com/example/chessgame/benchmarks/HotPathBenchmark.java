@@ -0,0 +1,224 @@
+package com.example.chessgame.benchmarks;
+
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.LegalMoveFilter;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.bitboard.MoveGenerator;
+import com.example.chessgame.data.ChessBoardData;
+import com.example.chessgame.eval.Evaluator;
+import com.example.chessgame.eval.PawnHashTable;
+import com.example.chessgame.eval.nnue.Accumulator;
+import com.example.chessgame.eval.nnue.Network;
+import com.example.chessgame.perft.Perft;
+import com.example.chessgame.search.StaticExchange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the operations the search runs at every node, each on a walk of the move tree with
+ * make/unmake: move generation through the core generator and through the piece API, legality
+ * checks, game end detection, captures with static exchange evaluation, the classic evaluation
+ * and the network evaluation. These are the operations AllocationTest requires to be free of
+ * allocation, so with {@code -prof gc} the {@code gc.alloc.rate.norm} of every benchmark here
+ * should stay at a few bytes, which is JMH's own bookkeeping spread over the calls of an
+ * iteration. Unlike {@link PerftBenchmark}, the move buffers are created once, not per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HotPathBenchmark {
+
+    @Param({"START", "KIWIPETE", "ENDGAME", "PROMOTION"})
+    public BenchmarkPosition position;
+
+    @Param({"2"})
+    public int depth;
+
+    private final MoveGenerator moveGenerator = new MoveGenerator();
+    private final LegalMoveFilter legalMoveFilter = new LegalMoveFilter();
+    private final StaticExchange staticExchange = new StaticExchange();
+    private final PawnHashTable pawnHashTable = new PawnHashTable();
+    private final Accumulator accumulator = new Accumulator(Network.fromPieceSquareTables());
+    private int[][] moves;
+    private ChessBoardData chessBoardData;
+    private BitboardPosition bitboardPosition;
+
+    // The same position with the accumulator attached, so make/unmake keeps it up to date.
+    // Only the network evaluation walks it, since the updates would slow down the other walks.
+    private BitboardPosition networkPosition;
+
+    /**
+     * Sets up the positions.
+     */
+    @Setup
+    public void setUp() {
+        moves = new int[depth + 1][MoveGenerator.MAX_MOVES];
+        chessBoardData = new ChessBoardData(position.getFen());
+        bitboardPosition = BitboardPosition.fromFen(position.getFen());
+        networkPosition = BitboardPosition.fromFen(position.getFen());
+        networkPosition.setAccumulator(accumulator);
+    }
+
+    /**
+     * Generates the moves of every node and plays them, with nothing else to do at the nodes.
+     *
+     * @return The number of nodes
+     */
+    @Benchmark
+    public long moveGeneration() {
+        return walk(bitboardPosition, depth, (position, buffer, count) -> 1);
+    }
+
+    /**
+     * Generates the moves of every node through the piece API and plays them on the board, as the game does.
+     *
+     * @return The number of nodes
+     */
+    @Benchmark
+    public long pieceMoves() {
+        return walk(depth);
+    }
+
+    /**
+     * Tests every legal move for the safety of the king, as the piece API does.
+     *
+     * @return A checksum of the results
+     */
+    @Benchmark
+    public long legalityCheck() {
+        return walk(bitboardPosition, depth, (position, buffer, count) -> {
+            int safe = 0;
+            for (int i = 0; i < count; i++) {
+                int to = MoveCode.to(buffer[i]);
+                if (position.isKingSafeAfterMove(MoveCode.from(buffer[i]), to, to)) {
+                    safe++;
+                }
+            }
+            return safe;
+        });
+    }
+
+    /**
+     * Tests if the side to move has a legal move, as the game does after every move.
+     *
+     * @return A checksum of the results
+     */
+    @Benchmark
+    public long gameEndDetection() {
+        return walk(bitboardPosition, depth, (position, buffer, count) -> {
+            legalMoveFilter.update(position);
+            return legalMoveFilter.hasLegalMove() ? 1 : 0;
+        });
+    }
+
+    /**
+     * Generates the captures and evaluates the exchange of each, as quiescence search does.
+     *
+     * @return A checksum of the results
+     */
+    @Benchmark
+    public long capturesAndExchange() {
+        return walk(bitboardPosition, depth, (position, buffer, count) -> {
+            // The tree walk is done with this node's buffer, so it can be reused
+            int captures = moveGenerator.generateCaptures(position, buffer);
+            int sum = 0;
+            for (int i = 0; i < captures; i++) {
+                sum += staticExchange.evaluate(position, buffer[i]);
+            }
+            return sum;
+        });
+    }
+
+    /**
+     * Evaluates every node with the classic evaluation and the pawn hash table.
+     *
+     * @return A checksum of the results
+     */
+    @Benchmark
+    public long evaluation() {
+        return walk(bitboardPosition, depth, (position, buffer, count) -> Evaluator.evaluate(position, pawnHashTable));
+    }
+
+    /**
+     * Evaluates every node with the network, whose accumulator make/unmake updates.
+     *
+     * @return A checksum of the results
+     */
+    @Benchmark
+    public long networkEvaluation() {
+        return walk(networkPosition, depth, (position, buffer, count) -> accumulator.evaluate(position.getSideToMove()));
+    }
+
+    /**
+     * Walks the move tree with the core move generator, calling an operation at every node.
+     *
+     * @param walked    The position, restored when done
+     * @param remaining The remaining depth
+     * @param operation The operation to call
+     * @return The sum of the operation's results
+     */
+    private long walk(BitboardPosition walked, int remaining, NodeOperation operation) {
+        int[] buffer = moves[remaining];
+        int count = moveGenerator.generateMoves(walked, buffer);
+        long sum = 0;
+        if (remaining > 0) {
+            for (int i = 0; i < count; i++) {
+                walked.makeMove(buffer[i]);
+                sum += walk(walked, remaining - 1, operation);
+                walked.unmakeMove(buffer[i]);
+            }
+        }
+        return sum + operation.apply(walked, buffer, count);
+    }
+
+    /**
+     * Walks the move tree through the piece API.
+     *
+     * @param remaining The remaining depth
+     * @return The number of nodes
+     */
+    private long walk(int remaining) {
+        int[] buffer = moves[remaining];
+        int count = Perft.legalMoves(chessBoardData, buffer);
+        long nodes = 1;
+        if (remaining > 0) {
+            for (int i = 0; i < count; i++) {
+                chessBoardData.makeMove(buffer[i]);
+                nodes += walk(remaining - 1);
+                chessBoardData.unmakeMove(buffer[i]);
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * An operation called at every node of a move tree.
+     */
+    @FunctionalInterface
+    private interface NodeOperation {
+
+        /**
+         * Runs the operation on a node.
+         *
+         * @param position The position at the node
+         * @param moves    The legal moves of the position; may be overwritten, the walk is done with them
+         * @param count    The number of legal moves
+         * @return A result that keeps the JIT from removing the operation
+         */
+        int apply(BitboardPosition position, int[] moves, int count);
+    }
+}
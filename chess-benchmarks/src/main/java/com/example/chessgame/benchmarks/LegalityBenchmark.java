@@ -0,0 +1,101 @@
+package com.example.chessgame.benchmarks;
+
+import com.example.chessgame.bitboard.Bitboard;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.bitboard.MoveGenerator;
+import com.example.chessgame.data.ChessBoardData;
+import com.example.chessgame.helper.CheckSquares;
+import com.example.chessgame.pieces.King;
+import com.example.chessgame.pieces.Piece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the legality checks of the piece API: {@link CheckSquares#moveNotCheck} for every move
+ * of the side to move, and {@link King#isUnderCheck} for its king.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LegalityBenchmark {
+
+    @Param({"START", "KIWIPETE", "ENDGAME", "PROMOTION", "CHECKMATE"})
+    public BenchmarkPosition position;
+
+    private ChessBoardData chessBoardData;
+    private King king;
+
+    // The moving piece and the target square of every move to check
+    private Piece[] movingPieces;
+    private int[] targets;
+
+    /**
+     * Sets up the position and collects the moves of the side to move.
+     */
+    @Setup
+    public void setUp() {
+        chessBoardData = new ChessBoardData(position.getFen());
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        movingPieces = new Piece[MoveGenerator.MAX_MOVES];
+        int count = 0;
+        for (Piece[] row : chessBoardData.getChessBoard()) {
+            for (Piece piece : row) {
+                if (piece != null && piece.getColor() == chessBoardData.getTurn()) {
+                    int pieceCount = piece.generateMoves(chessBoardData, moves, count);
+                    for (int i = count; i < pieceCount; i++) {
+                        movingPieces[i] = piece;
+                    }
+                    count = pieceCount;
+                    if (piece instanceof King ownKing) {
+                        king = ownKing;
+                    }
+                }
+            }
+        }
+        targets = new int[count];
+        for (int i = 0; i < count; i++) {
+            targets[i] = MoveCode.to(moves[i]);
+        }
+    }
+
+    /**
+     * Checks every move of the side to move for leaving the king in check.
+     *
+     * @return The number of safe moves, so the work is not optimised away
+     */
+    @Benchmark
+    public int moveNotCheck() {
+        int safe = 0;
+        for (int i = 0; i < targets.length; i++) {
+            Piece piece = movingPieces[i];
+            if (CheckSquares.moveNotCheck(chessBoardData, Bitboard.row(targets[i]), Bitboard.col(targets[i]), piece.getColor(), piece)) {
+                safe++;
+            }
+        }
+        return safe;
+    }
+
+    /**
+     * Checks whether the king of the side to move is attacked.
+     *
+     * @return true if the king is in check
+     */
+    @Benchmark
+    public boolean isUnderCheck() {
+        return king.isUnderCheck(chessBoardData.getChessBoard());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.chessgame.benchmarks;
+
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.search.Search;
+import com.example.chessgame.search.SearchConfig;
+import com.example.chessgame.search.SearchLimits;
+import com.example.chessgame.search.TranspositionTable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts the nodes of a fixed depth search on a fixed set of positions, for every search technique
+ * on its own and for all of them, against plain alpha-beta as the baseline (see {@link SearchConfig}).
+ * Node counts do not depend on the machine, so unlike the timings of {@link SearchBenchmark} they
+ * can be compared between runs right away.
+ * <p>
+ * Usage: {@code java -cp chess-benchmarks/target/benchmarks.jar com.example.chessgame.benchmarks.NodeCountSuite [depth] [config...]}
+ * <br>
+ * Without configurations, the baseline, every single technique and all of them are counted.
+ */
+public final class NodeCountSuite {
+
+    // The positions of the suite: every benchmark position that has legal moves
+    private static final BenchmarkPosition[] POSITIONS = {
+            BenchmarkPosition.START, BenchmarkPosition.KIWIPETE, BenchmarkPosition.ENDGAME, BenchmarkPosition.PROMOTION
+    };
+
+    private static final int DEFAULT_DEPTH = 7;
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private NodeCountSuite() {
+
+    }
+
+    /**
+     * Runs the suite from the command line and prints a table of node counts.
+     *
+     * @param args The depth and the configurations to count, both optional
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        List<String> configs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            configs.add(args[i]);
+        }
+        if (configs.isEmpty()) {
+            configs.addAll(List.of("none", "pvs", "asp", "nmp", "lmr", "rfp", "fp", "ext", "all"));
+        }
+
+        TranspositionTable transpositionTable = new TranspositionTable(16);
+        System.out.printf("%-20s", "config");
+        for (BenchmarkPosition position : POSITIONS) {
+            System.out.printf(" %12s", position);
+        }
+        System.out.printf(" %12s %10s%n", "total", "baseline");
+
+        long baseline = 0;
+        for (String name : configs) {
+            SearchConfig config = SearchConfig.parse(name);
+            long total = 0;
+            System.out.printf("%-20s", name);
+            for (BenchmarkPosition position : POSITIONS) {
+                // Every search starts from an empty table and a new history
+                transpositionTable.clear();
+                Search search = new Search(transpositionTable);
+                search.setConfig(config);
+                long nodes = search.search(BitboardPosition.fromFen(position.getFen()), SearchLimits.depth(depth)).nodes();
+                total += nodes;
+                System.out.printf(" %12d", nodes);
+            }
+            if (config.equals(SearchConfig.NONE)) {
+                baseline = total;
+            }
+            System.out.printf(" %12d %9s%n", total, baseline == 0 ? "-" : String.format("%.1f%%", 100.0 * total / baseline));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.chessgame.benchmarks;
+
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.data.ChessBoardData;
+import com.example.chessgame.perft.Perft;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures perft at fixed depths, through the piece API the game uses and through the core move
+ * generator. Perft combines move generation, legality checks and make/unmake, so it shows
+ * regressions in any of them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PerftBenchmark {
+
+    @Param({"START", "KIWIPETE", "ENDGAME", "PROMOTION"})
+    public BenchmarkPosition position;
+
+    @Param({"1", "2", "3"})
+    public int depth;
+
+    private ChessBoardData chessBoardData;
+    private BitboardPosition bitboardPosition;
+
+    /**
+     * Sets up the position for both move generators.
+     */
+    @Setup
+    public void setUp() {
+        chessBoardData = new ChessBoardData(position.getFen());
+        bitboardPosition = BitboardPosition.fromFen(position.getFen());
+    }
+
+    /**
+     * Counts the leaf nodes with the piece API and {@link ChessBoardData} make/unmake.
+     *
+     * @return The node count
+     */
+    @Benchmark
+    public long perftPieces() {
+        return Perft.perft(chessBoardData, depth);
+    }
+
+    /**
+     * Counts the leaf nodes with the core move generator and {@link BitboardPosition} make/unmake.
+     *
+     * @return The node count
+     */
+    @Benchmark
+    public long perftCore() {
+        return Perft.perftCore(bitboardPosition, depth);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.chessgame.benchmarks;
+
+import com.example.chessgame.bitboard.MoveGenerator;
+import com.example.chessgame.data.ChessBoardData;
+import com.example.chessgame.pieces.Piece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Piece#generateMoves} for every piece type: one operation generates the moves
+ * of all pieces of that type of the side to move.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PieceMovesBenchmark {
+
+    @Param({"START", "KIWIPETE", "ENDGAME", "PROMOTION"})
+    public BenchmarkPosition position;
+
+    // Letter of the piece type, as returned by Piece.getLetter()
+    @Param({"P", "N", "B", "R", "Q", "K"})
+    public String pieceType;
+
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private ChessBoardData chessBoardData;
+    private Piece[] pieces;
+
+    /**
+     * Sets up the position and collects the pieces to generate moves for.
+     */
+    @Setup
+    public void setUp() {
+        chessBoardData = new ChessBoardData(position.getFen());
+        List<Piece> found = new ArrayList<>();
+        for (Piece[] row : chessBoardData.getChessBoard()) {
+            for (Piece piece : row) {
+                if (piece != null && piece.getColor() == chessBoardData.getTurn() && piece.getLetter() == pieceType.charAt(0)) {
+                    found.add(piece);
+                }
+            }
+        }
+        pieces = found.toArray(new Piece[0]);
+    }
+
+    /**
+     * Generates the legal moves of all pieces of the chosen type.
+     *
+     * @return The number of moves, so the work is not optimised away
+     */
+    @Benchmark
+    public int generateMoves() {
+        int count = 0;
+        for (Piece piece : pieces) {
+            count = piece.generateMoves(chessBoardData, moves, count);
+        }
+        return count;
+    }
+}
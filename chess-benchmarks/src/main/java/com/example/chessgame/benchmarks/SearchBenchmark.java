@@ -0,0 +1,80 @@
+package com.example.chessgame.benchmarks;
+
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.search.Search;
+import com.example.chessgame.search.SearchConfig;
+import com.example.chessgame.search.SearchLimits;
+import com.example.chessgame.search.TranspositionTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a fixed depth search with each selective search technique on its own, with all of
+ * them and with none (see {@link SearchConfig}). Every search starts with an empty transposition
+ * table and fresh history, so the times can be compared between configurations.
+ * <p>
+ * How much a technique shrinks the tree is measured by the nodes per search, which
+ * {@link NodeCountSuite} counts for the same positions and configurations. JMH has no counter for
+ * a value per call: it adds up event counters over all measurement iterations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+
+    @Param({"START", "KIWIPETE", "ENDGAME"})
+    public BenchmarkPosition position;
+
+    @Param({"none", "pvs", "asp", "nmp", "lmr", "rfp", "fp", "ext", "all"})
+    public String config;
+
+    @Param({"6"})
+    public int depth;
+
+    private final TranspositionTable transpositionTable = new TranspositionTable(16);
+    private BitboardPosition bitboardPosition;
+    private Search search;
+
+    /**
+     * Parses the position once per trial.
+     */
+    @Setup
+    public void setUp() {
+        bitboardPosition = BitboardPosition.fromFen(position.getFen());
+    }
+
+    /**
+     * Starts every search from an empty table and a new history.
+     */
+    @Setup(Level.Invocation)
+    public void newSearch() {
+        transpositionTable.clear();
+        search = new Search(transpositionTable);
+        search.setConfig(SearchConfig.parse(config));
+    }
+
+    /**
+     * Searches the position to the fixed depth.
+     *
+     * @return The best move
+     */
+    @Benchmark
+    public int search() {
+        return search.search(bitboardPosition, SearchLimits.depth(depth)).bestMove();
+    }
+}
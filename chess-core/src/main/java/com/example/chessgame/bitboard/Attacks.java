@@ -0,0 +1,314 @@
+package com.example.chessgame.bitboard;
+
+/**
+ * Precomputed attack tables for every piece type.
+ * <p>
+ * Knight, king and pawn attacks only depend on the square, so they are stored in plain
+ * lookup tables. Rook and bishop attacks also depend on which squares are occupied; they are
+ * looked up with magic bitboards: the relevant blockers are multiplied by a magic number and the
+ * top bits of the product index a table holding the full attack set. The magic numbers below were
+ * found with a random search for this square numbering; all tables are filled once, when this
+ * class is loaded.
+ */
+public final class Attacks {
+
+    // Row and column steps of the four straight and four diagonal directions
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+    private static final int[][] KNIGHT_STEPS = {{2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {1, -2}, {-1, 2}, {-1, -2}};
+    private static final int[][] KING_STEPS = {{1, 1}, {1, 0}, {1, -1}, {0, 1}, {0, -1}, {-1, 1}, {-1, 0}, {-1, -1}};
+
+    // Leaper attacks per square (pawn attacks per color and square)
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    // Magic numbers per square, each maps every blocker subset of its square to a distinct slot
+    private static final long[] ROOK_MAGICS = {
+            0x1080004008801020L, 0x0840092002C03000L, 0x1900200010400900L, 0x0880100008000480L,
+            0x4200100420080200L, 0x8100020100080400L, 0x0200040110886200L, 0x0200008040220411L,
+            0x0404800084400220L, 0x0000401000402000L, 0x0086001081220440L, 0x0408800800100280L,
+            0x000A001201040820L, 0x8848800200840080L, 0x4001000100040200L, 0x0442000102105084L,
+            0x9080010020804100L, 0x0040404000201009L, 0x0000808010002009L, 0x2200090021D00100L,
+            0x0008008008040080L, 0x0004004002010040L, 0x0011040008015042L, 0x00000A0001768104L,
+            0x0000800080204009L, 0x2010004140002001L, 0x9800200280100080L, 0x1000100080080080L,
+            0x0442000A00049020L, 0x2100040080020080L, 0x0800120400900148L, 0x0010040A00128541L,
+            0x2800804000800030L, 0x1010002000400041L, 0x4000200011004100L, 0x0610008410800800L,
+            0x0400802402800800L, 0xC100020080800400L, 0x0002000802000401L, 0x0182085882000401L,
+            0x0220204000808000L, 0x2860100040024022L, 0x0001002004110040L, 0x99101042000A0020L,
+            0x0004080004008080L, 0x0010040002008080L, 0x2012004881020004L, 0x8300842444820011L,
+            0x0088403882010200L, 0x0820400080210100L, 0x0110910040A00300L, 0x0801100280080480L,
+            0x0242009008200600L, 0x1002000489500200L, 0x0040800200010080L, 0x0091800041000080L,
+            0x0000209300488001L, 0x04C1002414824001L, 0x020020000B001041L, 0x7000100004200901L,
+            0x8002002004100802L, 0x30010002084C0007L, 0x0888221800813004L, 0x4000002840840112L
+    };
+    private static final long[] BISHOP_MAGICS = {
+            0xA010041108003100L, 0x006082020A002900L, 0x6810010619200000L, 0x08281A0520000408L,
+            0x0001104001000400L, 0x0018901008048400L, 0x00040A0210245280L, 0x000200210808A402L,
+            0x9140048410821200L, 0x0800091010820041L, 0x20504804832202C0L, 0x0100091401081000L,
+            0x8021011140000012L, 0x0810020804450400L, 0x208B0542109008A2L, 0x0080084A08040204L,
+            0x0040E2A80811244CL, 0x2505022008008108L, 0x0430220100420040L, 0x010A040420220040L,
+            0x1105000290400000L, 0x0093001200822120L, 0x4000A62048043004L, 0x280120048A015004L,
+            0x006090002A020814L, 0x44042000240800D0L, 0x01102800040A4400L, 0x1004080080220040L,
+            0x0001001011004024L, 0x0010044000805040L, 0x0914041200820100L, 0x0004821012821480L,
+            0x0024040500C05021L, 0x0088611002080200L, 0x0116080A00040020L, 0x4000020080080080L,
+            0x2450450140840040L, 0x0000880201484100L, 0x0222020404020092L, 0x8081110600002E00L,
+            0x2842101105000801L, 0x1100809008001025L, 0x00020202221C0400L, 0x0422014022009020L,
+            0x0210046102100C00L, 0xC004008082029102L, 0x00AA461801101200L, 0x0404080080201108L,
+            0x020542108C205002L, 0x0410544804100100L, 0x0040910841100000L, 0x0400200042021100L,
+            0x00004204850400C0L, 0x0200100410A42102L, 0x1040020801210102L, 0x0805040410420000L,
+            0x2884804130100200L, 0x800C262201242000L, 0x1058000194108800L, 0x0014221054420204L,
+            0x0104000012A02200L, 0x0200881003300100L, 0x0140400202840100L, 0x0402020801010201L
+    };
+
+    // Magic lookup data per square: relevant blocker mask, shift and table offset
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] ROOK_OFFSETS = new int[64];
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final int[] BISHOP_OFFSETS = new int[64];
+
+    // Squares strictly between two aligned squares, and the whole line through them
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    // Shared attack tables, every square owns a slice starting at its offset
+    private static final long[] ROOK_TABLE = new long[102400];
+    private static final long[] BISHOP_TABLE = new long[5248];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            KNIGHT_ATTACKS[square] = stepAttacks(square, KNIGHT_STEPS);
+            KING_ATTACKS[square] = stepAttacks(square, KING_STEPS);
+            PAWN_ATTACKS[PieceCode.WHITE][square] = stepAttacks(square, new int[][]{{-1, -1}, {-1, 1}}); // White captures towards row 0
+            PAWN_ATTACKS[PieceCode.BLACK][square] = stepAttacks(square, new int[][]{{1, -1}, {1, 1}});   // Black captures towards row 7
+        }
+        initMagics(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS, ROOK_TABLE);
+        initMagics(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS, BISHOP_TABLE);
+        initLines();
+    }
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private Attacks() {
+
+    }
+
+    /**
+     * Gets the squares a rook attacks.
+     *
+     * @param square    The square of the rook
+     * @param occupancy All occupied squares on the board
+     * @return The attacked squares, including the first blocker in every direction
+     */
+    public static long rookAttacks(int square, long occupancy) {
+        return ROOK_TABLE[ROOK_OFFSETS[square] + (int) (((occupancy & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    /**
+     * Gets the squares a bishop attacks.
+     *
+     * @param square    The square of the bishop
+     * @param occupancy All occupied squares on the board
+     * @return The attacked squares, including the first blocker in every direction
+     */
+    public static long bishopAttacks(int square, long occupancy) {
+        return BISHOP_TABLE[BISHOP_OFFSETS[square] + (int) (((occupancy & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    /**
+     * Gets the squares a queen attacks, the union of rook and bishop attacks.
+     *
+     * @param square    The square of the queen
+     * @param occupancy All occupied squares on the board
+     * @return The attacked squares, including the first blocker in every direction
+     */
+    public static long queenAttacks(int square, long occupancy) {
+        return rookAttacks(square, occupancy) | bishopAttacks(square, occupancy);
+    }
+
+    /**
+     * Gets the squares a knight attacks.
+     *
+     * @param square The square of the knight
+     * @return The attacked squares
+     */
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    /**
+     * Gets the squares a king attacks.
+     *
+     * @param square The square of the king
+     * @return The attacked squares
+     */
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * Gets the squares a pawn attacks diagonally.
+     *
+     * @param color  The color of the pawn (WHITE or BLACK)
+     * @param square The square of the pawn
+     * @return The attacked squares
+     */
+    public static long pawnAttacks(int color, int square) {
+        return PAWN_ATTACKS[color][square];
+    }
+
+    /**
+     * Gets the squares strictly between two squares on the same row, column or diagonal.
+     *
+     * @param from The first square
+     * @param to   The second square
+     * @return The squares in between, or an empty bitboard if the squares are not aligned
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * Gets the full line (edge to edge) running through two squares.
+     *
+     * @param from The first square
+     * @param to   The second square
+     * @return The row, column or diagonal through both squares, or an empty bitboard if they are not aligned
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    /**
+     * Fills the between and line tables for every pair of aligned squares.
+     */
+    private static void initLines() {
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                if (from == to) {
+                    continue;
+                }
+                long both = Bitboard.bit(from) | Bitboard.bit(to);
+                if ((rookAttacks(from, 0) & Bitboard.bit(to)) != 0) {
+                    BETWEEN[from][to] = rookAttacks(from, Bitboard.bit(to)) & rookAttacks(to, Bitboard.bit(from));
+                    LINE[from][to] = (rookAttacks(from, 0) & rookAttacks(to, 0)) | both;
+                } else if ((bishopAttacks(from, 0) & Bitboard.bit(to)) != 0) {
+                    BETWEEN[from][to] = bishopAttacks(from, Bitboard.bit(to)) & bishopAttacks(to, Bitboard.bit(from));
+                    LINE[from][to] = (bishopAttacks(from, 0) & bishopAttacks(to, 0)) | both;
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the attack set of a leaper from a list of row and column steps.
+     *
+     * @param square The square the piece stands on
+     * @param steps  The row and column offsets the piece can jump to
+     * @return The squares reachable in one step that are on the board
+     */
+    private static long stepAttacks(int square, int[][] steps) {
+        long attacks = 0;
+        for (int[] step : steps) {
+            int row = Bitboard.row(square) + step[0];
+            int col = Bitboard.col(square) + step[1];
+            if (row >= 0 && row <= 7 && col >= 0 && col <= 7) {
+                attacks |= Bitboard.bit(Bitboard.square(row, col));
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Computes sliding attacks by walking each direction square by square.
+     * Only used to fill the magic tables.
+     *
+     * @param square     The square of the sliding piece
+     * @param occupancy  The occupied squares
+     * @param directions The row and column steps of the directions the piece slides in
+     * @return The attacked squares, including the first blocker in every direction
+     */
+    private static long slidingAttacks(int square, long occupancy, int[][] directions) {
+        long attacks = 0;
+        for (int[] direction : directions) {
+            int row = Bitboard.row(square) + direction[0];
+            int col = Bitboard.col(square) + direction[1];
+            while (row >= 0 && row <= 7 && col >= 0 && col <= 7) {
+                long bit = Bitboard.bit(Bitboard.square(row, col));
+                attacks |= bit;
+                // Stop after the first occupied square
+                if ((occupancy & bit) != 0) {
+                    break;
+                }
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Computes the squares whose occupancy matters for a sliding piece.
+     * The last square in every direction never blocks anything further, so it is left out.
+     *
+     * @param square     The square of the sliding piece
+     * @param directions The row and column steps of the directions the piece slides in
+     * @return The relevant blocker mask
+     */
+    private static long relevantMask(int square, int[][] directions) {
+        long mask = 0;
+        for (int[] direction : directions) {
+            int row = Bitboard.row(square) + direction[0];
+            int col = Bitboard.col(square) + direction[1];
+            // Only add a square if the next one in this direction is still on the board
+            while (row + direction[0] >= 0 && row + direction[0] <= 7 && col + direction[1] >= 0 && col + direction[1] <= 7) {
+                mask |= Bitboard.bit(Bitboard.square(row, col));
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Fills the shared attack table of a sliding piece using its magic numbers.
+     *
+     * @param directions The row and column steps of the sliding piece
+     * @param masks      Output: relevant blocker mask per square
+     * @param magics     The magic number per square
+     * @param shifts     Output: shift applied to the product per square
+     * @param offsets    Output: start of each square's slice in the table
+     * @param table      Output: the shared attack table
+     * @throws IllegalStateException if a magic number maps two different attack sets to the same slot
+     */
+    private static void initMagics(int[][] directions, long[] masks, long[] magics, int[] shifts, int[] offsets, long[] table) {
+        int offset = 0;
+        for (int square = 0; square < 64; square++) {
+            long mask = relevantMask(square, directions);
+            int bits = Long.bitCount(mask);
+            boolean[] filled = new boolean[1 << bits];
+
+            masks[square] = mask;
+            shifts[square] = 64 - bits;
+            offsets[square] = offset;
+
+            // Enumerate every subset of the mask (Carry-Rippler trick) and store its attack set
+            long subset = 0;
+            do {
+                int index = (int) ((subset * magics[square]) >>> shifts[square]);
+                long attacks = slidingAttacks(square, subset, directions);
+                if (filled[index] && table[offset + index] != attacks) {
+                    throw new IllegalStateException("Bad magic number for square " + Bitboard.squareName(square));
+                }
+                filled[index] = true;
+                table[offset + index] = attacks;
+                subset = (subset - mask) & mask;
+            } while (subset != 0);
+
+            offset += filled.length;
+        }
+    }
+}
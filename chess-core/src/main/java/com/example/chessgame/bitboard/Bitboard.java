@@ -0,0 +1,178 @@
+package com.example.chessgame.bitboard;
+
+/**
+ * Utility class with constants and static helpers for working with bitboards.
+ * <p>
+ * A bitboard is a 64-bit long where every bit stands for one square of the chess board.
+ * Squares are numbered the same way as the rows and columns of {@code Piece[][]} and the
+ * children of the board's {@code GridPane}: {@code square = row * 8 + col}, so bit 0 is a8,
+ * bit 7 is h8, bit 56 is a1 and bit 63 is h1.
+ */
+public final class Bitboard {
+
+    /**
+     * Bitboard with no squares set
+     */
+    public static final long EMPTY = 0L;
+
+    /**
+     * Bitboard with every square set
+     */
+    public static final long ALL = ~0L;
+
+    /**
+     * Squares of the a-file (column 0)
+     */
+    public static final long FILE_A = 0x0101010101010101L;
+
+    /**
+     * Squares of the h-file (column 7)
+     */
+    public static final long FILE_H = FILE_A << 7;
+
+    /**
+     * Squares of the eighth rank (row 0), black's back rank
+     */
+    public static final long RANK_8 = 0xFFL;
+
+    /**
+     * Squares of the first rank (row 7), white's back rank
+     */
+    public static final long RANK_1 = RANK_8 << 56;
+
+    /**
+     * The light squares of the board, a8 (square 0) and h1 (square 63) among them
+     */
+    public static final long LIGHT_SQUARES = 0xAA55AA55AA55AA55L;
+
+    /**
+     * Square index used when no square applies (for example no en passant square)
+     */
+    public static final int NO_SQUARE = -1;
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private Bitboard() {
+
+    }
+
+    /**
+     * Converts a row and column on the chess board into a square index.
+     *
+     * @param row The row coordinate (0-7), row 0 being black's back rank
+     * @param col The column coordinate (0-7), column 0 being the a-file
+     * @return The square index (0-63)
+     */
+    public static int square(int row, int col) {
+        return row * 8 + col;
+    }
+
+    /**
+     * Gets the row of a square index.
+     *
+     * @param square The square index (0-63)
+     * @return The row coordinate (0-7)
+     */
+    public static int row(int square) {
+        return square >>> 3;
+    }
+
+    /**
+     * Gets the column of a square index.
+     *
+     * @param square The square index (0-63)
+     * @return The column coordinate (0-7)
+     */
+    public static int col(int square) {
+        return square & 7;
+    }
+
+    /**
+     * Creates a bitboard with only the given square set.
+     *
+     * @param square The square index (0-63)
+     * @return A bitboard containing a single square
+     */
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * Gets a bitboard of all squares on the given row.
+     *
+     * @param row The row coordinate (0-7)
+     * @return A bitboard of the eight squares on that row
+     */
+    public static long rowMask(int row) {
+        return RANK_8 << (row * 8);
+    }
+
+    /**
+     * Gets a bitboard of all squares on the given column.
+     *
+     * @param col The column coordinate (0-7)
+     * @return A bitboard of the eight squares on that column
+     */
+    public static long colMask(int col) {
+        return FILE_A << col;
+    }
+
+    /**
+     * Gets the lowest set square of a bitboard.
+     *
+     * @param bitboard A non-empty bitboard
+     * @return The index of the lowest set square
+     */
+    public static int firstSquare(long bitboard) {
+        return Long.numberOfTrailingZeros(bitboard);
+    }
+
+    /**
+     * Converts a square index to algebraic notation, for example 52 becomes "e2".
+     *
+     * @param square The square index (0-63)
+     * @return The name of the square in algebraic notation
+     */
+    public static String squareName(int square) {
+        return "" + (char) ('a' + col(square)) + (char) ('8' - row(square));
+    }
+
+    /**
+     * Parses a square in algebraic notation, for example "e2" becomes 52.
+     *
+     * @param name The name of the square in algebraic notation
+     * @return The square index (0-63)
+     * @throws IllegalArgumentException if the text is not a valid square name
+     */
+    public static int parseSquare(String name) {
+        if (name.length() != 2) {
+            throw new IllegalArgumentException("Invalid square: " + name);
+        }
+        int col = name.charAt(0) - 'a';
+        int row = '8' - name.charAt(1);
+        if (col < 0 || col > 7 || row < 0 || row > 7) {
+            throw new IllegalArgumentException("Invalid square: " + name);
+        }
+        return square(row, col);
+    }
+
+    /**
+     * Creates a text representation of a bitboard, one row per line.
+     * Set squares are shown as 'X', empty squares as '-'.
+     * Used for debugging.
+     *
+     * @param bitboard The bitboard to show
+     * @return The bitboard drawn as an 8x8 grid
+     */
+    public static String toString(long bitboard) {
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                text.append((bitboard & bit(square(row, col))) != 0 ? 'X' : '-');
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,933 @@
+package com.example.chessgame.bitboard;
+
+import com.example.chessgame.eval.PieceSquareTables;
+import com.example.chessgame.eval.nnue.Accumulator;
+
+import java.util.Arrays;
+
+/**
+ * Bitboard representation of a chess position.
+ * <p>
+ * The position is stored as twelve 64-bit piece sets (one per color and piece type),
+ * occupancy bitboards per color, a square-to-piece lookup table and the extra state
+ * needed by the rules: side to move, castling rights, en passant square and the move clocks.
+ * Squares are numbered {@code row * 8 + col} (see {@link Bitboard}).
+ * <p>
+ * Every change to the position also updates its {@link Zobrist} key incrementally. Starting the
+ * JVM with {@code -Dchessgame.verifyZobrist=true} recomputes the key from scratch after every
+ * made and unmade move and throws an {@link IllegalStateException} when the two disagree.
+ * The material and square scores of the pieces and the game phase are kept up to date the same
+ * way, for the evaluation in {@link com.example.chessgame.eval.Evaluator}, and so is the
+ * neural network {@link Accumulator} if one is attached.
+ * <p>
+ * For the draw rules the position remembers the Zobrist keys of the earlier positions of the
+ * game, and keeps a material signature with the number of pieces of every kind.
+ */
+public class BitboardPosition {
+
+    /**
+     * FEN of the standard chess starting position
+     */
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // Castling right flags
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    // Whether every made and unmade move checks the incremental key against a full recompute
+    private static final boolean VERIFY_ZOBRIST = Boolean.getBoolean("chessgame.verifyZobrist");
+
+    // For every square, the castling rights that survive a move from or to that square
+    private static final int[] CASTLING_MASK = createCastlingMask();
+
+    // Material signature bits of the pawns, rooks and queens of both colors, which can always still mate
+    private static final long MATING_MATERIAL = createMatingMaterialMask();
+
+    // One bitboard per piece code (see PieceCode)
+    private final long[] pieces = new long[12];
+
+    // Occupied squares for white and black
+    private final long[] colorOccupancy = new long[2];
+
+    // Piece code on every square, PieceCode.NO_PIECE for empty squares
+    private final int[] board = new int[64];
+
+    private int sideToMove = PieceCode.WHITE;
+    private int castlingRights = 0;
+    private int enPassantSquare = Bitboard.NO_SQUARE;
+    private int halfmoveClock = 0;
+    private int fullmoveNumber = 1;
+
+    // Zobrist key of the position, updated with every change
+    private long zobristKey = Zobrist.castling(0);
+
+    // Zobrist key of only the pawns and kings, for the pawn hash table
+    private long pawnKey = 0;
+
+    // Number of pieces of every piece code, 4 bits each (see getPieceCount)
+    private long materialKey = 0;
+
+    // Sums of the piece-square scores of all pieces (white minus black) and the game phase
+    private int midgameScore = 0;
+    private int endgameScore = 0;
+    private int phase = 0;
+
+    // Hidden layer of the neural network evaluation, null unless attached with setAccumulator
+    private Accumulator accumulator;
+
+    // Undo records of the moves made with makeMove, newest last (see packUndo)
+    private long[] undoStack = new long[256];
+    private int undoCount = 0;
+
+    // Zobrist keys of the positions before every move made, oldest first
+    private long[] keyHistory = new long[256];
+    private int keyHistoryCount = 0;
+
+    /**
+     * Creates an empty position with white to move.
+     */
+    public BitboardPosition() {
+        Arrays.fill(board, PieceCode.NO_PIECE);
+    }
+
+    /**
+     * Creates a copy of another position.
+     * The copy starts with an empty undo stack, so moves made before the copy cannot be unmade on it.
+     * The Zobrist keys of the earlier positions are copied, so repetitions of them are still detected.
+     *
+     * @param other The position to copy
+     */
+    public BitboardPosition(BitboardPosition other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(other.colorOccupancy, 0, colorOccupancy, 0, colorOccupancy.length);
+        System.arraycopy(other.board, 0, board, 0, board.length);
+        sideToMove = other.sideToMove;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        zobristKey = other.zobristKey;
+        pawnKey = other.pawnKey;
+        materialKey = other.materialKey;
+        keyHistory = Arrays.copyOf(other.keyHistory, other.keyHistory.length);
+        keyHistoryCount = other.keyHistoryCount;
+        midgameScore = other.midgameScore;
+        endgameScore = other.endgameScore;
+        phase = other.phase;
+    }
+
+    /**
+     * Creates a position from a FEN string.
+     *
+     * @param fen The position in Forsyth-Edwards Notation
+     * @return The parsed position
+     * @throws IllegalArgumentException if the FEN is malformed
+     */
+    public static BitboardPosition fromFen(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("FEN needs at least 4 fields: " + fen);
+        }
+        BitboardPosition position = new BitboardPosition();
+
+        // Field 1: piece placement, starting from row 0 (the eighth rank)
+        String[] rows = fields[0].split("/");
+        if (rows.length != 8) {
+            throw new IllegalArgumentException("FEN needs 8 rows: " + fen);
+        }
+        for (int row = 0; row < 8; row++) {
+            int col = 0;
+            for (char c : rows[row].toCharArray()) {
+                if (Character.isDigit(c)) {
+                    col += c - '0';
+                } else {
+                    if (col > 7) {
+                        throw new IllegalArgumentException("Too many squares in FEN row: " + rows[row]);
+                    }
+                    position.addPiece(PieceCode.fromFenChar(c), Bitboard.square(row, col));
+                    col++;
+                }
+            }
+            if (col != 8) {
+                throw new IllegalArgumentException("FEN row does not have 8 squares: " + rows[row]);
+            }
+        }
+
+        // Field 2: side to move
+        switch (fields[1]) {
+            case "w" -> position.sideToMove = PieceCode.WHITE;
+            case "b" -> position.sideToMove = PieceCode.BLACK;
+            default -> throw new IllegalArgumentException("Invalid side to move: " + fields[1]);
+        }
+
+        // Field 3: castling rights
+        if (!fields[2].equals("-")) {
+            for (char c : fields[2].toCharArray()) {
+                switch (c) {
+                    case 'K' -> position.castlingRights |= WHITE_KINGSIDE;
+                    case 'Q' -> position.castlingRights |= WHITE_QUEENSIDE;
+                    case 'k' -> position.castlingRights |= BLACK_KINGSIDE;
+                    case 'q' -> position.castlingRights |= BLACK_QUEENSIDE;
+                    default -> throw new IllegalArgumentException("Invalid castling rights: " + fields[2]);
+                }
+            }
+        }
+
+        // Field 4: en passant square, dropped as makeMove does if no pawn can take there,
+        // so the position gets the same key as when it is reached by moves
+        int enPassantSquare = fields[3].equals("-") ? Bitboard.NO_SQUARE : Bitboard.parseSquare(fields[3]);
+        position.enPassantSquare = enPassantSquare != Bitboard.NO_SQUARE
+                && position.canCaptureEnPassant(position.sideToMove ^ 1, enPassantSquare) ? enPassantSquare : Bitboard.NO_SQUARE;
+
+        // Fields 5 and 6 are optional: halfmove clock and fullmove number
+        try {
+            if (fields.length > 4) {
+                position.halfmoveClock = Integer.parseInt(fields[4]);
+            }
+            if (fields.length > 5) {
+                position.fullmoveNumber = Integer.parseInt(fields[5]);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid move counters in FEN: " + fen, e);
+        }
+        position.zobristKey = position.computeZobristKey();
+        position.pawnKey = position.computePawnKey();
+        return position;
+    }
+
+    /**
+     * Writes the position as a FEN string.
+     *
+     * @return The position in Forsyth-Edwards Notation
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder();
+        for (int row = 0; row < 8; row++) {
+            int emptySquares = 0;
+            for (int col = 0; col < 8; col++) {
+                int piece = board[Bitboard.square(row, col)];
+                if (piece == PieceCode.NO_PIECE) {
+                    emptySquares++;
+                } else {
+                    if (emptySquares > 0) {
+                        fen.append(emptySquares);
+                        emptySquares = 0;
+                    }
+                    fen.append(PieceCode.fenChar(piece));
+                }
+            }
+            if (emptySquares > 0) {
+                fen.append(emptySquares);
+            }
+            if (row < 7) {
+                fen.append('/');
+            }
+        }
+        fen.append(sideToMove == PieceCode.WHITE ? " w " : " b ");
+
+        String castling = "";
+        if ((castlingRights & WHITE_KINGSIDE) != 0) castling += "K";
+        if ((castlingRights & WHITE_QUEENSIDE) != 0) castling += "Q";
+        if ((castlingRights & BLACK_KINGSIDE) != 0) castling += "k";
+        if ((castlingRights & BLACK_QUEENSIDE) != 0) castling += "q";
+        fen.append(castling.isEmpty() ? "-" : castling);
+
+        fen.append(' ').append(enPassantSquare == Bitboard.NO_SQUARE ? "-" : Bitboard.squareName(enPassantSquare));
+        fen.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+        return fen.toString();
+    }
+
+    /**
+     * Puts a piece on an empty square.
+     *
+     * @param piece  The piece code (0-11)
+     * @param square The square index (0-63)
+     */
+    public void addPiece(int piece, int square) {
+        long bit = Bitboard.bit(square);
+        pieces[piece] |= bit;
+        colorOccupancy[PieceCode.color(piece)] |= bit;
+        board[square] = piece;
+        zobristKey ^= Zobrist.piece(piece, square);
+        if (isPawnOrKing(piece)) {
+            pawnKey ^= Zobrist.piece(piece, square);
+        }
+        materialKey += materialUnit(piece);
+        midgameScore += PieceSquareTables.midgame(piece, square);
+        endgameScore += PieceSquareTables.endgame(piece, square);
+        phase += PieceSquareTables.phase(piece);
+        if (accumulator != null) {
+            accumulator.addPiece(piece, square);
+        }
+    }
+
+    /**
+     * Removes the piece standing on a square.
+     *
+     * @param square The square index (0-63)
+     * @return The code of the removed piece, or NO_PIECE if the square was empty
+     */
+    public int removePiece(int square) {
+        int piece = board[square];
+        if (piece != PieceCode.NO_PIECE) {
+            long bit = Bitboard.bit(square);
+            pieces[piece] &= ~bit;
+            colorOccupancy[PieceCode.color(piece)] &= ~bit;
+            board[square] = PieceCode.NO_PIECE;
+            zobristKey ^= Zobrist.piece(piece, square);
+            if (isPawnOrKing(piece)) {
+                pawnKey ^= Zobrist.piece(piece, square);
+            }
+            materialKey -= materialUnit(piece);
+            midgameScore -= PieceSquareTables.midgame(piece, square);
+            endgameScore -= PieceSquareTables.endgame(piece, square);
+            phase -= PieceSquareTables.phase(piece);
+            if (accumulator != null) {
+                accumulator.removePiece(piece, square);
+            }
+        }
+        return piece;
+    }
+
+    /**
+     * Moves a piece from one square to an empty square.
+     *
+     * @param from The square the piece stands on
+     * @param to   The empty destination square
+     */
+    public void movePiece(int from, int to) {
+        int piece = board[from];
+        long fromTo = Bitboard.bit(from) | Bitboard.bit(to);
+        pieces[piece] ^= fromTo;
+        colorOccupancy[PieceCode.color(piece)] ^= fromTo;
+        board[from] = PieceCode.NO_PIECE;
+        board[to] = piece;
+        zobristKey ^= Zobrist.piece(piece, from) ^ Zobrist.piece(piece, to);
+        if (isPawnOrKing(piece)) {
+            pawnKey ^= Zobrist.piece(piece, from) ^ Zobrist.piece(piece, to);
+        }
+        midgameScore += PieceSquareTables.midgame(piece, to) - PieceSquareTables.midgame(piece, from);
+        endgameScore += PieceSquareTables.endgame(piece, to) - PieceSquareTables.endgame(piece, from);
+        if (accumulator != null) {
+            accumulator.movePiece(piece, from, to);
+        }
+    }
+
+    /**
+     * Gets the piece on a square.
+     *
+     * @param square The square index (0-63)
+     * @return The piece code, or NO_PIECE if the square is empty
+     */
+    public int pieceAt(int square) {
+        return board[square];
+    }
+
+    /**
+     * Gets the bitboard of one piece code.
+     *
+     * @param piece The piece code (0-11)
+     * @return The squares holding that piece
+     */
+    public long getPieces(int piece) {
+        return pieces[piece];
+    }
+
+    /**
+     * Gets the bitboard of one piece type of one color.
+     *
+     * @param color WHITE or BLACK
+     * @param type  The piece type (PAWN to KING)
+     * @return The squares holding that piece
+     */
+    public long getPieces(int color, int type) {
+        return pieces[PieceCode.of(color, type)];
+    }
+
+    /**
+     * Gets all squares occupied by one color.
+     *
+     * @param color WHITE or BLACK
+     * @return The occupied squares of that color
+     */
+    public long getOccupancy(int color) {
+        return colorOccupancy[color];
+    }
+
+    /**
+     * Gets all occupied squares.
+     *
+     * @return The squares occupied by either color
+     */
+    public long getOccupancy() {
+        return colorOccupancy[PieceCode.WHITE] | colorOccupancy[PieceCode.BLACK];
+    }
+
+    /**
+     * Gets the square of a king.
+     *
+     * @param color WHITE or BLACK
+     * @return The square of that color's king, or NO_SQUARE if there is none
+     */
+    public int getKingSquare(int color) {
+        long king = pieces[PieceCode.of(color, PieceCode.KING)];
+        return king == 0 ? Bitboard.NO_SQUARE : Bitboard.firstSquare(king);
+    }
+
+    /**
+     * Gets all pieces of both colors that attack a square.
+     *
+     * @param square    The attacked square
+     * @param occupancy The occupied squares to use for sliding pieces
+     * @return The squares of all attacking pieces
+     */
+    public long attackersTo(int square, long occupancy) {
+        long rooksAndQueens = pieces[PieceCode.WHITE_ROOK] | pieces[PieceCode.BLACK_ROOK] | pieces[PieceCode.WHITE_QUEEN] | pieces[PieceCode.BLACK_QUEEN];
+        long bishopsAndQueens = pieces[PieceCode.WHITE_BISHOP] | pieces[PieceCode.BLACK_BISHOP] | pieces[PieceCode.WHITE_QUEEN] | pieces[PieceCode.BLACK_QUEEN];
+        // A pawn attacks the square if a pawn of the other color standing on it would attack the pawn
+        return (Attacks.pawnAttacks(PieceCode.BLACK, square) & pieces[PieceCode.WHITE_PAWN])
+                | (Attacks.pawnAttacks(PieceCode.WHITE, square) & pieces[PieceCode.BLACK_PAWN])
+                | (Attacks.knightAttacks(square) & (pieces[PieceCode.WHITE_KNIGHT] | pieces[PieceCode.BLACK_KNIGHT]))
+                | (Attacks.kingAttacks(square) & (pieces[PieceCode.WHITE_KING] | pieces[PieceCode.BLACK_KING]))
+                | (Attacks.rookAttacks(square, occupancy) & rooksAndQueens)
+                | (Attacks.bishopAttacks(square, occupancy) & bishopsAndQueens);
+    }
+
+    /**
+     * Checks if a square is attacked by any piece of one color.
+     *
+     * @param square  The square to check
+     * @param byColor The attacking color (WHITE or BLACK)
+     * @return true if at least one piece of that color attacks the square
+     */
+    public boolean isSquareAttacked(int square, int byColor) {
+        return (attackersTo(square, getOccupancy()) & colorOccupancy[byColor]) != 0;
+    }
+
+    /**
+     * Checks if the king of the side to move is in check.
+     *
+     * @return true if the side to move is in check
+     */
+    public boolean isInCheck() {
+        int kingSquare = getKingSquare(sideToMove);
+        return kingSquare != Bitboard.NO_SQUARE && isSquareAttacked(kingSquare, sideToMove ^ 1);
+    }
+
+    /**
+     * Checks if moving a piece leaves its own king safe, without changing the position.
+     * The occupancy after the move is computed with bitboards and the king square is tested
+     * for attackers, so it also works for en passant and king moves.
+     *
+     * @param from           The square of the moving piece
+     * @param to             The destination square
+     * @param capturedSquare The square of the captured piece (differs from {@code to} only for en passant)
+     * @return true if the king of the moving side is not attacked after the move
+     */
+    public boolean isKingSafeAfterMove(int from, int to, int capturedSquare) {
+        int movingPiece = board[from];
+        int us = PieceCode.color(movingPiece);
+        long removed = Bitboard.bit(from) | Bitboard.bit(capturedSquare);
+        long occupancy = (getOccupancy() & ~removed) | Bitboard.bit(to);
+        long opponents = colorOccupancy[us ^ 1] & ~Bitboard.bit(capturedSquare);
+
+        // If the king itself moves, its destination is the square to test
+        int kingSquare = PieceCode.type(movingPiece) == PieceCode.KING ? to : getKingSquare(us);
+        return kingSquare == Bitboard.NO_SQUARE || (attackersTo(kingSquare, occupancy) & opponents) == 0;
+    }
+
+    /**
+     * Plays a legal move and pushes an undo record so it can be taken back with {@link #unmakeMove}.
+     * Handles captures, en passant, castling (the rook moves too), promotions, castling rights,
+     * the en passant square, both move clocks and the side to move.
+     *
+     * @param move The move, packed with {@link MoveCode}
+     */
+    public void makeMove(int move) {
+        int from = MoveCode.from(move);
+        int to = MoveCode.to(move);
+        int flag = MoveCode.flag(move);
+        int piece = board[from];
+        int us = sideToMove;
+
+        // Remember the key for repetition detection and the state the move cannot restore by itself
+        if (keyHistoryCount == keyHistory.length) {
+            keyHistory = Arrays.copyOf(keyHistory, keyHistory.length * 2);
+        }
+        keyHistory[keyHistoryCount++] = zobristKey;
+        int capturedSquare = flag == MoveCode.EN_PASSANT ? Bitboard.square(Bitboard.row(from), Bitboard.col(to)) : to;
+        int captured = removePiece(capturedSquare);
+        if (undoCount == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoStack.length * 2);
+        }
+        undoStack[undoCount++] = packUndo(captured, castlingRights, enPassantSquare, halfmoveClock);
+
+        movePiece(from, to);
+        if (MoveCode.isPromotion(move)) {
+            removePiece(to);
+            addPiece(PieceCode.of(us, MoveCode.promotionType(move)), to);
+        } else if (flag == MoveCode.KING_CASTLE) {
+            // The rook jumps from the h-file to the square the king crossed
+            movePiece(to + 1, to - 1);
+        } else if (flag == MoveCode.QUEEN_CASTLE) {
+            // The rook jumps from the a-file to the square the king crossed
+            movePiece(to - 2, to + 1);
+        }
+
+        updateCastlingRights(from, to);
+        // The skipped square is only remembered if an opponent pawn could take en passant,
+        // so positions that only differ by an unusable en passant square get the same key
+        int skippedSquare = (from + to) / 2;
+        boolean enPassantPossible = flag == MoveCode.DOUBLE_PUSH && canCaptureEnPassant(us, skippedSquare);
+        setEnPassantSquare(enPassantPossible ? skippedSquare : Bitboard.NO_SQUARE);
+        // Pawn moves and captures reset the halfmove clock
+        halfmoveClock = (PieceCode.type(piece) == PieceCode.PAWN || captured != PieceCode.NO_PIECE) ? 0 : halfmoveClock + 1;
+        if (us == PieceCode.BLACK) {
+            fullmoveNumber++;
+        }
+        setSideToMove(us ^ 1);
+        if (VERIFY_ZOBRIST) {
+            verifyZobristKey();
+        }
+    }
+
+    /**
+     * Checks if an opponent pawn stands where it could take en passant on the square a pawn skipped.
+     * Pins are not looked at: like the key, this only depends on where the pawns are.
+     *
+     * @param pusher        The color of the pawn that moved two squares
+     * @param skippedSquare The square the pawn skipped
+     * @return true if a pawn of the other color attacks the skipped square
+     */
+    private boolean canCaptureEnPassant(int pusher, int skippedSquare) {
+        return (Attacks.pawnAttacks(pusher, skippedSquare) & pieces[PieceCode.of(pusher ^ 1, PieceCode.PAWN)]) != 0;
+    }
+
+    /**
+     * Takes back the last move played with {@link #makeMove}.
+     *
+     * @param move The same move that was passed to makeMove
+     */
+    public void unmakeMove(int move) {
+        int from = MoveCode.from(move);
+        int to = MoveCode.to(move);
+        int flag = MoveCode.flag(move);
+        int us = sideToMove ^ 1;
+        long undo = undoStack[--undoCount];
+        keyHistoryCount--;
+
+        setSideToMove(us);
+        if (us == PieceCode.BLACK) {
+            fullmoveNumber--;
+        }
+        setCastlingRights((int) (undo >>> 4) & 0xF);
+        setEnPassantSquare((int) ((undo >>> 8) & 0x7F) - 1);
+        halfmoveClock = (int) (undo >>> 16);
+
+        if (MoveCode.isPromotion(move)) {
+            removePiece(to);
+            addPiece(PieceCode.of(us, PieceCode.PAWN), to);
+        } else if (flag == MoveCode.KING_CASTLE) {
+            movePiece(to - 1, to + 1);
+        } else if (flag == MoveCode.QUEEN_CASTLE) {
+            movePiece(to + 1, to - 2);
+        }
+        movePiece(to, from);
+
+        int captured = (int) (undo & 0xF);
+        if (captured != PieceCode.NO_PIECE) {
+            int capturedSquare = flag == MoveCode.EN_PASSANT ? Bitboard.square(Bitboard.row(from), Bitboard.col(to)) : to;
+            addPiece(captured, capturedSquare);
+        }
+        if (VERIFY_ZOBRIST) {
+            verifyZobristKey();
+        }
+    }
+
+    /**
+     * Passes the turn to the opponent without moving a piece, for null move pruning in the search.
+     * The en passant square is cleared and the halfmove clock starts again, so no repetition is
+     * found across the null move. Taken back with {@link #unmakeNullMove}.
+     */
+    public void makeNullMove() {
+        if (keyHistoryCount == keyHistory.length) {
+            keyHistory = Arrays.copyOf(keyHistory, keyHistory.length * 2);
+        }
+        keyHistory[keyHistoryCount++] = zobristKey;
+        if (undoCount == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoStack.length * 2);
+        }
+        undoStack[undoCount++] = packUndo(PieceCode.NO_PIECE, castlingRights, enPassantSquare, halfmoveClock);
+        setEnPassantSquare(Bitboard.NO_SQUARE);
+        halfmoveClock = 0;
+        setSideToMove(sideToMove ^ 1);
+    }
+
+    /**
+     * Takes back the null move played last with {@link #makeNullMove}.
+     */
+    public void unmakeNullMove() {
+        long undo = undoStack[--undoCount];
+        keyHistoryCount--;
+        setSideToMove(sideToMove ^ 1);
+        setEnPassantSquare((int) ((undo >>> 8) & 0x7F) - 1);
+        halfmoveClock = (int) (undo >>> 16);
+    }
+
+    /**
+     * Packs the state needed to take back a move into one long:
+     * captured piece in bits 0-3, castling rights in bits 4-7,
+     * en passant square plus one in bits 8-14 and the halfmove clock from bit 16.
+     *
+     * @param captured        The captured piece code, or NO_PIECE
+     * @param castlingRights  The castling rights before the move
+     * @param enPassantSquare The en passant square before the move, or NO_SQUARE
+     * @param halfmoveClock   The halfmove clock before the move
+     * @return The packed undo record
+     */
+    private static long packUndo(int captured, int castlingRights, int enPassantSquare, int halfmoveClock) {
+        return captured | (castlingRights << 4) | ((enPassantSquare + 1) << 8) | ((long) halfmoveClock << 16);
+    }
+
+    /**
+     * Gets the number of moves that can currently be taken back.
+     *
+     * @return The number of undo records on the stack
+     */
+    public int getUndoCount() {
+        return undoCount;
+    }
+
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    public void setSideToMove(int sideToMove) {
+        if (sideToMove != this.sideToMove) {
+            zobristKey ^= Zobrist.BLACK_TO_MOVE;
+        }
+        this.sideToMove = sideToMove;
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public void setCastlingRights(int castlingRights) {
+        zobristKey ^= Zobrist.castling(this.castlingRights) ^ Zobrist.castling(castlingRights);
+        this.castlingRights = castlingRights;
+    }
+
+    /**
+     * Removes the castling rights lost by a move between two squares.
+     * Moving the king or a rook, or capturing a rook in its corner, loses the matching rights.
+     *
+     * @param from The square the piece moved from
+     * @param to   The square the piece moved to
+     */
+    public void updateCastlingRights(int from, int to) {
+        setCastlingRights(castlingRights & CASTLING_MASK[from] & CASTLING_MASK[to]);
+    }
+
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public void setEnPassantSquare(int enPassantSquare) {
+        zobristKey ^= Zobrist.enPassant(this.enPassantSquare) ^ Zobrist.enPassant(enPassantSquare);
+        this.enPassantSquare = enPassantSquare;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    public void setFullmoveNumber(int fullmoveNumber) {
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    /**
+     * Gets the sum of the middlegame piece-square scores of all pieces.
+     *
+     * @return White's scores minus black's scores, material included
+     */
+    public int getMidgameScore() {
+        return midgameScore;
+    }
+
+    /**
+     * Gets the sum of the endgame piece-square scores of all pieces.
+     *
+     * @return White's scores minus black's scores, material included
+     */
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    /**
+     * Gets the game phase: how much of the non-pawn material is still on the board.
+     *
+     * @return 24 at the start of the game (more after promotions) down to 0 with only kings and pawns
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * Attaches a neural network accumulator, which is then kept up to date with every change
+     * to the pieces. The copy constructor does not copy it.
+     *
+     * @param accumulator The accumulator, refreshed from this position, or null to detach
+     */
+    public void setAccumulator(Accumulator accumulator) {
+        this.accumulator = accumulator;
+        if (accumulator != null) {
+            accumulator.refresh(this);
+        }
+    }
+
+    public Accumulator getAccumulator() {
+        return accumulator;
+    }
+
+    /**
+     * Gets the Zobrist key of the position.
+     * Equal positions (same pieces, side to move, castling rights and en passant file) have equal keys.
+     *
+     * @return The 64-bit Zobrist key
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * Gets the pawn key of the position: the Zobrist key of only the pawns and the kings.
+     * Positions with the same pawn structure and king squares have equal pawn keys, whatever
+     * the other pieces, the side to move, castling rights and en passant square.
+     *
+     * @return The 64-bit pawn key
+     */
+    public long getPawnKey() {
+        return pawnKey;
+    }
+
+    /**
+     * Gets the material signature of the position: the number of pieces of every piece code,
+     * 4 bits each with piece code 0 in the lowest bits. Positions with the same pieces on any
+     * squares have equal signatures.
+     *
+     * @return The material signature
+     */
+    public long getMaterialKey() {
+        return materialKey;
+    }
+
+    /**
+     * Gets the number of pieces of one kind from the material signature.
+     *
+     * @param piece The piece code (0-11)
+     * @return The number of such pieces on the board
+     */
+    public int getPieceCount(int piece) {
+        return (int) (materialKey >>> (4 * piece)) & 0xF;
+    }
+
+    /**
+     * Counts how often the current position occurred earlier in the game.
+     * Only positions since the last pawn move or capture are compared, since no earlier position
+     * can come back, and only those with the same side to move.
+     *
+     * @return The number of earlier occurrences, 0 if the position is new
+     */
+    public int repetitionCount() {
+        int count = 0;
+        int oldest = Math.max(0, keyHistoryCount - halfmoveClock);
+        // The position two plies ago cannot be the same, both sides have moved a piece since
+        for (int i = keyHistoryCount - 4; i >= oldest; i -= 2) {
+            if (keyHistory[i] == zobristKey) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks the threefold repetition rule: the same position has occurred three times,
+     * with the same player to move, the same castling rights and the same en passant square.
+     *
+     * @return true if the current position is at least the third occurrence
+     */
+    public boolean isThreefoldRepetition() {
+        return repetitionCount() >= 2;
+    }
+
+    /**
+     * Checks the fifty-move rule: fifty moves by each player without a pawn move or capture.
+     *
+     * @return true if the halfmove clock has reached 100
+     */
+    public boolean isFiftyMoveRule() {
+        return halfmoveClock >= 100;
+    }
+
+    /**
+     * Checks if neither player has enough material left to ever checkmate: only kings with at
+     * most one knight or bishop, or with any number of bishops that all stand on squares of the
+     * same color. Two knights cannot force mate, but can still mate a careless opponent, so they
+     * are not counted as insufficient.
+     *
+     * @return true if no sequence of legal moves can end in checkmate
+     */
+    public boolean hasInsufficientMaterial() {
+        // Pawns, rooks and queens can always still mate; most positions end the test here
+        if ((materialKey & MATING_MATERIAL) != 0) {
+            return false;
+        }
+        int knights = getPieceCount(PieceCode.of(PieceCode.WHITE, PieceCode.KNIGHT)) + getPieceCount(PieceCode.of(PieceCode.BLACK, PieceCode.KNIGHT));
+        int bishops = getPieceCount(PieceCode.of(PieceCode.WHITE, PieceCode.BISHOP)) + getPieceCount(PieceCode.of(PieceCode.BLACK, PieceCode.BISHOP));
+        if (knights + bishops <= 1) {
+            return true;
+        }
+        long allBishops = pieces[PieceCode.of(PieceCode.WHITE, PieceCode.BISHOP)] | pieces[PieceCode.of(PieceCode.BLACK, PieceCode.BISHOP)];
+        return knights == 0 && ((allBishops & Bitboard.LIGHT_SQUARES) == 0 || (allBishops & ~Bitboard.LIGHT_SQUARES) == 0);
+    }
+
+    /**
+     * Computes the Zobrist key from scratch, without using the incrementally updated key.
+     *
+     * @return The 64-bit Zobrist key of the current position
+     */
+    public long computeZobristKey() {
+        long key = Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantSquare);
+        if (sideToMove == PieceCode.BLACK) {
+            key ^= Zobrist.BLACK_TO_MOVE;
+        }
+        for (int square = 0; square < 64; square++) {
+            if (board[square] != PieceCode.NO_PIECE) {
+                key ^= Zobrist.piece(board[square], square);
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Computes the pawn key from scratch, without using the incrementally updated key.
+     *
+     * @return The 64-bit pawn key of the current position
+     */
+    public long computePawnKey() {
+        long key = 0;
+        for (int square = 0; square < 64; square++) {
+            if (board[square] != PieceCode.NO_PIECE && isPawnOrKing(board[square])) {
+                key ^= Zobrist.piece(board[square], square);
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Computes the material signature from scratch, without using the incrementally updated one.
+     *
+     * @return The material signature of the current position
+     */
+    public long computeMaterialKey() {
+        long key = 0;
+        for (int piece = 0; piece < pieces.length; piece++) {
+            key += materialUnit(piece) * Long.bitCount(pieces[piece]);
+        }
+        return key;
+    }
+
+    /**
+     * Checks that the incrementally updated Zobrist and pawn keys and the material signature
+     * match a full recompute.
+     *
+     * @throws IllegalStateException if the keys differ
+     */
+    public void verifyZobristKey() {
+        long expected = computeZobristKey();
+        if (zobristKey != expected) {
+            throw new IllegalStateException("Zobrist key mismatch in " + toFen() + ": incremental "
+                    + Long.toHexString(zobristKey) + ", recomputed " + Long.toHexString(expected));
+        }
+        long expectedPawnKey = computePawnKey();
+        if (pawnKey != expectedPawnKey) {
+            throw new IllegalStateException("Pawn key mismatch in " + toFen() + ": incremental "
+                    + Long.toHexString(pawnKey) + ", recomputed " + Long.toHexString(expectedPawnKey));
+        }
+        long expectedMaterialKey = computeMaterialKey();
+        if (materialKey != expectedMaterialKey) {
+            throw new IllegalStateException("Material key mismatch in " + toFen() + ": incremental "
+                    + Long.toHexString(materialKey) + ", recomputed " + Long.toHexString(expectedMaterialKey));
+        }
+    }
+
+    /**
+     * Gets the amount one piece adds to the material signature.
+     *
+     * @param piece The piece code (0-11)
+     * @return 1 shifted to the 4 bits of the piece code
+     */
+    private static long materialUnit(int piece) {
+        return 1L << (4 * piece);
+    }
+
+    /**
+     * Builds the mask of the material signature bits that count pawns, rooks and queens.
+     *
+     * @return The mask
+     */
+    private static long createMatingMaterialMask() {
+        long mask = 0;
+        for (int color = PieceCode.WHITE; color <= PieceCode.BLACK; color++) {
+            for (int type : new int[]{PieceCode.PAWN, PieceCode.ROOK, PieceCode.QUEEN}) {
+                mask |= 0xFL << (4 * PieceCode.of(color, type));
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Checks if a piece is hashed into the pawn key.
+     *
+     * @param piece The piece code (0-11)
+     * @return True for pawns and kings of either color
+     */
+    private static boolean isPawnOrKing(int piece) {
+        int type = PieceCode.type(piece);
+        return type == PieceCode.PAWN || type == PieceCode.KING;
+    }
+
+    /**
+     * Builds the table of castling rights that survive a move touching each square.
+     *
+     * @return Array of 64 masks to AND with the castling rights
+     */
+    private static int[] createCastlingMask() {
+        int all = WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE;
+        int[] mask = new int[64];
+        Arrays.fill(mask, all);
+        mask[Bitboard.square(7, 4)] = all & ~(WHITE_KINGSIDE | WHITE_QUEENSIDE); // White king on e1
+        mask[Bitboard.square(7, 7)] = all & ~WHITE_KINGSIDE;                     // White rook on h1
+        mask[Bitboard.square(7, 0)] = all & ~WHITE_QUEENSIDE;                    // White rook on a1
+        mask[Bitboard.square(0, 4)] = all & ~(BLACK_KINGSIDE | BLACK_QUEENSIDE); // Black king on e8
+        mask[Bitboard.square(0, 7)] = all & ~BLACK_KINGSIDE;                     // Black rook on h8
+        mask[Bitboard.square(0, 0)] = all & ~BLACK_QUEENSIDE;                    // Black rook on a8
+        return mask;
+    }
+
+    @Override
+    public String toString() {
+        return "BitboardPosition{" + toFen() + '}';
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.chessgame.bitboard;
+
+/**
+ * Filters pseudo-legal moves down to legal moves for the side to move.
+ * <p>
+ * The checking pieces and the pinned pieces are computed once per position in {@link #update}.
+ * After that, the legal targets of any piece other than the king are a bitmask intersection:
+ * when in check a piece may only capture the checker or block the check, and a pinned piece may
+ * only move along the line between its king and the pinning piece. King moves and en passant
+ * captures can expose the king in ways the masks do not cover, so they fall back to a full
+ * test with {@link BitboardPosition#isKingSafeAfterMove}.
+ */
+public class LegalMoveFilter {
+
+    private BitboardPosition position;
+    private int kingSquare = Bitboard.NO_SQUARE;
+
+    // Opponent pieces giving check to the side to move
+    private long checkers;
+
+    // Pieces of the side to move that are pinned to their king
+    private long pinned;
+
+    // Squares a non-king piece may move to: everything when not in check,
+    // the checker and the squares between it and the king when in single check
+    private long checkMask = Bitboard.ALL;
+
+    /**
+     * Recomputes checkers, pinned pieces and the check mask for a position.
+     * Must be called again whenever the position changes.
+     *
+     * @param position The position to filter moves for
+     */
+    public void update(BitboardPosition position) {
+        this.position = position;
+        int us = position.getSideToMove();
+        int them = us ^ 1;
+        kingSquare = position.getKingSquare(us);
+        checkers = 0;
+        pinned = 0;
+        checkMask = Bitboard.ALL;
+
+        // Without a king (only in test positions) every pseudo-legal move is allowed
+        if (kingSquare == Bitboard.NO_SQUARE) {
+            return;
+        }
+
+        long occupancy = position.getOccupancy();
+        long ownPieces = position.getOccupancy(us);
+        checkers = position.attackersTo(kingSquare, occupancy) & position.getOccupancy(them);
+
+        // Opponent sliders that would attack the king if nothing stood in between
+        long queens = position.getPieces(them, PieceCode.QUEEN);
+        long snipers = (Attacks.rookAttacks(kingSquare, 0) & (position.getPieces(them, PieceCode.ROOK) | queens))
+                | (Attacks.bishopAttacks(kingSquare, 0) & (position.getPieces(them, PieceCode.BISHOP) | queens));
+        while (snipers != 0) {
+            int sniper = Bitboard.firstSquare(snipers);
+            snipers &= snipers - 1;
+            long blockers = Attacks.between(kingSquare, sniper) & occupancy;
+            // Exactly one blocker, and it is ours: that piece is pinned
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0 && (blockers & ownPieces) != 0) {
+                pinned |= blockers;
+            }
+        }
+
+        if (checkers != 0) {
+            if ((checkers & (checkers - 1)) != 0) {
+                // Double check: only the king can move
+                checkMask = 0;
+            } else {
+                // Single check: capture the checker or block between it and the king
+                checkMask = checkers | Attacks.between(kingSquare, Bitboard.firstSquare(checkers));
+            }
+        }
+    }
+
+    /**
+     * Reduces the targets of a piece other than the king to its legal targets.
+     *
+     * @param from    The square of the moving piece
+     * @param targets The pseudo-legal target squares of the piece
+     * @return The target squares that do not leave the king in check
+     */
+    public long legalTargets(int from, long targets) {
+        targets &= checkMask;
+        if ((pinned & Bitboard.bit(from)) != 0) {
+            // A pinned piece stays on the line through its king and the pinning piece
+            targets &= Attacks.line(kingSquare, from);
+        }
+        return targets;
+    }
+
+    /**
+     * Checks if the king of the side to move can go to a square without being attacked there.
+     *
+     * @param to The destination square of the king
+     * @return true if the king is safe on that square
+     */
+    public boolean isKingMoveLegal(int to) {
+        return position.isKingSafeAfterMove(kingSquare, to, to);
+    }
+
+    /**
+     * Checks if an en passant capture is legal.
+     * Removing two pawns from the same row can uncover an attack on the king,
+     * so this always runs the full test.
+     *
+     * @param from The square of the capturing pawn
+     * @param to   The en passant square the pawn moves to
+     * @return true if the king is safe after the capture
+     */
+    public boolean isEnPassantLegal(int from, int to) {
+        int capturedSquare = Bitboard.square(Bitboard.row(from), Bitboard.col(to));
+        return position.isKingSafeAfterMove(from, to, capturedSquare);
+    }
+
+    /**
+     * Checks if the side to move has at least one legal move, returning at the first one found.
+     * Game end detection runs this after every move instead of generating all moves: in most
+     * positions the first king step or piece tried already answers it.
+     * Castling is never tried, because whenever castling is legal the king's step towards the
+     * rook is legal as well.
+     *
+     * @return true if the side to move can make a legal move
+     */
+    public boolean hasLegalMove() {
+        int us = position.getSideToMove();
+        long ownPieces = position.getOccupancy(us);
+        long opponentPieces = position.getOccupancy(us ^ 1);
+        long occupancy = ownPieces | opponentPieces;
+
+        // The king first, since in double check it is the only piece that can move
+        if (kingSquare != Bitboard.NO_SQUARE) {
+            long targets = Attacks.kingAttacks(kingSquare) & ~ownPieces;
+            while (targets != 0) {
+                int target = Bitboard.firstSquare(targets);
+                targets &= targets - 1;
+                if (isKingMoveLegal(target)) {
+                    return true;
+                }
+            }
+        }
+        if ((checkers & (checkers - 1)) != 0) {
+            return false;
+        }
+
+        // Knights, bishops, rooks and queens: any legal target is enough
+        long knights = position.getPieces(us, PieceCode.KNIGHT);
+        while (knights != 0) {
+            int from = Bitboard.firstSquare(knights);
+            knights &= knights - 1;
+            if (legalTargets(from, Attacks.knightAttacks(from) & ~ownPieces) != 0) {
+                return true;
+            }
+        }
+        // A queen is tried in both loops, once with its diagonal and once with its straight moves
+        long queens = position.getPieces(us, PieceCode.QUEEN);
+        long diagonalSliders = position.getPieces(us, PieceCode.BISHOP) | queens;
+        while (diagonalSliders != 0) {
+            int from = Bitboard.firstSquare(diagonalSliders);
+            diagonalSliders &= diagonalSliders - 1;
+            if (legalTargets(from, Attacks.bishopAttacks(from, occupancy) & ~ownPieces) != 0) {
+                return true;
+            }
+        }
+        long straightSliders = position.getPieces(us, PieceCode.ROOK) | queens;
+        while (straightSliders != 0) {
+            int from = Bitboard.firstSquare(straightSliders);
+            straightSliders &= straightSliders - 1;
+            if (legalTargets(from, Attacks.rookAttacks(from, occupancy) & ~ownPieces) != 0) {
+                return true;
+            }
+        }
+
+        // Pawns: pushes onto empty squares and captures of opponent pieces
+        int forward = us == PieceCode.WHITE ? -8 : 8;
+        int startRow = us == PieceCode.WHITE ? 6 : 1;
+        int enPassantSquare = position.getEnPassantSquare();
+        long pawns = position.getPieces(us, PieceCode.PAWN);
+        while (pawns != 0) {
+            int from = Bitboard.firstSquare(pawns);
+            pawns &= pawns - 1;
+            long targets = Bitboard.bit(from + forward) & ~occupancy;
+            if (targets != 0 && Bitboard.row(from) == startRow) {
+                targets |= Bitboard.bit(from + 2 * forward) & ~occupancy;
+            }
+            targets |= Attacks.pawnAttacks(us, from) & opponentPieces;
+            if (legalTargets(from, targets) != 0) {
+                return true;
+            }
+            if (enPassantSquare != Bitboard.NO_SQUARE && (Attacks.pawnAttacks(us, from) & Bitboard.bit(enPassantSquare)) != 0
+                    && isEnPassantLegal(from, enPassantSquare)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getCheckers() {
+        return checkers;
+    }
+
+    public long getPinned() {
+        return pinned;
+    }
+
+    /**
+     * Checks if the side to move is in check.
+     *
+     * @return true if at least one opponent piece attacks the king
+     */
+    public boolean isInCheck() {
+        return checkers != 0;
+    }
+}
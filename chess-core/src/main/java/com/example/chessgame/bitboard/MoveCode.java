@@ -0,0 +1,161 @@
+package com.example.chessgame.bitboard;
+
+/**
+ * Utility class describing how moves are packed into a single {@code int}.
+ * <p>
+ * A move uses 16 bits: the from square in bits 0-5, the to square in bits 6-11 and a
+ * four bit flag in bits 12-15. The flag tells apart quiet moves, double pawn pushes,
+ * castling, captures, en passant and the four promotions (with or without a capture):
+ * <pre>
+ *  0 quiet move          8 knight promotion     12 knight promotion with capture
+ *  1 double pawn push    9 bishop promotion     13 bishop promotion with capture
+ *  2 kingside castle    10 rook promotion       14 rook promotion with capture
+ *  3 queenside castle   11 queen promotion      15 queen promotion with capture
+ *  4 capture
+ *  5 en passant capture
+ * </pre>
+ * Bit 2 of the flag marks captures and bit 3 marks promotions, so both can be tested with a mask.
+ */
+public final class MoveCode {
+
+    // Move flags
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int KNIGHT_PROMOTION = 8;
+    public static final int BISHOP_PROMOTION = 9;
+    public static final int ROOK_PROMOTION = 10;
+    public static final int QUEEN_PROMOTION = 11;
+    public static final int KNIGHT_PROMOTION_CAPTURE = 12;
+    public static final int BISHOP_PROMOTION_CAPTURE = 13;
+    public static final int ROOK_PROMOTION_CAPTURE = 14;
+    public static final int QUEEN_PROMOTION_CAPTURE = 15;
+
+    /**
+     * Value used for "no move". It would be a quiet move from a8 to a8, which is never legal.
+     */
+    public static final int NONE = 0;
+
+    // Flag bits shared by all captures and all promotions
+    private static final int CAPTURE_BIT = 4;
+    private static final int PROMOTION_BIT = 8;
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private MoveCode() {
+
+    }
+
+    /**
+     * Packs a move into an int.
+     *
+     * @param from The square the piece moves from
+     * @param to   The square the piece moves to
+     * @param flag The move flag (QUIET to QUEEN_PROMOTION_CAPTURE)
+     * @return The packed move
+     */
+    public static int of(int from, int to, int flag) {
+        return from | (to << 6) | (flag << 12);
+    }
+
+    /**
+     * Gets the square a move starts from.
+     *
+     * @param move The packed move
+     * @return The from square (0-63)
+     */
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    /**
+     * Gets the square a move goes to.
+     *
+     * @param move The packed move
+     * @return The to square (0-63)
+     */
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    /**
+     * Gets the flag of a move.
+     *
+     * @param move The packed move
+     * @return The move flag (QUIET to QUEEN_PROMOTION_CAPTURE)
+     */
+    public static int flag(int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    /**
+     * Checks if a move captures a piece, including en passant and promotions with capture.
+     *
+     * @param move The packed move
+     * @return true if the move is a capture
+     */
+    public static boolean isCapture(int move) {
+        return (flag(move) & CAPTURE_BIT) != 0;
+    }
+
+    /**
+     * Checks if a move promotes a pawn.
+     *
+     * @param move The packed move
+     * @return true if the move is a promotion
+     */
+    public static boolean isPromotion(int move) {
+        return (flag(move) & PROMOTION_BIT) != 0;
+    }
+
+    /**
+     * Checks if a move is castling to either side.
+     *
+     * @param move The packed move
+     * @return true if the move is castling
+     */
+    public static boolean isCastling(int move) {
+        int flag = flag(move);
+        return flag == KING_CASTLE || flag == QUEEN_CASTLE;
+    }
+
+    /**
+     * Gets the piece type a pawn promotes to.
+     *
+     * @param move A promotion move
+     * @return The piece type (KNIGHT to QUEEN, see {@link PieceCode})
+     */
+    public static int promotionType(int move) {
+        return PieceCode.KNIGHT + (flag(move) & 3);
+    }
+
+    /**
+     * Gets the promotion flag for a piece type.
+     *
+     * @param type    The piece type to promote to (KNIGHT to QUEEN)
+     * @param capture Whether the promoting pawn also captures
+     * @return The matching promotion flag
+     */
+    public static int promotionFlag(int type, boolean capture) {
+        return (capture ? KNIGHT_PROMOTION_CAPTURE : KNIGHT_PROMOTION) + type - PieceCode.KNIGHT;
+    }
+
+    /**
+     * Writes a move in coordinate notation as used by UCI, for example "e2e4" or "e7e8q".
+     *
+     * @param move The packed move
+     * @return The move in coordinate notation, or "0000" for NONE
+     */
+    public static String toUci(int move) {
+        if (move == NONE) {
+            return "0000";
+        }
+        String uci = Bitboard.squareName(from(move)) + Bitboard.squareName(to(move));
+        // The promotion piece is written in lower case, as in a black piece's FEN character
+        return isPromotion(move) ? uci + PieceCode.fenChar(PieceCode.of(PieceCode.BLACK, promotionType(move))) : uci;
+    }
+}
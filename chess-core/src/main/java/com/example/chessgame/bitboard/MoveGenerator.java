@@ -0,0 +1,226 @@
+package com.example.chessgame.bitboard;
+
+/**
+ * Generates the legal moves of a {@link BitboardPosition} as packed {@link MoveCode} ints.
+ * <p>
+ * Moves are written into an {@code int[]} supplied by the caller, so generating moves does not
+ * allocate. Legality comes from the same {@link LegalMoveFilter} the pieces use: checkers and
+ * pins are computed once per position and most moves are then filtered with bitmasks.
+ * An instance keeps its filter between calls and is not thread safe.
+ */
+public class MoveGenerator {
+
+    /**
+     * Upper bound of legal moves in any chess position, enough for a move buffer
+     */
+    public static final int MAX_MOVES = 256;
+
+    private final LegalMoveFilter legalMoveFilter = new LegalMoveFilter();
+
+    /**
+     * Writes all legal moves of the side to move into a buffer.
+     *
+     * @param position The position to generate moves for
+     * @param moves    The buffer to write to, at least MAX_MOVES long
+     * @return The number of moves written, starting at index 0
+     */
+    public int generateMoves(BitboardPosition position, int[] moves) {
+        return generate(position, moves, true);
+    }
+
+    /**
+     * Writes the legal captures (including en passant) and promotions of the side to move into a buffer.
+     * Used by quiescence search, which only follows moves that change the material balance.
+     *
+     * @param position The position to generate moves for
+     * @param moves    The buffer to write to, at least MAX_MOVES long
+     * @return The number of moves written, starting at index 0
+     */
+    public int generateCaptures(BitboardPosition position, int[] moves) {
+        return generate(position, moves, false);
+    }
+
+    /**
+     * Writes legal moves of the side to move into a buffer.
+     *
+     * @param position   The position to generate moves for
+     * @param moves      The buffer to write to, at least MAX_MOVES long
+     * @param quietMoves Whether moves that neither capture nor promote are included
+     * @return The number of moves written, starting at index 0
+     */
+    private int generate(BitboardPosition position, int[] moves, boolean quietMoves) {
+        legalMoveFilter.update(position);
+        int us = position.getSideToMove();
+        long ownPieces = position.getOccupancy(us);
+        long opponentPieces = position.getOccupancy(us ^ 1);
+        long occupancy = ownPieces | opponentPieces;
+        // Squares pieces may move to: anything but our own pieces, or only opponent pieces
+        long targetMask = quietMoves ? ~ownPieces : opponentPieces;
+        int count = 0;
+
+        // King steps are tested one by one, since the king may not step onto an attacked square
+        int kingSquare = position.getKingSquare(us);
+        if (kingSquare != Bitboard.NO_SQUARE) {
+            long targets = Attacks.kingAttacks(kingSquare) & targetMask;
+            while (targets != 0) {
+                int target = Bitboard.firstSquare(targets);
+                targets &= targets - 1;
+                if (legalMoveFilter.isKingMoveLegal(target)) {
+                    moves[count++] = MoveCode.of(kingSquare, target, (opponentPieces & Bitboard.bit(target)) != 0 ? MoveCode.CAPTURE : MoveCode.QUIET);
+                }
+            }
+        }
+
+        // In double check only the king can move
+        long checkers = legalMoveFilter.getCheckers();
+        if ((checkers & (checkers - 1)) != 0) {
+            return count;
+        }
+
+        if (quietMoves && checkers == 0 && kingSquare != Bitboard.NO_SQUARE) {
+            count = addCastling(position, kingSquare, occupancy, moves, count);
+        }
+
+        // Knights, bishops, rooks and queens
+        long knights = position.getPieces(us, PieceCode.KNIGHT);
+        while (knights != 0) {
+            int from = Bitboard.firstSquare(knights);
+            knights &= knights - 1;
+            count = addMoves(from, Attacks.knightAttacks(from) & targetMask, opponentPieces, moves, count);
+        }
+        long queens = position.getPieces(us, PieceCode.QUEEN);
+        long diagonalSliders = position.getPieces(us, PieceCode.BISHOP) | queens;
+        while (diagonalSliders != 0) {
+            int from = Bitboard.firstSquare(diagonalSliders);
+            diagonalSliders &= diagonalSliders - 1;
+            long targets = Attacks.bishopAttacks(from, occupancy);
+            // A queen gets its straight moves as well, so all its moves are added in one go
+            if ((queens & Bitboard.bit(from)) != 0) {
+                targets |= Attacks.rookAttacks(from, occupancy);
+            }
+            count = addMoves(from, targets & targetMask, opponentPieces, moves, count);
+        }
+        long rooks = position.getPieces(us, PieceCode.ROOK);
+        while (rooks != 0) {
+            int from = Bitboard.firstSquare(rooks);
+            rooks &= rooks - 1;
+            count = addMoves(from, Attacks.rookAttacks(from, occupancy) & targetMask, opponentPieces, moves, count);
+        }
+
+        return addPawnMoves(position, us, occupancy, opponentPieces, quietMoves, moves, count);
+    }
+
+    /**
+     * Adds a move for every legal target of a piece other than the king or a pawn.
+     *
+     * @param from           The square of the moving piece
+     * @param targets        The pseudo-legal target squares (own pieces already removed)
+     * @param opponentPieces The squares holding opponent pieces
+     * @param moves          The move buffer
+     * @param count          The number of moves already in the buffer
+     * @return The new number of moves in the buffer
+     */
+    private int addMoves(int from, long targets, long opponentPieces, int[] moves, int count) {
+        targets = legalMoveFilter.legalTargets(from, targets);
+        while (targets != 0) {
+            int target = Bitboard.firstSquare(targets);
+            targets &= targets - 1;
+            moves[count++] = MoveCode.of(from, target, (opponentPieces & Bitboard.bit(target)) != 0 ? MoveCode.CAPTURE : MoveCode.QUIET);
+        }
+        return count;
+    }
+
+    /**
+     * Adds the pawn pushes, captures, promotions and en passant captures of the side to move.
+     *
+     * @param position       The position
+     * @param us             The side to move
+     * @param occupancy      All occupied squares
+     * @param opponentPieces The squares holding opponent pieces
+     * @param quietMoves     Whether pushes that do not promote are included
+     * @param moves          The move buffer
+     * @param count          The number of moves already in the buffer
+     * @return The new number of moves in the buffer
+     */
+    private int addPawnMoves(BitboardPosition position, int us, long occupancy, long opponentPieces, boolean quietMoves, int[] moves, int count) {
+        // White pawns move towards row 0, black pawns towards row 7
+        int forward = us == PieceCode.WHITE ? -8 : 8;
+        int startRow = us == PieceCode.WHITE ? 6 : 1;
+        int promotionRow = us == PieceCode.WHITE ? 0 : 7;
+        int enPassantSquare = position.getEnPassantSquare();
+
+        long pawns = position.getPieces(us, PieceCode.PAWN);
+        while (pawns != 0) {
+            int from = Bitboard.firstSquare(pawns);
+            pawns &= pawns - 1;
+
+            // One square forward, and two from the starting row if both are empty.
+            // Without quiet moves only a push onto the promotion row is kept.
+            long targets = 0;
+            long oneForward = Bitboard.bit(from + forward) & ~occupancy;
+            if (oneForward != 0 && (quietMoves || Bitboard.row(from + forward) == promotionRow)) {
+                targets |= oneForward;
+                if (quietMoves && Bitboard.row(from) == startRow) {
+                    targets |= Bitboard.bit(from + 2 * forward) & ~occupancy;
+                }
+            }
+            targets |= Attacks.pawnAttacks(us, from) & opponentPieces;
+
+            targets = legalMoveFilter.legalTargets(from, targets);
+            while (targets != 0) {
+                int target = Bitboard.firstSquare(targets);
+                targets &= targets - 1;
+                boolean capture = (opponentPieces & Bitboard.bit(target)) != 0;
+                if (Bitboard.row(target) == promotionRow) {
+                    for (int type = PieceCode.QUEEN; type >= PieceCode.KNIGHT; type--) {
+                        moves[count++] = MoveCode.of(from, target, MoveCode.promotionFlag(type, capture));
+                    }
+                } else if (capture) {
+                    moves[count++] = MoveCode.of(from, target, MoveCode.CAPTURE);
+                } else {
+                    moves[count++] = MoveCode.of(from, target, target == from + 2 * forward ? MoveCode.DOUBLE_PUSH : MoveCode.QUIET);
+                }
+            }
+
+            // En passant: the square an enemy pawn just skipped is diagonally in front
+            if (enPassantSquare != Bitboard.NO_SQUARE && (Attacks.pawnAttacks(us, from) & Bitboard.bit(enPassantSquare)) != 0
+                    && legalMoveFilter.isEnPassantLegal(from, enPassantSquare)) {
+                moves[count++] = MoveCode.of(from, enPassantSquare, MoveCode.EN_PASSANT);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds the castling moves of the side to move. Must only be called when not in check.
+     * The castling right is only kept while king and rook are unmoved on their starting squares,
+     * so the squares between them must be empty and the king may not pass or land on an attacked square.
+     *
+     * @param position   The position
+     * @param kingSquare The square of the king of the side to move
+     * @param occupancy  All occupied squares
+     * @param moves      The move buffer
+     * @param count      The number of moves already in the buffer
+     * @return The new number of moves in the buffer
+     */
+    private int addCastling(BitboardPosition position, int kingSquare, long occupancy, int[] moves, int count) {
+        boolean white = position.getSideToMove() == PieceCode.WHITE;
+        int kingSide = white ? BitboardPosition.WHITE_KINGSIDE : BitboardPosition.BLACK_KINGSIDE;
+        int queenSide = white ? BitboardPosition.WHITE_QUEENSIDE : BitboardPosition.BLACK_QUEENSIDE;
+        int castlingRights = position.getCastlingRights();
+
+        if ((castlingRights & kingSide) != 0
+                && (occupancy & (Bitboard.bit(kingSquare + 1) | Bitboard.bit(kingSquare + 2))) == 0
+                && legalMoveFilter.isKingMoveLegal(kingSquare + 1)
+                && legalMoveFilter.isKingMoveLegal(kingSquare + 2)) {
+            moves[count++] = MoveCode.of(kingSquare, kingSquare + 2, MoveCode.KING_CASTLE);
+        }
+        if ((castlingRights & queenSide) != 0
+                && (occupancy & (Bitboard.bit(kingSquare - 1) | Bitboard.bit(kingSquare - 2) | Bitboard.bit(kingSquare - 3))) == 0
+                && legalMoveFilter.isKingMoveLegal(kingSquare - 1)
+                && legalMoveFilter.isKingMoveLegal(kingSquare - 2)) {
+            moves[count++] = MoveCode.of(kingSquare, kingSquare - 2, MoveCode.QUEEN_CASTLE);
+        }
+        return count;
+    }
+}
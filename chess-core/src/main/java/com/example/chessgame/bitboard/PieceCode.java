@@ -0,0 +1,149 @@
+package com.example.chessgame.bitboard;
+
+/**
+ * Utility class describing how pieces are numbered inside the bitboard position.
+ * <p>
+ * A piece code combines a color and a piece type as {@code color * 6 + type},
+ * which gives the twelve codes 0-11 used to index the piece bitboards.
+ */
+public final class PieceCode {
+
+    // Colors
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    // Piece types
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+
+    // Piece codes for both colors
+    public static final int WHITE_PAWN = 0;
+    public static final int WHITE_KNIGHT = 1;
+    public static final int WHITE_BISHOP = 2;
+    public static final int WHITE_ROOK = 3;
+    public static final int WHITE_QUEEN = 4;
+    public static final int WHITE_KING = 5;
+    public static final int BLACK_PAWN = 6;
+    public static final int BLACK_KNIGHT = 7;
+    public static final int BLACK_BISHOP = 8;
+    public static final int BLACK_ROOK = 9;
+    public static final int BLACK_QUEEN = 10;
+    public static final int BLACK_KING = 11;
+
+    /**
+     * Code stored on squares that hold no piece
+     */
+    public static final int NO_PIECE = 12;
+
+    // Letters of the piece types in the same order as the type constants
+    private static final String LETTERS = "PNBRQK";
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private PieceCode() {
+
+    }
+
+    /**
+     * Combines a color and a piece type into a piece code.
+     *
+     * @param color The color (WHITE or BLACK)
+     * @param type  The piece type (PAWN to KING)
+     * @return The piece code (0-11)
+     */
+    public static int of(int color, int type) {
+        return color * 6 + type;
+    }
+
+    /**
+     * Gets the color of a piece code.
+     *
+     * @param piece The piece code (0-11)
+     * @return WHITE or BLACK
+     */
+    public static int color(int piece) {
+        return piece < 6 ? WHITE : BLACK;
+    }
+
+    /**
+     * Gets the piece type of a piece code.
+     *
+     * @param piece The piece code (0-11)
+     * @return The piece type (PAWN to KING)
+     */
+    public static int type(int piece) {
+        return piece < 6 ? piece : piece - 6;
+    }
+
+    /**
+     * Converts the color character used by the pieces ('w' or 'b') to a color constant.
+     *
+     * @param color 'w' for white, 'b' for black
+     * @return WHITE or BLACK
+     */
+    public static int colorOf(char color) {
+        return color == 'w' ? WHITE : BLACK;
+    }
+
+    /**
+     * Converts a color constant to the color character used by the pieces.
+     *
+     * @param color WHITE or BLACK
+     * @return 'w' for white, 'b' for black
+     */
+    public static char colorChar(int color) {
+        return color == WHITE ? 'w' : 'b';
+    }
+
+    /**
+     * Gets the piece code for a piece color and letter as used by the {@code Piece} classes.
+     *
+     * @param color  'w' for white, 'b' for black
+     * @param letter The upper case letter of the piece (e.g., 'K' for king)
+     * @return The piece code (0-11)
+     */
+    public static int of(char color, char letter) {
+        return of(colorOf(color), LETTERS.indexOf(Character.toUpperCase(letter)));
+    }
+
+    /**
+     * Gets the upper case letter of a piece type (e.g., 'N' for knight).
+     *
+     * @param piece The piece code (0-11)
+     * @return The letter of the piece type
+     */
+    public static char letter(int piece) {
+        return LETTERS.charAt(type(piece));
+    }
+
+    /**
+     * Gets the FEN character of a piece: upper case for white, lower case for black.
+     *
+     * @param piece The piece code (0-11)
+     * @return The FEN character of the piece
+     */
+    public static char fenChar(int piece) {
+        char letter = letter(piece);
+        return color(piece) == WHITE ? letter : Character.toLowerCase(letter);
+    }
+
+    /**
+     * Gets the piece code of a FEN character.
+     *
+     * @param fenChar The FEN character (upper case for white, lower case for black)
+     * @return The piece code (0-11)
+     * @throws IllegalArgumentException if the character is not a piece
+     */
+    public static int fromFenChar(char fenChar) {
+        int type = LETTERS.indexOf(Character.toUpperCase(fenChar));
+        if (type < 0) {
+            throw new IllegalArgumentException("Invalid piece character: " + fenChar);
+        }
+        return of(Character.isUpperCase(fenChar) ? WHITE : BLACK, type);
+    }
+}
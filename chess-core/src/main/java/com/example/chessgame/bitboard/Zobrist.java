@@ -0,0 +1,84 @@
+package com.example.chessgame.bitboard;
+
+import java.util.SplittableRandom;
+
+/**
+ * Utility class holding the random numbers for Zobrist hashing.
+ * <p>
+ * A Zobrist key is the XOR of one random number for every piece on its square, one for the side
+ * to move when black is to move, one for the set of castling rights and one for the file of the
+ * en passant square. Since XOR is its own inverse, a move updates the key by XOR-ing out what
+ * changed and XOR-ing in the new state, instead of hashing the whole board again.
+ * The numbers come from a fixed seed, so keys are the same in every run.
+ */
+public final class Zobrist {
+
+    // One number per piece code and square
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+
+    // One number per combination of the four castling right flags
+    private static final long[] CASTLING = new long[16];
+
+    // One number per file of the en passant square
+    private static final long[] EN_PASSANT_FILE = new long[8];
+
+    /**
+     * Number XOR-ed into the key when black is to move
+     */
+    public static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_C0FFEEL);
+        for (long[] squares : PIECE_SQUARE) {
+            for (int square = 0; square < 64; square++) {
+                squares[square] = random.nextLong();
+            }
+        }
+        for (int rights = 0; rights < CASTLING.length; rights++) {
+            CASTLING[rights] = random.nextLong();
+        }
+        for (int file = 0; file < EN_PASSANT_FILE.length; file++) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private Zobrist() {
+
+    }
+
+    /**
+     * Gets the number for a piece standing on a square.
+     *
+     * @param piece  The piece code (0-11)
+     * @param square The square index (0-63)
+     * @return The random number of that piece on that square
+     */
+    public static long piece(int piece, int square) {
+        return PIECE_SQUARE[piece][square];
+    }
+
+    /**
+     * Gets the number for a set of castling rights.
+     *
+     * @param castlingRights The castling right flags (0-15)
+     * @return The random number of those rights
+     */
+    public static long castling(int castlingRights) {
+        return CASTLING[castlingRights];
+    }
+
+    /**
+     * Gets the number for an en passant square. Only the file matters, since the row
+     * follows from the side to move.
+     *
+     * @param enPassantSquare The en passant square, or NO_SQUARE
+     * @return The random number of its file, or 0 if there is no en passant square
+     */
+    public static long enPassant(int enPassantSquare) {
+        return enPassantSquare == Bitboard.NO_SQUARE ? 0 : EN_PASSANT_FILE[Bitboard.col(enPassantSquare)];
+    }
+}
@@ -0,0 +1,344 @@
+package com.example.chessgame.data;
+
+import com.example.chessgame.bitboard.Bitboard;
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.LegalMoveFilter;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.bitboard.PieceCode;
+import com.example.chessgame.pieces.*;
+
+import java.util.ArrayList;
+
+/**
+ * This class represents the data model for a chess game.
+ * It manages the chess board state and whose turn it is.
+ * <p>
+ * The game state itself lives in a {@link BitboardPosition}. The {@code Piece[][]} grid is a view
+ * on top of it that is kept in sync through {@link #setPiece(int, int, Piece)}.
+ */
+public class ChessBoardData {
+
+    // The bitboard position holding pieces, side to move, castling rights and en passant square
+    private final BitboardPosition position;
+
+    // A 2D array of piece objects mirroring the bitboard position, used by the pieces and the UI
+    private final Piece[][] chessBoard;
+
+    // Checkers and pins of the current position, shared by all pieces until the position changes
+    private final LegalMoveFilter legalMoveFilter = new LegalMoveFilter();
+    private boolean legalMoveFilterOutdated = true;
+
+    // Receives promotions and the end of the game
+    private GameListener gameListener = GameListener.NONE;
+
+    // Piece objects taken off the grid by makeMove, so unmakeMove can put the same objects back.
+    // Captured pieces are stored for every move (null if nothing was captured), pawns only for promotions.
+    private final ArrayList<Piece> capturedPieces = new ArrayList<>();
+    private final ArrayList<Piece> promotedPawns = new ArrayList<>();
+
+    // Promoted pieces taken off the grid by unmakeMove, indexed by piece code. Later promotions to
+    // the same piece reuse them, so playing through promotions does not create new objects.
+    private final ArrayList<ArrayList<Piece>> unusedPromotedPieces = new ArrayList<>();
+
+    /**
+     * Creates a chess board with all pieces in their starting positions.
+     */
+    public ChessBoardData() {
+        this(BitboardPosition.START_FEN);
+    }
+
+    /**
+     * Creates a chess board from a position in Forsyth-Edwards Notation.
+     *
+     * @param fen The position to set up
+     * @throws IllegalArgumentException if the FEN is malformed
+     */
+    public ChessBoardData(String fen) {
+        position = BitboardPosition.fromFen(fen);
+        chessBoard = createChessBoard();
+    }
+
+    /**
+     * Creates an independent copy of another chess board, with its own piece objects.
+     *
+     * @param other The chess board to copy
+     */
+    public ChessBoardData(ChessBoardData other) {
+        position = new BitboardPosition(other.position);
+        chessBoard = createChessBoard();
+    }
+
+    /**
+     * Registers the listener for promotions and the end of the game, replacing the previous one.
+     *
+     * @param gameListener The listener, or null to ignore these events
+     */
+    public void setGameListener(GameListener gameListener) {
+        this.gameListener = gameListener == null ? GameListener.NONE : gameListener;
+    }
+
+    public GameListener getGameListener() {
+        return gameListener;
+    }
+
+    /**
+     * Gets the current player's turn.
+     *
+     * @return 'w' for white's turn, 'b' for black's turn
+     */
+    public char getTurn() {
+        return PieceCode.colorChar(position.getSideToMove());
+    }
+
+    /**
+     * Switches the turn from the current player to the opponent.
+     * Changes from white to black or black to white.
+     */
+    public void nextTurn() {
+        if (position.getSideToMove() == PieceCode.BLACK) {
+            // A full move is complete once black has moved
+            position.setFullmoveNumber(position.getFullmoveNumber() + 1);
+        }
+        position.setSideToMove(position.getSideToMove() ^ 1);
+        legalMoveFilterOutdated = true;
+    }
+
+    /**
+     * Creates the piece objects for every occupied square of the bitboard position.
+     *
+     * @return A 2D array representing the chess board with pieces
+     */
+    private Piece[][] createChessBoard() {
+        Piece[][] chessBoard = new Piece[8][8];
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                int piece = position.pieceAt(Bitboard.square(row, col));
+                // Empty squares stay null
+                if (piece != PieceCode.NO_PIECE) {
+                    chessBoard[row][col] = createPiece(PieceCode.colorChar(PieceCode.color(piece)), PieceCode.letter(piece), row, col);
+                }
+            }
+        }
+        return chessBoard;
+    }
+
+    /**
+     * Creates a piece object from its color and letter.
+     *
+     * @param color  'w' for white, 'b' for black
+     * @param letter The upper case letter of the piece (e.g., 'K' for king)
+     * @param row    The row the piece stands on
+     * @param col    The column the piece stands on
+     * @return The new piece
+     */
+    public static Piece createPiece(char color, char letter, int row, int col) {
+        return switch (letter) {
+            case 'P' -> new Pawn(color, row, col);
+            case 'N' -> new Knight(color, row, col);
+            case 'B' -> new Bishop(color, row, col);
+            case 'R' -> new Rook(color, row, col);
+            case 'Q' -> new Queen(color, row, col);
+            case 'K' -> new King(color, row, col);
+            default -> throw new IllegalArgumentException("Unknown piece letter: " + letter);
+        };
+    }
+
+    /**
+     * Places a piece on a square, or clears the square when the piece is null.
+     * Any piece already on the square is removed. Both the piece grid and the
+     * bitboard position are updated.
+     *
+     * @param row   The row of the square
+     * @param col   The column of the square
+     * @param piece The piece to place, or null to empty the square
+     */
+    public void setPiece(int row, int col, Piece piece) {
+        int square = Bitboard.square(row, col);
+        position.removePiece(square);
+        if (piece != null) {
+            position.addPiece(PieceCode.of(piece.getColor(), piece.getLetter()), square);
+            piece.setRow(row);
+            piece.setCol(col);
+        }
+        chessBoard[row][col] = piece;
+        legalMoveFilterOutdated = true;
+    }
+
+    /**
+     * Plays a move on the bitboard position and the piece grid, so that it can be taken back
+     * with {@link #unmakeMove(int)}. Nothing is copied: the pieces on the grid are moved and
+     * captured pieces are kept aside until the move is unmade.
+     *
+     * @param move The move, packed with {@link MoveCode}
+     */
+    public void makeMove(int move) {
+        int from = MoveCode.from(move);
+        int to = MoveCode.to(move);
+        int flag = MoveCode.flag(move);
+        Piece movingPiece = pieceAt(from);
+
+        // For en passant the captured pawn stands beside the moving pawn, not on the target square
+        int capturedSquare = flag == MoveCode.EN_PASSANT ? Bitboard.square(Bitboard.row(from), Bitboard.col(to)) : to;
+        capturedPieces.add(pieceAt(capturedSquare));
+        placeOnGrid(capturedSquare, null);
+        placeOnGrid(from, null);
+
+        if (MoveCode.isPromotion(move)) {
+            // The pawn is replaced by a new piece and kept for unmakeMove
+            promotedPawns.add(movingPiece);
+            placeOnGrid(to, takePromotedPiece(PieceCode.of(PieceCode.colorOf(movingPiece.getColor()), MoveCode.promotionType(move))));
+        } else {
+            placeOnGrid(to, movingPiece);
+        }
+        if (flag == MoveCode.KING_CASTLE) {
+            placeOnGrid(to - 1, pieceAt(to + 1));
+            placeOnGrid(to + 1, null);
+        } else if (flag == MoveCode.QUEEN_CASTLE) {
+            placeOnGrid(to + 1, pieceAt(to - 2));
+            placeOnGrid(to - 2, null);
+        }
+
+        position.makeMove(move);
+        legalMoveFilterOutdated = true;
+    }
+
+    /**
+     * Takes back the last move played with {@link #makeMove(int)}.
+     * The piece objects that were on the board before the move are restored.
+     *
+     * @param move The same move that was passed to makeMove
+     */
+    public void unmakeMove(int move) {
+        int from = MoveCode.from(move);
+        int to = MoveCode.to(move);
+        int flag = MoveCode.flag(move);
+
+        if (flag == MoveCode.KING_CASTLE) {
+            placeOnGrid(to + 1, pieceAt(to - 1));
+            placeOnGrid(to - 1, null);
+        } else if (flag == MoveCode.QUEEN_CASTLE) {
+            placeOnGrid(to - 2, pieceAt(to + 1));
+            placeOnGrid(to + 1, null);
+        }
+        Piece movingPiece = pieceAt(to);
+        if (MoveCode.isPromotion(move)) {
+            unusedPromotedPieces.get(PieceCode.of(movingPiece.getColor(), movingPiece.getLetter())).add(movingPiece);
+            movingPiece = promotedPawns.remove(promotedPawns.size() - 1);
+        }
+        placeOnGrid(to, null);
+        placeOnGrid(from, movingPiece);
+
+        int capturedSquare = flag == MoveCode.EN_PASSANT ? Bitboard.square(Bitboard.row(from), Bitboard.col(to)) : to;
+        placeOnGrid(capturedSquare, capturedPieces.remove(capturedPieces.size() - 1));
+
+        position.unmakeMove(move);
+        legalMoveFilterOutdated = true;
+    }
+
+    /**
+     * Gets a piece object for a promotion, reusing one that an earlier unmakeMove took off the grid.
+     *
+     * @param piece The piece code (0-11) of the piece the pawn promotes to
+     * @return A piece object that is not on the grid
+     */
+    private Piece takePromotedPiece(int piece) {
+        while (unusedPromotedPieces.size() <= piece) {
+            unusedPromotedPieces.add(new ArrayList<>());
+        }
+        ArrayList<Piece> unused = unusedPromotedPieces.get(piece);
+        if (unused.isEmpty()) {
+            return createPiece(PieceCode.colorChar(PieceCode.color(piece)), PieceCode.letter(piece), 0, 0);
+        }
+        return unused.remove(unused.size() - 1);
+    }
+
+    /**
+     * Gets the piece object on a square of the grid.
+     *
+     * @param square The square index (0-63)
+     * @return The piece, or null if the square is empty
+     */
+    private Piece pieceAt(int square) {
+        return chessBoard[Bitboard.row(square)][Bitboard.col(square)];
+    }
+
+    /**
+     * Puts a piece object on a square of the grid only, leaving the bitboard position as it is.
+     *
+     * @param square The square index (0-63)
+     * @param piece  The piece to place, or null to empty the square
+     */
+    private void placeOnGrid(int square, Piece piece) {
+        int row = Bitboard.row(square);
+        int col = Bitboard.col(square);
+        if (piece != null) {
+            piece.setRow(row);
+            piece.setCol(col);
+        }
+        chessBoard[row][col] = piece;
+    }
+
+    /**
+     * Gets the legal move filter of the current position.
+     * Checkers and pinned pieces are only recomputed after the position has changed.
+     *
+     * @return The legal move filter for the side to move
+     */
+    public LegalMoveFilter getLegalMoveFilter() {
+        if (legalMoveFilterOutdated) {
+            legalMoveFilter.update(position);
+            legalMoveFilterOutdated = false;
+        }
+        return legalMoveFilter;
+    }
+
+    /**
+     * Prints a text representation of the chess board to the console.
+     * Used for debugging or console-based views.
+     * Each piece is represented by its letter abbreviation or '-' for empty squares.
+     */
+    public void printChessBoard() {
+        for (int row = 0; row < 8; row++) {
+            StringBuilder rowText = new StringBuilder("[");
+            for (int col = 0; col < 8; col++) {
+                if (chessBoard[row][col] != null) {
+                    // Add the piece's letter code to the string
+                    rowText.append(chessBoard[row][col].getLetter()).append(", ");
+                } else {
+                    // Add a dash for empty squares
+                    rowText.append("-, ");
+                }
+            }
+            // Print the row without the trailing comma and space
+            System.out.println(rowText.substring(0, rowText.length() - 2) + "]");
+        }
+    }
+
+    /**
+     * Gets the current state of the chess board.
+     *
+     * @return The 2D array representing the chess board
+     */
+    public Piece[][] getChessBoard() {
+        return chessBoard;
+    }
+
+    /**
+     * Gets the Zobrist key identifying the current position.
+     * It is updated on every move, so repeated positions can be recognised and cached.
+     *
+     * @return The 64-bit Zobrist key
+     */
+    public long getZobristKey() {
+        return position.getZobristKey();
+    }
+
+    /**
+     * Gets the bitboard position behind this chess board.
+     *
+     * @return The bitboard position
+     */
+    public BitboardPosition getPosition() {
+        return position;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.chessgame.data;
+
+/**
+ * Receives the events of a game that need a decision or a reaction from outside the rules,
+ * such as a user interface or a server.
+ * <p>
+ * A listener is registered with {@link ChessBoardData#setGameListener(GameListener)}. Both methods
+ * do nothing by default, so a listener only implements the events it needs.
+ */
+public interface GameListener {
+
+    /**
+     * A listener that ignores all events, used when none is registered.
+     */
+    GameListener NONE = new GameListener() {
+    };
+
+    /**
+     * Called when a pawn has moved onto the last row and the player has to choose the piece it
+     * becomes. The game continues once the pawn is replaced with
+     * {@link com.example.chessgame.pieces.Pawn#promotePiece(ChessBoardData, String)}.
+     *
+     * @param row The row of the pawn
+     * @param col The column of the pawn
+     */
+    default void onPromotion(int row, int col) {
+
+    }
+
+    /**
+     * Called after a move that ends the game.
+     *
+     * @param gameResult The result of the game (WHITE_WIN, BLACK_WIN or one of the draws)
+     */
+    default void onGameEnd(GameResult gameResult) {
+
+    }
+}
@@ -28,5 +28,32 @@ public enum GameResult {
      * Occurs when a player has no legal moves but is not in check
      * (the king is not threatened, but no piece can move without putting the king in check)
      */
-    STALEMATE
+    STALEMATE,
+
+    /**
+     * Indicates a draw because the same position has occurred three times,
+     * with the same player to move
+     */
+    THREEFOLD_REPETITION,
+
+    /**
+     * Indicates a draw because fifty moves by each player have been made
+     * without a pawn move or a capture
+     */
+    FIFTY_MOVE_RULE,
+
+    /**
+     * Indicates a draw because neither player has enough pieces left to checkmate
+     * (for example king against king, or king and knight against king)
+     */
+    INSUFFICIENT_MATERIAL;
+
+    /**
+     * Checks if the result is a draw of any kind.
+     *
+     * @return true for stalemate and the other draw rules
+     */
+    public boolean isDraw() {
+        return this != WHITE_WIN && this != BLACK_WIN && this != PLAY_ON;
+    }
 }
\ No newline at end of file
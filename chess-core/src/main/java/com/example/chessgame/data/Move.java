@@ -1,5 +1,7 @@
 package com.example.chessgame.data;
 
+import com.example.chessgame.bitboard.MoveCode;
+
 /**
  * Represents special moves and actions in chess.
  * This enum defines unique movement types beyond standard piece movement.
@@ -37,5 +39,24 @@ public enum Move {
      * Represents a pawn promotion that occurs during a capture,
      * combining the promotion and taking actions.
      */
-    PROMOTE_TAKING
-}
\ No newline at end of file
+    PROMOTE_TAKING;
+
+    /**
+     * Gets the special move of a packed move (see {@link MoveCode}).
+     * All four promotion flags map to the same promotion, since the piece is chosen separately.
+     *
+     * @param move The packed move
+     * @return The special move, or null for a quiet move or double pawn push
+     */
+    public static Move of(int move) {
+        if (MoveCode.isPromotion(move)) {
+            return MoveCode.isCapture(move) ? PROMOTE_TAKING : PROMOTE;
+        }
+        return switch (MoveCode.flag(move)) {
+            case MoveCode.KING_CASTLE, MoveCode.QUEEN_CASTLE -> CASTLING;
+            case MoveCode.EN_PASSANT -> EN_PASSANT;
+            case MoveCode.CAPTURE -> TAKING;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.chessgame.eval;
+
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.PieceCode;
+
+/**
+ * Utility class for the static evaluation of a position.
+ * <p>
+ * The position keeps the sums of the {@link PieceSquareTables} scores of all its pieces up to date
+ * on every change, so evaluating is constant time. The middlegame and endgame sums are blended by
+ * the game phase ("tapered" evaluation), so the evaluation shifts smoothly from middlegame to
+ * endgame values as pieces are traded instead of jumping at some material threshold.
+ * <p>
+ * The {@link PawnStructure} scores are added to the sums before tapering. They are the expensive
+ * part, so the search looks them up in its {@link PawnHashTable}.
+ */
+public final class Evaluator {
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private Evaluator() {
+
+    }
+
+    /**
+     * Evaluates a position from the side to move's point of view, evaluating the pawn structure
+     * without a cache.
+     *
+     * @param position The position to evaluate
+     * @return The score in centipawns, positive if the side to move is better
+     */
+    public static int evaluate(BitboardPosition position) {
+        return evaluate(position, PawnStructure.evaluate(position));
+    }
+
+    /**
+     * Evaluates a position from the side to move's point of view, taking the pawn structure
+     * scores from a pawn hash table.
+     *
+     * @param position      The position to evaluate
+     * @param pawnHashTable The cache of pawn structure scores
+     * @return The score in centipawns, positive if the side to move is better
+     */
+    public static int evaluate(BitboardPosition position, PawnHashTable pawnHashTable) {
+        return evaluate(position, pawnHashTable.probe(position));
+    }
+
+    /**
+     * Evaluates a position from scratch by looking at every square, without the incrementally
+     * updated sums. Slow; meant for checking the incremental evaluation.
+     *
+     * @param position The position to evaluate
+     * @return The score in centipawns from the side to move's point of view
+     */
+    public static int evaluateFromScratch(BitboardPosition position) {
+        int midgame = 0;
+        int endgame = 0;
+        int phase = 0;
+        for (int square = 0; square < 64; square++) {
+            int piece = position.pieceAt(square);
+            if (piece != PieceCode.NO_PIECE) {
+                midgame += PieceSquareTables.midgame(piece, square);
+                endgame += PieceSquareTables.endgame(piece, square);
+                phase += PieceSquareTables.phase(piece);
+            }
+        }
+        long pawnScore = PawnStructure.evaluate(position);
+        int score = taper(midgame + PawnStructure.midgame(pawnScore), endgame + PawnStructure.endgame(pawnScore), phase);
+        return position.getSideToMove() == PieceCode.WHITE ? score : -score;
+    }
+
+    /**
+     * Evaluates a position with the incrementally updated sums and given pawn structure scores.
+     *
+     * @param position  The position to evaluate
+     * @param pawnScore The packed pawn structure scores from white's point of view
+     * @return The score in centipawns from the side to move's point of view
+     */
+    private static int evaluate(BitboardPosition position, long pawnScore) {
+        int score = taper(position.getMidgameScore() + PawnStructure.midgame(pawnScore),
+                position.getEndgameScore() + PawnStructure.endgame(pawnScore), position.getPhase());
+        return position.getSideToMove() == PieceCode.WHITE ? score : -score;
+    }
+
+    /**
+     * Blends middlegame and endgame scores by the game phase.
+     *
+     * @param midgame The middlegame score from white's point of view
+     * @param endgame The endgame score from white's point of view
+     * @param phase   The game phase, more than MAX_PHASE after promotions
+     * @return The blended score from white's point of view
+     */
+    private static int taper(int midgame, int endgame, int phase) {
+        int midgamePhase = Math.min(phase, PieceSquareTables.MAX_PHASE);
+        return (midgame * midgamePhase + endgame * (PieceSquareTables.MAX_PHASE - midgamePhase)) / PieceSquareTables.MAX_PHASE;
+    }
+}
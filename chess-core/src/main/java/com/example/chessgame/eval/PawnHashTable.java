@@ -0,0 +1,115 @@
+package com.example.chessgame.eval;
+
+import com.example.chessgame.bitboard.BitboardPosition;
+
+import java.util.Arrays;
+
+/**
+ * Cache of pawn structure scores, indexed by the pawn key of a position.
+ * <p>
+ * The pawns move far less often than the other pieces, so most positions of a search share their
+ * pawn structure with positions evaluated before. The pawn key (see
+ * {@link BitboardPosition#getPawnKey()}) only hashes the pawns and kings, and each entry keeps
+ * the {@link PawnStructure} scores of one such key. An entry is simply overwritten when another
+ * key maps to the same slot.
+ * <p>
+ * Every search thread has its own table, so it is not thread safe.
+ */
+public class PawnHashTable {
+
+    /**
+     * Size used when no size is configured
+     */
+    public static final int DEFAULT_SIZE_KB = 1024;
+
+    // An entry is two longs: the pawn key and the packed scores
+    private static final int ENTRY_BYTES = 2 * Long.BYTES;
+
+    private final long[] keys;
+    private final long[] scores;
+    private final int mask;
+
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * Creates a pawn hash table of the default size.
+     */
+    public PawnHashTable() {
+        this(DEFAULT_SIZE_KB);
+    }
+
+    /**
+     * Creates a pawn hash table. The number of entries is rounded down to a power of two.
+     *
+     * @param sizeKb The size of the table in kilobytes, at least 1
+     * @throws IllegalArgumentException if the size is smaller than 1 KB
+     */
+    public PawnHashTable(int sizeKb) {
+        if (sizeKb < 1) {
+            throw new IllegalArgumentException("Pawn hash table size must be at least 1 KB: " + sizeKb);
+        }
+        int entries = Integer.highestOneBit((int) Math.min(((long) sizeKb << 10) / ENTRY_BYTES, 1 << 30));
+        keys = new long[entries];
+        scores = new long[entries];
+        mask = entries - 1;
+        // Key 0 would match the empty slots, so start them with a key no position gets in practice
+        Arrays.fill(keys, -1L);
+    }
+
+    /**
+     * Gets the pawn structure scores of a position, evaluating and storing them on a miss.
+     *
+     * @param position The position to evaluate
+     * @return The packed middlegame and endgame scores from white's point of view (see {@link PawnStructure})
+     */
+    public long probe(BitboardPosition position) {
+        long key = position.getPawnKey();
+        int index = (int) key & mask;
+        if (keys[index] == key) {
+            hits++;
+            return scores[index];
+        }
+        misses++;
+        long score = PawnStructure.evaluate(position);
+        keys[index] = key;
+        scores[index] = score;
+        return score;
+    }
+
+    /**
+     * Removes all entries and resets the counters.
+     */
+    public void clear() {
+        Arrays.fill(keys, -1L);
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return The number of entries, a power of two
+     */
+    public int getEntries() {
+        return keys.length;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the share of probes that found their pawn structure.
+     *
+     * @return The hit rate between 0 and 1, or 0 before the first probe
+     */
+    public double getHitRate() {
+        long probes = hits + misses;
+        return probes == 0 ? 0 : (double) hits / probes;
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.chessgame.eval;
+
+import com.example.chessgame.bitboard.Attacks;
+import com.example.chessgame.bitboard.Bitboard;
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.PieceCode;
+
+/**
+ * Utility class for evaluating the pawn structure of a position.
+ * <p>
+ * Looks at doubled, isolated, backward and passed pawns and at the pawns sheltering each king.
+ * All of this only depends on where the pawns and kings stand, so the result can be cached by
+ * the pawn key of the position (see {@link PawnHashTable}). The middlegame and endgame scores are
+ * returned packed into one long, the same way the {@link PawnHashTable} stores them.
+ */
+public final class PawnStructure {
+
+    // Penalties per pawn, middlegame and endgame
+    private static final int DOUBLED_MIDGAME = -10;
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int ISOLATED_MIDGAME = -10;
+    private static final int ISOLATED_ENDGAME = -15;
+    private static final int BACKWARD_MIDGAME = -8;
+    private static final int BACKWARD_ENDGAME = -10;
+
+    // Passed pawn bonus by the number of rows the pawn has advanced from its own back row
+    private static final int[] PASSED_MIDGAME = {0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_ENDGAME = {0, 10, 15, 25, 45, 70, 110, 0};
+
+    // King shelter bonus for an own pawn one and two rows in front of the king, middlegame only
+    private static final int SHIELD_NEAR = 12;
+    private static final int SHIELD_FAR = 6;
+
+    // Files next to each file
+    private static final long[] ADJACENT_FILES = new long[8];
+
+    // For every color and square: the squares in front on the same and adjacent files.
+    // A pawn is passed when no enemy pawn stands there.
+    private static final long[][] PASSED_MASK = new long[2][64];
+
+    // For every color and square: the squares on adjacent files on the same row or behind.
+    // A pawn is backward when no own pawn stands there to support its advance.
+    private static final long[][] SUPPORT_MASK = new long[2][64];
+
+    static {
+        for (int col = 0; col < 8; col++) {
+            ADJACENT_FILES[col] = (col > 0 ? Bitboard.colMask(col - 1) : 0) | (col < 7 ? Bitboard.colMask(col + 1) : 0);
+        }
+        for (int square = 0; square < 64; square++) {
+            int row = Bitboard.row(square);
+            long files = ADJACENT_FILES[Bitboard.col(square)] | Bitboard.colMask(Bitboard.col(square));
+            // White moves towards row 0, black towards row 7
+            long rowsAboveWhite = 0;
+            long rowsBelowBlack = 0;
+            for (int r = 0; r < row; r++) {
+                rowsAboveWhite |= Bitboard.rowMask(r);
+            }
+            for (int r = row + 1; r < 8; r++) {
+                rowsBelowBlack |= Bitboard.rowMask(r);
+            }
+            PASSED_MASK[PieceCode.WHITE][square] = files & rowsAboveWhite;
+            PASSED_MASK[PieceCode.BLACK][square] = files & rowsBelowBlack;
+            SUPPORT_MASK[PieceCode.WHITE][square] = ADJACENT_FILES[Bitboard.col(square)] & ~rowsAboveWhite;
+            SUPPORT_MASK[PieceCode.BLACK][square] = ADJACENT_FILES[Bitboard.col(square)] & ~rowsBelowBlack;
+        }
+    }
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private PawnStructure() {
+
+    }
+
+    /**
+     * Evaluates the pawn structure and king shelter of a position.
+     *
+     * @param position The position to evaluate
+     * @return The middlegame and endgame scores from white's point of view, packed with {@link #pack}
+     */
+    public static long evaluate(BitboardPosition position) {
+        long whitePawns = position.getPieces(PieceCode.WHITE, PieceCode.PAWN);
+        long blackPawns = position.getPieces(PieceCode.BLACK, PieceCode.PAWN);
+        long white = evaluateSide(position, PieceCode.WHITE, whitePawns, blackPawns);
+        long black = evaluateSide(position, PieceCode.BLACK, blackPawns, whitePawns);
+        return pack(midgame(white) - midgame(black), endgame(white) - endgame(black));
+    }
+
+    /**
+     * Evaluates the pawns and king shelter of one side.
+     *
+     * @param position The position
+     * @param color    The side to evaluate
+     * @param ownPawns The pawns of that side
+     * @param enemyPawns The pawns of the other side
+     * @return The packed middlegame and endgame scores of that side
+     */
+    private static long evaluateSide(BitboardPosition position, int color, long ownPawns, long enemyPawns) {
+        int midgame = 0;
+        int endgame = 0;
+        int forward = color == PieceCode.WHITE ? -8 : 8;
+
+        // Every pawn after the first on a file is doubled
+        for (int col = 0; col < 8; col++) {
+            int onFile = Long.bitCount(ownPawns & Bitboard.colMask(col));
+            if (onFile > 1) {
+                midgame += (onFile - 1) * DOUBLED_MIDGAME;
+                endgame += (onFile - 1) * DOUBLED_ENDGAME;
+            }
+        }
+
+        long pawns = ownPawns;
+        while (pawns != 0) {
+            int square = Bitboard.firstSquare(pawns);
+            pawns &= pawns - 1;
+            int col = Bitboard.col(square);
+
+            if ((ownPawns & ADJACENT_FILES[col]) == 0) {
+                midgame += ISOLATED_MIDGAME;
+                endgame += ISOLATED_ENDGAME;
+            } else if ((ownPawns & SUPPORT_MASK[color][square]) == 0
+                    && (Attacks.pawnAttacks(color, square + forward) & enemyPawns) != 0) {
+                // No neighbour can come to help, and the square in front is guarded by an enemy pawn
+                midgame += BACKWARD_MIDGAME;
+                endgame += BACKWARD_ENDGAME;
+            }
+
+            if ((enemyPawns & PASSED_MASK[color][square]) == 0) {
+                int advanced = color == PieceCode.WHITE ? 7 - Bitboard.row(square) : Bitboard.row(square);
+                midgame += PASSED_MIDGAME[advanced];
+                endgame += PASSED_ENDGAME[advanced];
+            }
+        }
+
+        // Own pawns on the king's file and the files next to it, one and two rows in front of the king
+        int kingSquare = position.getKingSquare(color);
+        if (kingSquare != Bitboard.NO_SQUARE) {
+            int kingRow = Bitboard.row(kingSquare);
+            long files = ADJACENT_FILES[Bitboard.col(kingSquare)] | Bitboard.colMask(Bitboard.col(kingSquare));
+            int nearRow = kingRow + (forward >> 3);
+            int farRow = kingRow + 2 * (forward >> 3);
+            if (nearRow >= 0 && nearRow < 8) {
+                midgame += SHIELD_NEAR * Long.bitCount(ownPawns & files & Bitboard.rowMask(nearRow));
+            }
+            if (farRow >= 0 && farRow < 8) {
+                midgame += SHIELD_FAR * Long.bitCount(ownPawns & files & Bitboard.rowMask(farRow));
+            }
+        }
+        return pack(midgame, endgame);
+    }
+
+    /**
+     * Packs a middlegame and an endgame score into one long.
+     *
+     * @param midgame The middlegame score
+     * @param endgame The endgame score
+     * @return The middlegame score in the high 32 bits and the endgame score in the low 32 bits
+     */
+    public static long pack(int midgame, int endgame) {
+        return ((long) midgame << 32) | (endgame & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets the middlegame score of a packed score.
+     *
+     * @param packed The packed scores
+     * @return The middlegame score
+     */
+    public static int midgame(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    /**
+     * Gets the endgame score of a packed score.
+     *
+     * @param packed The packed scores
+     * @return The endgame score
+     */
+    public static int endgame(long packed) {
+        return (int) packed;
+    }
+}
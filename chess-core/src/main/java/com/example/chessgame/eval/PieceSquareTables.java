@@ -0,0 +1,183 @@
+package com.example.chessgame.eval;
+
+import com.example.chessgame.bitboard.PieceCode;
+
+/**
+ * Utility class holding the material values and piece-square tables of the evaluation.
+ * <p>
+ * Every piece on every square has a middlegame and an endgame score: its material value plus a
+ * bonus or penalty for the square. The tables below are written from white's point of view with
+ * the eighth rank in the first line, which matches the square numbering of the bitboards
+ * ({@code row * 8 + col}, row 0 = eighth rank). Black uses the same tables mirrored vertically.
+ * The lookups combine both and are signed: positive for white pieces, negative for black pieces,
+ * so the scores of all pieces can simply be added up.
+ * <p>
+ * Each piece also counts towards the game phase: 24 with all minor and major pieces on the board
+ * (the middlegame), 0 with only kings and pawns left (the endgame).
+ */
+public final class PieceSquareTables {
+
+    /**
+     * Game phase with all pieces on the board
+     */
+    public static final int MAX_PHASE = 24;
+
+    // Material values in centipawns, indexed by piece type
+    private static final int[] MIDGAME_VALUES = {82, 337, 365, 477, 1025, 0};
+    private static final int[] ENDGAME_VALUES = {94, 281, 297, 512, 936, 0};
+
+    // Contribution of each piece type to the game phase
+    private static final int[] PHASE_WEIGHTS = {0, 1, 1, 2, 4, 0};
+
+    private static final int[] PAWN_MIDGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    // In the endgame a pawn is worth more the closer it is to promotion
+    private static final int[] PAWN_ENDGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            80, 80, 80, 80, 80, 80, 80, 80,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            30, 30, 30, 30, 30, 30, 30, 30,
+            15, 15, 15, 15, 15, 15, 15, 15,
+            5, 5, 5, 5, 5, 5, 5, 5,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+
+    private static final int[] ROOK = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0
+    };
+
+    private static final int[] QUEEN = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20
+    };
+
+    // In the middlegame the king hides behind its pawns
+    private static final int[] KING_MIDGAME = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20
+    };
+
+    // In the endgame the king joins the fight in the centre
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    // Tables indexed by piece type; knights, bishops, rooks and queens use the same squares in both phases
+    private static final int[][] MIDGAME_TABLES = {PAWN_MIDGAME, KNIGHT, BISHOP, ROOK, QUEEN, KING_MIDGAME};
+    private static final int[][] ENDGAME_TABLES = {PAWN_ENDGAME, KNIGHT, BISHOP, ROOK, QUEEN, KING_ENDGAME};
+
+    // Signed material plus square scores, indexed by piece code and square
+    private static final int[][] MIDGAME = new int[12][64];
+    private static final int[][] ENDGAME = new int[12][64];
+
+    static {
+        for (int piece = 0; piece < 12; piece++) {
+            int type = PieceCode.type(piece);
+            boolean white = PieceCode.color(piece) == PieceCode.WHITE;
+            for (int square = 0; square < 64; square++) {
+                // Black reads the tables upside down: square ^ 56 flips the row
+                int tableSquare = white ? square : square ^ 56;
+                int sign = white ? 1 : -1;
+                MIDGAME[piece][square] = sign * (MIDGAME_VALUES[type] + MIDGAME_TABLES[type][tableSquare]);
+                ENDGAME[piece][square] = sign * (ENDGAME_VALUES[type] + ENDGAME_TABLES[type][tableSquare]);
+            }
+        }
+    }
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private PieceSquareTables() {
+
+    }
+
+    /**
+     * Gets the middlegame score of a piece on a square.
+     *
+     * @param piece  The piece code (0-11)
+     * @param square The square index (0-63)
+     * @return Material plus square bonus, positive for white and negative for black
+     */
+    public static int midgame(int piece, int square) {
+        return MIDGAME[piece][square];
+    }
+
+    /**
+     * Gets the endgame score of a piece on a square.
+     *
+     * @param piece  The piece code (0-11)
+     * @param square The square index (0-63)
+     * @return Material plus square bonus, positive for white and negative for black
+     */
+    public static int endgame(int piece, int square) {
+        return ENDGAME[piece][square];
+    }
+
+    /**
+     * Gets how much a piece counts towards the game phase.
+     *
+     * @param piece The piece code (0-11)
+     * @return The phase weight: 1 for minor pieces, 2 for rooks, 4 for queens, 0 otherwise
+     */
+    public static int phase(int piece) {
+        return PHASE_WEIGHTS[PieceCode.type(piece)];
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.chessgame.eval.nnue;
+
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.PieceCode;
+
+/**
+ * The hidden layer of a {@link Network} for one position, from both sides' perspectives.
+ * <p>
+ * Every piece switches on one input per perspective, so the hidden layer is the biases plus the
+ * weight rows of the pieces on the board. When a piece is added, removed or moved, only its rows
+ * change, so the accumulator is updated by adding and subtracting those rows instead of being
+ * recomputed. A {@link BitboardPosition} the accumulator is attached to makes these updates on
+ * every change, including unmaking moves. Evaluating then only needs the output layer.
+ * <p>
+ * An accumulator belongs to one position and is not thread safe.
+ */
+public class Accumulator {
+
+    private final Network network;
+    private final Kernels kernels;
+    private final short[] featureWeights;
+    private final int hiddenSize;
+
+    // Hidden values from white's and black's perspective
+    private final short[][] values;
+
+    /**
+     * Creates an accumulator for a network, with the best kernels this JVM supports.
+     *
+     * @param network The network to evaluate with
+     */
+    public Accumulator(Network network) {
+        this(network, Kernels.create());
+    }
+
+    /**
+     * Creates an accumulator for a network.
+     *
+     * @param network The network to evaluate with
+     * @param kernels The arithmetic to use
+     */
+    Accumulator(Network network, Kernels kernels) {
+        this.network = network;
+        this.kernels = kernels;
+        featureWeights = network.getFeatureWeights();
+        hiddenSize = network.getHiddenSize();
+        values = new short[2][hiddenSize];
+    }
+
+    /**
+     * Recomputes both perspectives from the pieces of a position.
+     *
+     * @param position The position to read
+     */
+    public void refresh(BitboardPosition position) {
+        for (short[] perspective : values) {
+            System.arraycopy(network.getFeatureBiases(), 0, perspective, 0, hiddenSize);
+        }
+        for (int square = 0; square < 64; square++) {
+            int piece = position.pieceAt(square);
+            if (piece != PieceCode.NO_PIECE) {
+                addPiece(piece, square);
+            }
+        }
+    }
+
+    /**
+     * Updates the accumulator for a piece put on a square.
+     *
+     * @param piece  The piece code (0-11)
+     * @param square The square index (0-63)
+     */
+    public void addPiece(int piece, int square) {
+        kernels.add(values[PieceCode.WHITE], featureWeights, row(PieceCode.WHITE, piece, square));
+        kernels.add(values[PieceCode.BLACK], featureWeights, row(PieceCode.BLACK, piece, square));
+    }
+
+    /**
+     * Updates the accumulator for a piece taken off a square.
+     *
+     * @param piece  The piece code (0-11)
+     * @param square The square index (0-63)
+     */
+    public void removePiece(int piece, int square) {
+        kernels.subtract(values[PieceCode.WHITE], featureWeights, row(PieceCode.WHITE, piece, square));
+        kernels.subtract(values[PieceCode.BLACK], featureWeights, row(PieceCode.BLACK, piece, square));
+    }
+
+    /**
+     * Updates the accumulator for a piece moving from one square to another.
+     *
+     * @param piece The piece code (0-11)
+     * @param from  The square the piece leaves
+     * @param to    The square the piece goes to
+     */
+    public void movePiece(int piece, int from, int to) {
+        kernels.addSubtract(values[PieceCode.WHITE], featureWeights, row(PieceCode.WHITE, piece, to), row(PieceCode.WHITE, piece, from));
+        kernels.addSubtract(values[PieceCode.BLACK], featureWeights, row(PieceCode.BLACK, piece, to), row(PieceCode.BLACK, piece, from));
+    }
+
+    /**
+     * Computes the output layer.
+     *
+     * @param sideToMove The side to evaluate for (PieceCode.WHITE or PieceCode.BLACK)
+     * @return The score in centipawns, positive if that side is better
+     */
+    public int evaluate(int sideToMove) {
+        short[] outputWeights = network.getOutputWeights();
+        long sum = (long) kernels.dot(values[sideToMove], outputWeights, 0)
+                + kernels.dot(values[sideToMove ^ 1], outputWeights, hiddenSize)
+                + network.getOutputBias();
+        return (int) (sum * Network.SCALE / (Network.QA * Network.QB));
+    }
+
+    /**
+     * Gets the name of the kernels this accumulator computes with.
+     *
+     * @return "scalar", or "vector" with the vector size in bits
+     */
+    public String getKernelName() {
+        return kernels.toString();
+    }
+
+    short[] getValues(int perspective) {
+        return values[perspective];
+    }
+
+    /**
+     * Gets the index of the first weight of a piece's input row.
+     *
+     * @param perspective The side whose perspective the input belongs to
+     * @param piece       The piece code (0-11)
+     * @param square      The square index (0-63)
+     * @return The offset into the feature weights
+     */
+    private int row(int perspective, int piece, int square) {
+        int relativeColor = PieceCode.color(piece) == perspective ? 0 : 1;
+        // Black sees the board upside down, so both perspectives share the same weights
+        int relativeSquare = perspective == PieceCode.WHITE ? square : square ^ 56;
+        return Network.featureIndex(relativeColor, PieceCode.type(piece), relativeSquare) * hiddenSize;
+    }
+}
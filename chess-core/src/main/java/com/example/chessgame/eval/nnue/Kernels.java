@@ -0,0 +1,63 @@
+package com.example.chessgame.eval.nnue;
+
+/**
+ * The arithmetic of the network: updating accumulators and computing the output layer.
+ * <p>
+ * There are two implementations with identical results. {@link VectorKernels} uses the
+ * incubating Vector API, which the JIT compiles to SIMD instructions (SSE, AVX2 or AVX-512 on
+ * x86). It is only available when the JVM is started with
+ * {@code --add-modules jdk.incubator.vector}. {@link ScalarKernels} uses plain loops and is used
+ * otherwise, or when {@code -Dchessgame.nnue.scalar=true} is set.
+ */
+interface Kernels {
+
+    /**
+     * Adds a row of weights to an accumulator, with 16-bit wrap-around.
+     *
+     * @param accumulator The hidden values to update
+     * @param weights     The weights holding the row
+     * @param offset      The index of the row's first weight
+     */
+    void add(short[] accumulator, short[] weights, int offset);
+
+    /**
+     * Subtracts a row of weights from an accumulator, with 16-bit wrap-around.
+     *
+     * @param accumulator The hidden values to update
+     * @param weights     The weights holding the row
+     * @param offset      The index of the row's first weight
+     */
+    void subtract(short[] accumulator, short[] weights, int offset);
+
+    /**
+     * Adds one row of weights to an accumulator and subtracts another, for a piece changing squares.
+     *
+     * @param accumulator    The hidden values to update
+     * @param weights        The weights holding both rows
+     * @param addOffset      The index of the first weight of the row to add
+     * @param subtractOffset The index of the first weight of the row to subtract
+     */
+    void addSubtract(short[] accumulator, short[] weights, int addOffset, int subtractOffset);
+
+    /**
+     * Computes the dot product of clipped hidden values with output weights.
+     *
+     * @param hidden  The hidden values, clipped to 0..QA
+     * @param weights The output weights
+     * @param offset  The index of the output weight of the first hidden value
+     * @return The sum of the products
+     */
+    int dot(short[] hidden, short[] weights, int offset);
+
+    /**
+     * Gets the kernels to use in this JVM.
+     *
+     * @return Vector kernels if the Vector API is available and not disabled, scalar kernels otherwise
+     */
+    static Kernels create() {
+        if (!Boolean.getBoolean("chessgame.nnue.scalar") && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            return new VectorKernels();
+        }
+        return new ScalarKernels();
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.chessgame.eval.nnue;
+
+import com.example.chessgame.bitboard.PieceCode;
+import com.example.chessgame.eval.PieceSquareTables;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The quantised weights of an efficiently updatable neural network (NNUE).
+ * <p>
+ * The network has 768 inputs, one for every piece type of either color on every square, seen
+ * from one side (the perspective). They feed a hidden layer of {@code hiddenSize} neurons, whose
+ * values are the {@link Accumulator}. The hidden layer is computed twice, once from white's and
+ * once from black's perspective, with the same weights. The output neuron sees the clipped
+ * hidden layer of the side to move followed by that of the other side, so it has
+ * {@code 2 * hiddenSize} weights.
+ * <p>
+ * All weights are 16-bit integers. Hidden values are clipped to {@code 0..QA} before the output
+ * layer and the output weights are scaled by QB, so the output in centipawns is
+ * {@code (sum + outputBias) * SCALE / (QA * QB)}.
+ * <p>
+ * Network files are little-endian: the magic number {@code CGNN}, the format version, the number
+ * of inputs and the hidden size (four ints), then the feature weights input by input, the hidden
+ * biases, the output weights (all shorts) and the output bias (an int).
+ */
+public final class Network {
+
+    /**
+     * Number of inputs: 2 colors, 6 piece types, 64 squares
+     */
+    public static final int INPUTS = 768;
+
+    // Quantisation of the hidden layer, the output weights and the output
+    public static final int QA = 255;
+    public static final int QB = 64;
+    public static final int SCALE = 400;
+
+    // "CGNN" read as a little-endian int
+    private static final int MAGIC = 0x4E4E4743;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+
+    // Hidden size of the network built from the piece-square tables
+    private static final int DEFAULT_HIDDEN_SIZE = 256;
+
+    private final int hiddenSize;
+
+    // Weights of input i to hidden neuron j at i * hiddenSize + j, so each input's row is contiguous
+    private final short[] featureWeights;
+    private final short[] featureBiases;
+
+    // Weights of the side to move's hidden layer, then those of the other side's
+    private final short[] outputWeights;
+    private final int outputBias;
+
+    /**
+     * Creates a network from its weights.
+     *
+     * @param hiddenSize     The number of hidden neurons per perspective
+     * @param featureWeights INPUTS * hiddenSize feature weights
+     * @param featureBiases  hiddenSize hidden biases
+     * @param outputWeights  2 * hiddenSize output weights
+     * @param outputBias     The output bias
+     * @throws IllegalArgumentException if an array has the wrong length
+     */
+    public Network(int hiddenSize, short[] featureWeights, short[] featureBiases, short[] outputWeights, int outputBias) {
+        if (hiddenSize < 1 || featureWeights.length != INPUTS * hiddenSize || featureBiases.length != hiddenSize
+                || outputWeights.length != 2 * hiddenSize) {
+            throw new IllegalArgumentException("Weights do not match a network with " + hiddenSize + " hidden neurons");
+        }
+        this.hiddenSize = hiddenSize;
+        this.featureWeights = featureWeights;
+        this.featureBiases = featureBiases;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+    }
+
+    /**
+     * Loads a network file.
+     *
+     * @param path The file to read
+     * @return The loaded network
+     * @throws IOException if the file cannot be read or is not a network file of this format
+     */
+    public static Network load(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a network file: " + path);
+        }
+        int version = buffer.getInt();
+        int inputs = buffer.getInt();
+        int hiddenSize = buffer.getInt();
+        if (version != VERSION || inputs != INPUTS || hiddenSize < 1) {
+            throw new IOException("Unsupported network in " + path + ": version " + version + ", " + inputs + " inputs, " + hiddenSize + " hidden");
+        }
+        if (buffer.remaining() != fileSize(hiddenSize) - HEADER_BYTES) {
+            throw new IOException("Network file has the wrong size: " + path);
+        }
+        short[] featureWeights = new short[INPUTS * hiddenSize];
+        short[] featureBiases = new short[hiddenSize];
+        short[] outputWeights = new short[2 * hiddenSize];
+        buffer.asShortBuffer().get(featureWeights).get(featureBiases).get(outputWeights);
+        buffer.position(buffer.position() + (featureWeights.length + featureBiases.length + outputWeights.length) * Short.BYTES);
+        return new Network(hiddenSize, featureWeights, featureBiases, outputWeights, buffer.getInt());
+    }
+
+    /**
+     * Loads a network file, or builds the network of {@link #fromPieceSquareTables()}.
+     *
+     * @param source A file path, or "builtin"
+     * @return The network
+     * @throws IOException if the file cannot be read or is not a network file of this format
+     */
+    public static Network load(String source) throws IOException {
+        return source.equals("builtin") ? fromPieceSquareTables() : load(Path.of(source));
+    }
+
+    /**
+     * Writes the network to a file in the format read by {@link #load}.
+     *
+     * @param path The file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(fileSize(hiddenSize)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(INPUTS).putInt(hiddenSize);
+        buffer.asShortBuffer().put(featureWeights).put(featureBiases).put(outputWeights);
+        buffer.position(buffer.position() + (featureWeights.length + featureBiases.length + outputWeights.length) * Short.BYTES);
+        buffer.putInt(outputBias);
+        Files.write(path, buffer.array());
+    }
+
+    /**
+     * Builds a network that reproduces the middlegame material and piece-square scores of
+     * {@link PieceSquareTables}, for running without a trained network file.
+     * <p>
+     * Hidden neuron {@code t} sums the scores of the perspective's own pieces of type {@code t},
+     * divided by 5 (10 for queens, so a promoted second queen still fits) to stay below QA.
+     * The output adds those neurons for the side to move and subtracts them for the other side,
+     * which gives back the material and square balance up to rounding. The remaining neurons are
+     * zero, so evaluating costs as much as a trained network of the same size.
+     *
+     * @return The network
+     */
+    public static Network fromPieceSquareTables() {
+        int hiddenSize = DEFAULT_HIDDEN_SIZE;
+        int[] divisors = {5, 5, 5, 5, 10, 5};
+        // Keeps the king neuron, whose square scores are negative, above zero
+        short bias = 32;
+
+        short[] featureWeights = new short[INPUTS * hiddenSize];
+        short[] featureBiases = new short[hiddenSize];
+        short[] outputWeights = new short[2 * hiddenSize];
+        for (int type = PieceCode.PAWN; type <= PieceCode.KING; type++) {
+            for (int square = 0; square < 64; square++) {
+                // Own pieces only; the white piece codes give the scores from the perspective's point of view
+                int input = featureIndex(0, type, square);
+                featureWeights[input * hiddenSize + type] = (short) Math.round(PieceSquareTables.midgame(type, square) / (float) divisors[type]);
+            }
+            featureBiases[type] = bias;
+            // Makes one hidden unit worth divisor centipawns: 40.8 * divisor * SCALE / (QA * QB) = divisor
+            short outputWeight = (short) (divisors[type] * QA * QB / SCALE);
+            outputWeights[type] = outputWeight;
+            outputWeights[hiddenSize + type] = (short) -outputWeight;
+        }
+        return new Network(hiddenSize, featureWeights, featureBiases, outputWeights, 0);
+    }
+
+    /**
+     * Gets the input index of a piece seen from one perspective.
+     *
+     * @param relativeColor  0 for the perspective's own pieces, 1 for the opponent's
+     * @param type           The piece type
+     * @param relativeSquare The square, flipped vertically for black's perspective
+     * @return The input index (0-767)
+     */
+    static int featureIndex(int relativeColor, int type, int relativeSquare) {
+        return (relativeColor * 6 + type) * 64 + relativeSquare;
+    }
+
+    /**
+     * Gets the size of a network file.
+     *
+     * @param hiddenSize The number of hidden neurons
+     * @return The file size in bytes
+     */
+    private static int fileSize(int hiddenSize) {
+        return HEADER_BYTES + (INPUTS * hiddenSize + hiddenSize + 2 * hiddenSize) * Short.BYTES + Integer.BYTES;
+    }
+
+    public int getHiddenSize() {
+        return hiddenSize;
+    }
+
+    short[] getFeatureWeights() {
+        return featureWeights;
+    }
+
+    short[] getFeatureBiases() {
+        return featureBiases;
+    }
+
+    short[] getOutputWeights() {
+        return outputWeights;
+    }
+
+    int getOutputBias() {
+        return outputBias;
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.chessgame.eval.nnue;
+
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.bitboard.MoveGenerator;
+import com.example.chessgame.bitboard.PieceCode;
+import com.example.chessgame.eval.Evaluator;
+import com.example.chessgame.eval.PawnHashTable;
+import com.example.chessgame.search.Search;
+import com.example.chessgame.search.SearchLimits;
+import com.example.chessgame.search.SearchResult;
+import com.example.chessgame.search.TranspositionTable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Compares the neural network evaluation with the classic {@link Evaluator}.
+ * <p>
+ * Usage: {@code java --add-modules jdk.incubator.vector -cp chess-core/target/classes com.example.chessgame.eval.nnue.NnueBenchmark
+ * [--nnue file|builtin] [--depth n] [--games n] [--time ms] [--export file]}
+ * <br>
+ * Prints three comparisons: raw evaluation speed (classic, scalar network and vector network,
+ * with make/unmake and incremental accumulator updates), search nodes per second to a fixed
+ * depth, and a match at a fixed time per move, which shows strength per unit of time.
+ * Without {@code --add-modules jdk.incubator.vector} only the scalar kernels are available.
+ * {@code --export} writes the built-in network to a file and exits.
+ */
+public final class NnueBenchmark {
+
+    // Positions for the speed measurements and the openings of the match
+    private static final String[] POSITIONS = {
+            BitboardPosition.START_FEN,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4",
+            "rnbqkb1r/pp2pppp/3p1n2/8/3NP3/8/PPP2PPP/RNBQKB1R w KQkq - 1 5",
+            "r1bq1rk1/pp2ppbp/2np1np1/8/3NP3/2N1BP2/PPPQ2PP/R3KB1R w KQ - 3 9",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"
+    };
+
+    // Games longer than this are counted as draws
+    private static final int MAX_GAME_PLIES = 300;
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private NnueBenchmark() {
+
+    }
+
+    /**
+     * Runs the benchmark from the command line.
+     *
+     * @param args Optional flags, see the class description
+     * @throws IOException if the network cannot be loaded or exported
+     */
+    public static void main(String[] args) throws IOException {
+        String networkSource = "builtin";
+        int depth = 7;
+        int games = 12;
+        int timeMillis = 100;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--nnue" -> networkSource = args[++i];
+                case "--depth" -> depth = Integer.parseInt(args[++i]);
+                case "--games" -> games = Integer.parseInt(args[++i]);
+                case "--time" -> timeMillis = Integer.parseInt(args[++i]);
+                case "--export" -> {
+                    Network.fromPieceSquareTables().save(Path.of(args[++i]));
+                    System.out.println("Wrote the built-in network to " + args[i]);
+                    return;
+                }
+                default -> {
+                    System.err.println("Unknown argument: " + args[i]);
+                    return;
+                }
+            }
+        }
+        Network network = Network.load(networkSource);
+        System.out.println("Network: " + networkSource + ", " + network.getHiddenSize() + " hidden neurons, kernels: "
+                + new Accumulator(network).getKernelName());
+
+        compareEvaluationSpeed(network);
+        compareSearchSpeed(network, depth);
+        playMatch(network, games, timeMillis);
+    }
+
+    /**
+     * Measures evaluations per second while walking the move tree of every position to depth 3,
+     * evaluating every node.
+     *
+     * @param network The network to measure
+     */
+    private static void compareEvaluationSpeed(Network network) {
+        System.out.println();
+        System.out.printf("%-24s %14s %10s%n", "Evaluation", "Evals/s", "Checksum");
+        PawnHashTable pawnHashTable = new PawnHashTable();
+        Accumulator scalar = new Accumulator(network, new ScalarKernels());
+        Accumulator vector = new Accumulator(network);
+        for (int round = 0; round < 2; round++) {
+            // The first round warms up the JIT and is not printed
+            boolean print = round == 1;
+            measureEvaluations("classic", print, null, position -> Evaluator.evaluate(position, pawnHashTable));
+            measureEvaluations("network scalar", print, scalar, position -> scalar.evaluate(position.getSideToMove()));
+            measureEvaluations("network " + vector.getKernelName(), print, vector,
+                    position -> vector.evaluate(position.getSideToMove()));
+        }
+    }
+
+    /**
+     * Walks the move trees of all positions with one evaluation function.
+     *
+     * @param name        The name to print
+     * @param print       Whether to print the result
+     * @param accumulator The accumulator to attach to the positions, or null
+     * @param evaluation  The evaluation to call at every node
+     */
+    private static void measureEvaluations(String name, boolean print, Accumulator accumulator, Evaluation evaluation) {
+        MoveGenerator moveGenerator = new MoveGenerator();
+        int[][] moves = new int[3][MoveGenerator.MAX_MOVES];
+        long[] totals = new long[2];
+        long start = System.nanoTime();
+        for (String fen : POSITIONS) {
+            BitboardPosition position = BitboardPosition.fromFen(fen);
+            position.setAccumulator(accumulator);
+            walk(position, 3, moveGenerator, moves, evaluation, totals);
+        }
+        long nanos = System.nanoTime() - start;
+        if (print) {
+            System.out.printf("%-24s %14d %10d%n", name, totals[0] * 1_000_000_000L / Math.max(1, nanos), totals[1]);
+        }
+    }
+
+    /**
+     * Evaluates every node of a move tree.
+     *
+     * @param position      The position, restored when done
+     * @param depth         The remaining depth
+     * @param moveGenerator The move generator
+     * @param moves         One move buffer per remaining depth
+     * @param evaluation    The evaluation to call
+     * @param totals        Receives the number of evaluations and the sum of the scores
+     */
+    private static void walk(BitboardPosition position, int depth, MoveGenerator moveGenerator, int[][] moves,
+                             Evaluation evaluation, long[] totals) {
+        totals[0]++;
+        totals[1] += evaluation.evaluate(position);
+        if (depth == 0) {
+            return;
+        }
+        int[] buffer = moves[depth - 1];
+        int count = moveGenerator.generateMoves(position, buffer);
+        for (int i = 0; i < count; i++) {
+            position.makeMove(buffer[i]);
+            walk(position, depth - 1, moveGenerator, moves, evaluation, totals);
+            position.unmakeMove(buffer[i]);
+        }
+    }
+
+    /**
+     * Searches every position to a fixed depth with both evaluations and prints the nodes per second.
+     *
+     * @param network The network to measure
+     * @param depth   The search depth
+     */
+    private static void compareSearchSpeed(Network network, int depth) {
+        System.out.println();
+        System.out.printf("%-16s %10s %12s %12s%n", "Search", "Time (ms)", "Nodes", "NPS");
+        for (int round = 0; round < 2; round++) {
+            for (boolean useNetwork : new boolean[]{false, true}) {
+                Search search = new Search(new TranspositionTable(16));
+                search.setNetwork(useNetwork ? network : null);
+                long nodes = 0;
+                long millis = 0;
+                for (String fen : POSITIONS) {
+                    SearchResult result = search.search(BitboardPosition.fromFen(fen), SearchLimits.depth(depth));
+                    nodes += result.nodes();
+                    millis += result.timeMillis();
+                }
+                if (round == 1) {
+                    System.out.printf("%-16s %10d %12d %12d%n", useNetwork ? "network" : "classic", millis, nodes,
+                            nodes * 1000 / Math.max(1, millis));
+                }
+            }
+        }
+    }
+
+    /**
+     * Plays games between the network and the classic evaluation at a fixed time per move.
+     * Every opening is played twice, once with each color.
+     *
+     * @param network    The network to play with
+     * @param games      The number of games
+     * @param timeMillis The time per move in milliseconds
+     */
+    private static void playMatch(Network network, int games, int timeMillis) {
+        System.out.println();
+        System.out.println("Match, network against classic, " + timeMillis + " ms per move");
+        int wins = 0;
+        int draws = 0;
+        int losses = 0;
+        for (int game = 0; game < games; game++) {
+            Search classic = new Search(new TranspositionTable(16));
+            Search neural = new Search(new TranspositionTable(16));
+            neural.setNetwork(network);
+            boolean networkIsWhite = game % 2 == 0;
+            String opening = POSITIONS[(game / 2) % POSITIONS.length];
+            int result = playGame(opening, networkIsWhite ? neural : classic, networkIsWhite ? classic : neural, timeMillis);
+            int networkResult = networkIsWhite ? result : -result;
+            if (networkResult > 0) {
+                wins++;
+            } else if (networkResult < 0) {
+                losses++;
+            } else {
+                draws++;
+            }
+            System.out.printf("Game %d: network %s, %s%n", game + 1, networkIsWhite ? "white" : "black",
+                    networkResult > 0 ? "won" : networkResult < 0 ? "lost" : "draw");
+        }
+        double score = (wins + draws / 2.0) / Math.max(1, games);
+        System.out.printf("+%d =%d -%d, score %.1f%%, about %+.0f Elo%n", wins, draws, losses, 100 * score, elo(score));
+    }
+
+    /**
+     * Plays one game.
+     *
+     * @param fen        The starting position
+     * @param white      The search playing white
+     * @param black      The search playing black
+     * @param timeMillis The time per move in milliseconds
+     * @return 1 if white won, -1 if black won, 0 for a draw
+     */
+    private static int playGame(String fen, Search white, Search black, int timeMillis) {
+        BitboardPosition position = BitboardPosition.fromFen(fen);
+        MoveGenerator moveGenerator = new MoveGenerator();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int ply = 0; ply < MAX_GAME_PLIES; ply++) {
+            if (moveGenerator.generateMoves(position, moves) == 0) {
+                if (!position.isInCheck()) {
+                    return 0;
+                }
+                // Checkmate: the side to move lost
+                return position.getSideToMove() == PieceCode.WHITE ? -1 : 1;
+            }
+            if (position.isFiftyMoveRule() || position.isThreefoldRepetition() || position.hasInsufficientMaterial()) {
+                return 0;
+            }
+            Search search = position.getSideToMove() == PieceCode.WHITE ? white : black;
+            int move = search.search(position, new SearchLimits(SearchLimits.MAX_DEPTH, timeMillis)).bestMove();
+            if (move == MoveCode.NONE) {
+                return 0;
+            }
+            position.makeMove(move);
+        }
+        return 0;
+    }
+
+    /**
+     * Converts a match score to an Elo difference.
+     *
+     * @param score The share of points, between 0 and 1
+     * @return The Elo difference, capped for scores of 0 and 1
+     */
+    private static double elo(double score) {
+        double clamped = Math.min(Math.max(score, 0.001), 0.999);
+        // Adding 0.0 turns -0.0 into 0.0 for an even score
+        return -400 * Math.log10(1 / clamped - 1) + 0.0;
+    }
+
+    /**
+     * An evaluation function to measure.
+     */
+    @FunctionalInterface
+    private interface Evaluation {
+
+        /**
+         * Evaluates a position.
+         *
+         * @param position The position
+         * @return The score in centipawns from the side to move's point of view
+         */
+        int evaluate(BitboardPosition position);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.chessgame.eval.nnue;
+
+/**
+ * Network arithmetic with plain loops, used when the Vector API is not available.
+ */
+final class ScalarKernels implements Kernels {
+
+    @Override
+    public void add(short[] accumulator, short[] weights, int offset) {
+        for (int i = 0; i < accumulator.length; i++) {
+            accumulator[i] += weights[offset + i];
+        }
+    }
+
+    @Override
+    public void subtract(short[] accumulator, short[] weights, int offset) {
+        for (int i = 0; i < accumulator.length; i++) {
+            accumulator[i] -= weights[offset + i];
+        }
+    }
+
+    @Override
+    public void addSubtract(short[] accumulator, short[] weights, int addOffset, int subtractOffset) {
+        for (int i = 0; i < accumulator.length; i++) {
+            accumulator[i] += (short) (weights[addOffset + i] - weights[subtractOffset + i]);
+        }
+    }
+
+    @Override
+    public int dot(short[] hidden, short[] weights, int offset) {
+        int sum = 0;
+        for (int i = 0; i < hidden.length; i++) {
+            int clipped = Math.min(Math.max(hidden[i], 0), Network.QA);
+            sum += clipped * weights[offset + i];
+        }
+        return sum;
+    }
+
+    @Override
+    public String toString() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.chessgame.eval.nnue;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Network arithmetic with the Vector API.
+ * <p>
+ * Accumulator updates work on as many 16-bit lanes as the CPU's widest vector holds. For the
+ * output layer, the clipped hidden values and the weights are widened to 32 bits before they are
+ * multiplied, since the products do not fit in 16 bits. Lengths that are not a multiple of the
+ * vector length are finished with scalar loops. This class must only be loaded when the
+ * {@code jdk.incubator.vector} module is present (see {@link Kernels#create()}).
+ */
+final class VectorKernels implements Kernels {
+
+    private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_PREFERRED;
+
+    // Same vector size as SHORTS, so a short vector widens into exactly two int vectors
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public void add(short[] accumulator, short[] weights, int offset) {
+        int i = 0;
+        for (int bound = SHORTS.loopBound(accumulator.length); i < bound; i += SHORTS.length()) {
+            ShortVector.fromArray(SHORTS, accumulator, i)
+                    .add(ShortVector.fromArray(SHORTS, weights, offset + i))
+                    .intoArray(accumulator, i);
+        }
+        for (; i < accumulator.length; i++) {
+            accumulator[i] += weights[offset + i];
+        }
+    }
+
+    @Override
+    public void subtract(short[] accumulator, short[] weights, int offset) {
+        int i = 0;
+        for (int bound = SHORTS.loopBound(accumulator.length); i < bound; i += SHORTS.length()) {
+            ShortVector.fromArray(SHORTS, accumulator, i)
+                    .sub(ShortVector.fromArray(SHORTS, weights, offset + i))
+                    .intoArray(accumulator, i);
+        }
+        for (; i < accumulator.length; i++) {
+            accumulator[i] -= weights[offset + i];
+        }
+    }
+
+    @Override
+    public void addSubtract(short[] accumulator, short[] weights, int addOffset, int subtractOffset) {
+        int i = 0;
+        for (int bound = SHORTS.loopBound(accumulator.length); i < bound; i += SHORTS.length()) {
+            ShortVector.fromArray(SHORTS, accumulator, i)
+                    .add(ShortVector.fromArray(SHORTS, weights, addOffset + i))
+                    .sub(ShortVector.fromArray(SHORTS, weights, subtractOffset + i))
+                    .intoArray(accumulator, i);
+        }
+        for (; i < accumulator.length; i++) {
+            accumulator[i] += (short) (weights[addOffset + i] - weights[subtractOffset + i]);
+        }
+    }
+
+    @Override
+    public int dot(short[] hidden, short[] weights, int offset) {
+        IntVector sum = IntVector.zero(INTS);
+        int i = 0;
+        for (int bound = SHORTS.loopBound(hidden.length); i < bound; i += SHORTS.length()) {
+            ShortVector clipped = ShortVector.fromArray(SHORTS, hidden, i).max((short) 0).min((short) Network.QA);
+            ShortVector weight = ShortVector.fromArray(SHORTS, weights, offset + i);
+            for (int part = 0; part < 2; part++) {
+                IntVector wideHidden = (IntVector) clipped.convertShape(VectorOperators.S2I, INTS, part);
+                IntVector wideWeight = (IntVector) weight.convertShape(VectorOperators.S2I, INTS, part);
+                sum = sum.add(wideHidden.mul(wideWeight));
+            }
+        }
+        int result = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < hidden.length; i++) {
+            int clipped = Math.min(Math.max(hidden[i], 0), Network.QA);
+            result += clipped * weights[offset + i];
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "vector (" + SHORTS.vectorBitSize() + "-bit)";
+    }
+}
@@ -1,7 +1,7 @@
 package com.example.chessgame.helper;
 
+import com.example.chessgame.bitboard.Bitboard;
 import com.example.chessgame.data.ChessBoardData;
-import com.example.chessgame.pieces.King;
 import com.example.chessgame.pieces.Knight;
 import com.example.chessgame.pieces.Piece;
 
@@ -101,7 +101,8 @@ public class CheckSquares {
 
     /**
      * Checks if moving a piece to a destination square would result in the king being in check.
-     * Temporarily moves the piece, checks if the king is under check, then restores the board state.
+     * The board is not changed: the occupancy after the move is computed on the bitboards
+     * and the king's square is tested for attackers.
      *
      * @param chessBoardData Object containing the chess board and game state
      * @param row            Destination row coordinate
@@ -111,53 +112,8 @@ public class CheckSquares {
      * @return true if the move is safe (king not in check), false otherwise
      */
     public static boolean moveNotCheck(ChessBoardData chessBoardData, int row, int col, char color, Piece piece) {
-        Piece[][] chessBoard = chessBoardData.getChessBoard();
-        int pieceRow = piece.getRow();
-        int pieceCol = piece.getCol();
-        Piece takenPiece = chessBoard[row][col];
-
-        // Temporarily make the move on the board
-        chessBoard[piece.getRow()][piece.getCol()] = null;
-        chessBoard[row][col] = piece;
-
-        // Search for the king of the same color as the moving piece
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                if (chessBoard[i][j] != null && chessBoard[i][j] instanceof King king && chessBoard[i][j].getColor() == color) {
-                    // King of the same color found
-
-                    // If the piece being moved is the king itself, update its position attributes
-                    if (piece instanceof King) {
-                        king.setRow(i);
-                        king.setCol(j);
-                    }
-
-                    // Check if the king is under check in this temporary board state
-                    if (king.isUnderCheck(chessBoard)) {
-                        // King is under check, restore the original board state
-                        chessBoard[row][col] = takenPiece;
-                        chessBoard[pieceRow][pieceCol] = piece;
-                        if (piece instanceof King) {
-                            // Reset king's position attributes if it was the king being moved
-                            king.setRow(pieceRow);
-                            king.setCol(pieceCol);
-                        }
-                        return false; // Move is not valid as it puts/leaves king in check
-                    } else {
-                        // King is not under check, restore the original board state
-                        chessBoard[row][col] = takenPiece;
-                        chessBoard[pieceRow][pieceCol] = piece;
-                        if (piece instanceof King) {
-                            // Reset king's position attributes if it was the king being moved
-                            king.setRow(pieceRow);
-                            king.setCol(pieceCol);
-                        }
-                        return true; // Move is valid as the king is not in check
-                    }
-                }
-            }
-        }
-        // If no king found (shouldn't happen in a valid chess game), consider the move valid
-        return true;
+        assert piece.getColor() == color;
+        int to = Bitboard.square(row, col);
+        return chessBoardData.getPosition().isKingSafeAfterMove(Bitboard.square(piece.getRow(), piece.getCol()), to, to);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,235 @@
+package com.example.chessgame.perft;
+
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.bitboard.MoveGenerator;
+import com.example.chessgame.data.ChessBoardData;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Multi-threaded perft runner built on a {@link ForkJoinPool}.
+ * <p>
+ * The tree is split into one task per root move and, if the split depth is larger than one,
+ * into one task per move at the next plies as well. Below the split depth every task counts its
+ * subtree with the single-threaded {@link Perft}. Boards are mutable, so every task works on its
+ * own copy of the position. The pool's work stealing balances subtrees of different size.
+ * <p>
+ * Usage: {@code java -cp chess-core/target/classes com.example.chessgame.perft.ParallelPerft <depth> [--threads N] [--split D] [--baseline] [FEN]}
+ * <br>
+ * {@code --threads} sets the number of worker threads (default: all processors), {@code --split}
+ * the number of plies that are split into tasks (default: 1, only the root) and {@code --baseline}
+ * also runs the single-threaded perft first so speedup and scaling efficiency can be reported.
+ */
+public class ParallelPerft {
+
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+
+    // Leaf nodes and busy time counted by every worker thread, keyed by thread name
+    private final Map<String, LongAdder> nodesPerThread = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> busyNanosPerThread = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a parallel perft runner with its own thread pool.
+     *
+     * @param threads    The number of worker threads
+     * @param splitDepth The number of plies, starting at the root, that are split into separate tasks
+     */
+    public ParallelPerft(int threads, int splitDepth) {
+        this.pool = new ForkJoinPool(threads);
+        this.splitDepth = Math.max(1, splitDepth);
+    }
+
+    /**
+     * Runs parallel perft from the command line.
+     *
+     * @param args The depth, followed by optional flags and a FEN (defaults to the starting position)
+     */
+    public static void main(String[] args) {
+        int depth = args.length < 1 ? 0 : Integer.parseInt(args[0]);
+        if (depth < 1) {
+            System.err.println("Usage: ParallelPerft <depth> [--threads N] [--split D] [--baseline] [FEN], with a depth of at least 1");
+            return;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        int splitDepth = 1;
+        boolean baseline = false;
+        List<String> fenParts = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--split" -> splitDepth = Integer.parseInt(args[++i]);
+                case "--baseline" -> baseline = true;
+                default -> fenParts.add(args[i]);
+            }
+        }
+        String fen = fenParts.isEmpty() ? BitboardPosition.START_FEN : String.join(" ", fenParts);
+        ChessBoardData chessBoardData = new ChessBoardData(fen);
+
+        // Optional single-threaded run to compare against
+        long baselineNanos = 0;
+        if (baseline) {
+            long start = System.nanoTime();
+            Perft.perft(chessBoardData, depth);
+            baselineNanos = System.nanoTime() - start;
+        }
+
+        ParallelPerft parallelPerft = new ParallelPerft(threads, splitDepth);
+        long start = System.nanoTime();
+        Map<String, Long> divide = parallelPerft.divide(chessBoardData, depth);
+        long elapsedNanos = System.nanoTime() - start;
+        parallelPerft.shutdown();
+
+        long nodes = 0;
+        for (Map.Entry<String, Long> rootMove : divide.entrySet()) {
+            System.out.println(rootMove.getKey() + ": " + rootMove.getValue());
+            nodes += rootMove.getValue();
+        }
+        Perft.printSummary(nodes, elapsedNanos);
+        parallelPerft.printThreadReport(threads, elapsedNanos, baselineNanos);
+    }
+
+    /**
+     * Counts the leaf nodes below every legal move of the side to move, in parallel.
+     *
+     * @param chessBoardData The position to start from (not changed)
+     * @param depth          The depth to count to, at least 1
+     * @return The node count per root move, keyed by the move in coordinate notation (e.g., "e2e4")
+     * @throws IllegalArgumentException if depth is smaller than 1
+     */
+    public Map<String, Long> divide(ChessBoardData chessBoardData, int depth) {
+        Perft.checkDepth(depth);
+        // One task per root move, each with its own copy of the board
+        Map<String, PerftTask> rootTasks = new LinkedHashMap<>();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = Perft.legalMoves(chessBoardData, moves);
+        for (int i = 0; i < count; i++) {
+            rootTasks.put(MoveCode.toUci(moves[i]), new PerftTask(play(chessBoardData, moves[i]), depth - 1, splitDepth - 1));
+        }
+
+        Map<String, Long> divide = new LinkedHashMap<>();
+        for (Map.Entry<String, PerftTask> rootTask : rootTasks.entrySet()) {
+            pool.execute(rootTask.getValue());
+        }
+        for (Map.Entry<String, PerftTask> rootTask : rootTasks.entrySet()) {
+            divide.put(rootTask.getKey(), rootTask.getValue().join());
+        }
+        return divide;
+    }
+
+    /**
+     * Gets the leaf nodes counted by every worker thread since this runner was created.
+     *
+     * @return Node counts keyed by thread name
+     */
+    public Map<String, Long> getNodesPerThread() {
+        Map<String, Long> nodes = new TreeMap<>();
+        nodesPerThread.forEach((thread, count) -> nodes.put(thread, count.sum()));
+        return nodes;
+    }
+
+    /**
+     * Stops the worker threads of this runner.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Plays a move on a copy of the board, so the copy can be handed to another task.
+     *
+     * @param chessBoardData The position before the move (not changed)
+     * @param move           The move, packed with {@link MoveCode}
+     * @return A new board with the move played
+     */
+    private static ChessBoardData play(ChessBoardData chessBoardData, int move) {
+        ChessBoardData child = new ChessBoardData(chessBoardData);
+        child.makeMove(move);
+        return child;
+    }
+
+    /**
+     * Prints the node count and busy share of every worker thread, the pool utilization and,
+     * when a baseline time is known, the speedup and scaling efficiency.
+     *
+     * @param threads       The number of worker threads
+     * @param elapsedNanos  The wall-clock time of the parallel run
+     * @param baselineNanos The wall-clock time of the single-threaded run, or 0 if it was not run
+     */
+    private void printThreadReport(int threads, long elapsedNanos, long baselineNanos) {
+        System.out.println();
+        long totalBusyNanos = 0;
+        for (Map.Entry<String, Long> thread : getNodesPerThread().entrySet()) {
+            long busyNanos = busyNanosPerThread.get(thread.getKey()).sum();
+            totalBusyNanos += busyNanos;
+            System.out.printf("%s: %d nodes, busy %.1f%%%n", thread.getKey(), thread.getValue(), 100.0 * busyNanos / elapsedNanos);
+        }
+        System.out.println("Threads: " + threads);
+        System.out.printf("Utilization: %.1f%%%n", 100.0 * totalBusyNanos / ((double) elapsedNanos * threads));
+        if (baselineNanos > 0) {
+            double speedup = (double) baselineNanos / elapsedNanos;
+            System.out.println("Baseline time: " + baselineNanos / 1_000_000 + " ms");
+            System.out.printf("Speedup: %.2fx%n", speedup);
+            System.out.printf("Scaling efficiency: %.1f%%%n", 100.0 * speedup / threads);
+        }
+    }
+
+    /**
+     * Task counting the subtree below one position.
+     * Splits into child tasks while split plies remain, otherwise counts serially.
+     * Fork/join tasks are serializable by inheritance, but these are never serialized.
+     */
+    @SuppressWarnings("serial")
+    private class PerftTask extends RecursiveTask<Long> {
+        private final ChessBoardData chessBoardData;
+        private final int depth;
+        private final int splitPliesLeft;
+
+        /**
+         * Creates a task for one subtree.
+         *
+         * @param chessBoardData The task's own copy of the position
+         * @param depth          The remaining depth to count
+         * @param splitPliesLeft How many more plies are split into separate tasks
+         */
+        PerftTask(ChessBoardData chessBoardData, int depth, int splitPliesLeft) {
+            this.chessBoardData = chessBoardData;
+            this.depth = depth;
+            this.splitPliesLeft = splitPliesLeft;
+        }
+
+        @Override
+        protected Long compute() {
+            // Near the leaves a task is too small to be worth splitting further
+            if (splitPliesLeft <= 0 || depth <= 2) {
+                long start = System.nanoTime();
+                long nodes = Perft.perft(chessBoardData, depth);
+                String thread = Thread.currentThread().getName();
+                nodesPerThread.computeIfAbsent(thread, name -> new LongAdder()).add(nodes);
+                busyNanosPerThread.computeIfAbsent(thread, name -> new LongAdder()).add(System.nanoTime() - start);
+                return nodes;
+            }
+
+            List<PerftTask> children = new ArrayList<>();
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            int count = Perft.legalMoves(chessBoardData, moves);
+            for (int i = 0; i < count; i++) {
+                children.add(new PerftTask(play(chessBoardData, moves[i]), depth - 1, splitPliesLeft - 1));
+            }
+            long nodes = 0;
+            for (PerftTask child : invokeAll(children)) {
+                nodes += child.join();
+            }
+            return nodes;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.chessgame.perft;
+
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.bitboard.MoveGenerator;
+import com.example.chessgame.bitboard.PieceCode;
+import com.example.chessgame.data.ChessBoardData;
+import com.example.chessgame.pieces.Piece;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Headless perft (performance test) runner.
+ * <p>
+ * Perft counts every leaf of the legal move tree to a fixed depth. The counts of well known
+ * positions are published, so perft checks that move generation is correct, and the time it
+ * takes measures how fast it is. By default this runner walks the tree through the same
+ * {@link ChessBoardData} and {@link Piece#generateMoves(ChessBoardData, int[], int)} API the game uses.
+ * With {@code --core} it uses the {@link MoveGenerator} on the bare {@link BitboardPosition}
+ * instead. Both modes play and take back moves on a single board, without copying it.
+ * <p>
+ * Usage: {@code java -cp chess-core/target/classes com.example.chessgame.perft.Perft <depth> [--core] [FEN]}
+ * <br>
+ * Prints the node count below every root move ("divide"), the total node count,
+ * the elapsed time and the nodes per second.
+ */
+public class Perft {
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private Perft() {
+
+    }
+
+    /**
+     * Runs perft from the command line.
+     *
+     * @param args The depth, optionally followed by --core and a FEN (defaults to the starting position)
+     */
+    public static void main(String[] args) {
+        int depth = args.length < 1 ? 0 : Integer.parseInt(args[0]);
+        if (depth < 1) {
+            System.err.println("Usage: Perft <depth> [--core] [FEN], with a depth of at least 1");
+            return;
+        }
+        boolean core = args.length > 1 && args[1].equals("--core");
+        int fenStart = core ? 2 : 1;
+        String fen = args.length > fenStart ? String.join(" ", Arrays.copyOfRange(args, fenStart, args.length)) : BitboardPosition.START_FEN;
+        ChessBoardData chessBoardData = new ChessBoardData(fen);
+
+        long start = System.nanoTime();
+        Map<String, Long> divide = core ? divideCore(chessBoardData.getPosition(), depth) : divide(chessBoardData, depth);
+        long elapsedNanos = System.nanoTime() - start;
+
+        long nodes = 0;
+        for (Map.Entry<String, Long> rootMove : divide.entrySet()) {
+            System.out.println(rootMove.getKey() + ": " + rootMove.getValue());
+            nodes += rootMove.getValue();
+        }
+        printSummary(nodes, elapsedNanos);
+    }
+
+    /**
+     * Prints the total node count, the elapsed time and the nodes per second.
+     *
+     * @param nodes        The number of leaf nodes counted
+     * @param elapsedNanos The time it took in nanoseconds
+     */
+    static void printSummary(long nodes, long elapsedNanos) {
+        System.out.println();
+        System.out.println("Nodes: " + nodes);
+        System.out.println("Time: " + elapsedNanos / 1_000_000 + " ms");
+        System.out.println("NPS: " + (elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos));
+    }
+
+    /**
+     * Counts the leaf nodes below every legal move of the side to move.
+     *
+     * @param chessBoardData The position to start from (unchanged when this returns)
+     * @param depth          The depth to count to, at least 1
+     * @return The node count per root move, keyed by the move in coordinate notation (e.g., "e2e4")
+     * @throws IllegalArgumentException if depth is smaller than 1
+     */
+    public static Map<String, Long> divide(ChessBoardData chessBoardData, int depth) {
+        checkDepth(depth);
+        Map<String, Long> divide = new LinkedHashMap<>();
+        // One move buffer per ply, so the tree walk does not allocate
+        int[][] moves = new int[depth][MoveGenerator.MAX_MOVES];
+        int count = legalMoves(chessBoardData, moves[0]);
+        for (int i = 0; i < count; i++) {
+            chessBoardData.makeMove(moves[0][i]);
+            divide.put(MoveCode.toUci(moves[0][i]), perft(chessBoardData, moves, 1, depth - 1));
+            chessBoardData.unmakeMove(moves[0][i]);
+        }
+        return divide;
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree to the given depth.
+     *
+     * @param chessBoardData The position to start from (unchanged when this returns)
+     * @param depth          The number of half moves to look ahead
+     * @return The number of positions reached at that depth
+     */
+    public static long perft(ChessBoardData chessBoardData, int depth) {
+        return perft(chessBoardData, new int[Math.max(depth, 1)][MoveGenerator.MAX_MOVES], 0, depth);
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree to the given depth, reusing move buffers.
+     *
+     * @param chessBoardData The position to start from (unchanged when this returns)
+     * @param moves          Move buffers, one per ply
+     * @param ply            The distance from the root, selects the move buffer
+     * @param depth          The number of half moves to look ahead
+     * @return The number of positions reached at that depth
+     */
+    private static long perft(ChessBoardData chessBoardData, int[][] moves, int ply, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        int[] plyMoves = moves[ply];
+        int count = legalMoves(chessBoardData, plyMoves);
+        // At the last level only the number of moves matters, so they are not played
+        if (depth == 1) {
+            return count;
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            chessBoardData.makeMove(plyMoves[i]);
+            nodes += perft(chessBoardData, moves, ply + 1, depth - 1);
+            chessBoardData.unmakeMove(plyMoves[i]);
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts the leaf nodes below every legal move, using the core move generator.
+     *
+     * @param position The position to start from (unchanged when this returns)
+     * @param depth    The depth to count to, at least 1
+     * @return The node count per root move, keyed by the move in coordinate notation (e.g., "e2e4")
+     * @throws IllegalArgumentException if depth is smaller than 1
+     */
+    public static Map<String, Long> divideCore(BitboardPosition position, int depth) {
+        checkDepth(depth);
+        Map<String, Long> divide = new LinkedHashMap<>();
+        MoveGenerator moveGenerator = new MoveGenerator();
+        // One move buffer per ply, so the search does not allocate
+        int[][] moves = new int[depth][MoveGenerator.MAX_MOVES];
+        int count = moveGenerator.generateMoves(position, moves[0]);
+        for (int i = 0; i < count; i++) {
+            position.makeMove(moves[0][i]);
+            divide.put(MoveCode.toUci(moves[0][i]), perftCore(position, moveGenerator, moves, 1, depth - 1));
+            position.unmakeMove(moves[0][i]);
+        }
+        return divide;
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree to the given depth, using the core move generator.
+     *
+     * @param position The position to start from (unchanged when this returns)
+     * @param depth    The number of half moves to look ahead
+     * @return The number of positions reached at that depth
+     */
+    public static long perftCore(BitboardPosition position, int depth) {
+        return perftCore(position, new MoveGenerator(), new int[Math.max(depth, 1)][MoveGenerator.MAX_MOVES], 0, depth);
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree with the core move generator and make/unmake.
+     *
+     * @param position      The position (unchanged when this returns)
+     * @param moveGenerator The move generator to use
+     * @param moves         Move buffers, one per ply
+     * @param ply           The distance from the root, selects the move buffer
+     * @param depth         The number of half moves to look ahead
+     * @return The number of positions reached at that depth
+     */
+    private static long perftCore(BitboardPosition position, MoveGenerator moveGenerator, int[][] moves, int ply, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        int[] plyMoves = moves[ply];
+        int count = moveGenerator.generateMoves(position, plyMoves);
+        if (depth == 1) {
+            return count;
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            position.makeMove(plyMoves[i]);
+            nodes += perftCore(position, moveGenerator, moves, ply + 1, depth - 1);
+            position.unmakeMove(plyMoves[i]);
+        }
+        return nodes;
+    }
+
+    /**
+     * Checks the depth of a divide, which splits the count by the moves of the first ply.
+     *
+     * @param depth The depth to count to
+     * @throws IllegalArgumentException if depth is smaller than 1
+     */
+    static void checkDepth(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Perft divide depth must be at least 1: " + depth);
+        }
+    }
+
+    /**
+     * Collects the legal moves of the side to move through the piece API, as packed moves.
+     * The pieces list a promotion once; it is expanded here to one move for each piece the pawn
+     * can promote to.
+     *
+     * @param chessBoardData The current position
+     * @param moves          The buffer to write to, at least MoveGenerator.MAX_MOVES long
+     * @return The number of moves written
+     */
+    public static int legalMoves(ChessBoardData chessBoardData, int[] moves) {
+        int count = 0;
+        for (Piece[] row : chessBoardData.getChessBoard()) {
+            for (Piece piece : row) {
+                if (piece != null && piece.getColor() == chessBoardData.getTurn()) {
+                    count = piece.generateMoves(chessBoardData, moves, count);
+                }
+            }
+        }
+        // The queen promotion stays where it is, the other three pieces are added at the end
+        for (int i = 0, end = count; i < end; i++) {
+            int move = moves[i];
+            if (MoveCode.isPromotion(move)) {
+                for (int type = PieceCode.ROOK; type >= PieceCode.KNIGHT; type--) {
+                    moves[count++] = MoveCode.of(MoveCode.from(move), MoveCode.to(move), MoveCode.promotionFlag(type, MoveCode.isCapture(move)));
+                }
+            }
+        }
+        return count;
+    }
+}
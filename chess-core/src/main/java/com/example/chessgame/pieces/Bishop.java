@@ -0,0 +1,44 @@
+package com.example.chessgame.pieces;
+
+import com.example.chessgame.bitboard.Attacks;
+import com.example.chessgame.bitboard.Bitboard;
+import com.example.chessgame.data.ChessBoardData;
+
+/**
+ * Represents a Bishop chess piece in the chess game.
+ * Bishops move diagonally any number of squares but cannot jump over other pieces.
+ */
+public class Bishop extends Piece {
+
+    /**
+     * Constructs a new Bishop piece with the specified color and starting position.
+     *
+     * @param color The color of the bishop ('w' for white, 'b' for black)
+     * @param row   The starting row position (0-7)
+     * @param col   The starting column position (0-7)
+     */
+    public Bishop(char color, int row, int col) {
+        super(color, row, col);
+        letter = 'B'; // Sets the character representation of the Bishop to 'B'
+    }
+
+    /**
+     * Calculates all possible valid moves for this Bishop based on the current board state.
+     * Bishops can move diagonally in all four directions.
+     *
+     * @param chessBoardData The current state of the chess board
+     * @param moves          The buffer to write the moves to
+     * @param count          The number of moves already in the buffer
+     * @return The new number of moves in the buffer
+     */
+    @Override
+    public int generateMoves(ChessBoardData chessBoardData, int[] moves, int count) {
+        // Only calculate moves if it's this piece's color's turn
+        if (chessBoardData.getTurn() == color) {
+            // Look up all squares the bishop attacks on both diagonals in one step
+            long attacks = Attacks.bishopAttacks(Bitboard.square(row, col), chessBoardData.getPosition().getOccupancy());
+            count = addMovesToAttackedSquares(attacks, chessBoardData, moves, count);
+        }
+        return count;
+    }
+}
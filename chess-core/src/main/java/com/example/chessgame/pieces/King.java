@@ -0,0 +1,242 @@
+package com.example.chessgame.pieces;
+
+import com.example.chessgame.bitboard.Attacks;
+import com.example.chessgame.bitboard.Bitboard;
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.LegalMoveFilter;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.bitboard.PieceCode;
+import com.example.chessgame.data.ChessBoardData;
+import com.example.chessgame.helper.CheckSquares;
+
+/**
+ * Represents a King chess piece in the chess game.
+ * The King can move one square in any direction and has special castling moves.
+ * It is the most important piece as the game ends when a King is checkmated.
+ */
+public class King extends Piece {
+
+    /**
+     * Constructs a new King piece with the specified color and starting position.
+     *
+     * @param color The color of the king ('w' for white, 'b' for black)
+     * @param row   The starting row position (0-7)
+     * @param col   The starting column position (0-7)
+     */
+    public King(char color, int row, int col) {
+        super(color, row, col);
+        letter = 'K'; // Sets the character representation of the King to 'K'
+    }
+
+    /**
+     * Calculates all possible valid moves for this King based on the current board state.
+     * Includes regular one-square moves in all directions and special castling moves.
+     *
+     * @param chessBoardData The current state of the chess board
+     * @param moves          The buffer to write the moves to
+     * @param count          The number of moves already in the buffer
+     * @return The new number of moves in the buffer
+     */
+    @Override
+    public int generateMoves(ChessBoardData chessBoardData, int[] moves, int count) {
+        if (chessBoardData.getTurn() == color) {
+            BitboardPosition position = chessBoardData.getPosition();
+            LegalMoveFilter legalMoveFilter = chessBoardData.getLegalMoveFilter();
+            int from = Bitboard.square(row, col);
+
+            // All eight neighbouring squares that do not hold one of our own pieces
+            long targets = Attacks.kingAttacks(from) & ~position.getOccupancy(PieceCode.colorOf(color));
+            while (targets != 0) {
+                int target = Bitboard.firstSquare(targets);
+                targets &= targets - 1; // Clear the square we just took
+
+                // The king may not step onto an attacked square
+                if (legalMoveFilter.isKingMoveLegal(target)) {
+                    moves[count++] = MoveCode.of(from, target, position.pieceAt(target) != PieceCode.NO_PIECE ? MoveCode.CAPTURE : MoveCode.QUIET);
+                }
+            }
+
+            // Check special castling moves
+            count = canCastleKingSide(chessBoardData, moves, count);
+            count = canCastleQueenSide(chessBoardData, moves, count);
+        }
+        return count;
+    }
+
+    /**
+     * Checks if the King can castle on the queenside (long castle).
+     * Requirements: the queenside castling right is still held, the three squares between
+     * King and Rook are empty, King isn't in check, and King doesn't pass through or land on an attacked square.
+     *
+     * @param chessBoardData The current state of the chess board
+     * @param moves          The buffer to add the castling move to if valid
+     * @param count          The number of moves already in the buffer
+     * @return The new number of moves in the buffer
+     */
+    private int canCastleQueenSide(ChessBoardData chessBoardData, int[] moves, int count) {
+        int castlingRight = (color == 'w') ? BitboardPosition.WHITE_QUEENSIDE : BitboardPosition.BLACK_QUEENSIDE;
+        long emptySquares = Bitboard.bit(Bitboard.square(row, col - 1)) | Bitboard.bit(Bitboard.square(row, col - 2)) | Bitboard.bit(Bitboard.square(row, col - 3));
+        if (canCastle(chessBoardData, castlingRight, emptySquares, col - 1, col - 2)) {
+            moves[count++] = MoveCode.of(Bitboard.square(row, col), Bitboard.square(row, col - 2), MoveCode.QUEEN_CASTLE);
+        }
+        return count;
+    }
+
+    /**
+     * Checks if the King can castle on the kingside (short castle).
+     * Requirements: the kingside castling right is still held, the two squares between
+     * King and Rook are empty, King isn't in check, and King doesn't pass through or land on an attacked square.
+     *
+     * @param chessBoardData The current state of the chess board
+     * @param moves          The buffer to add the castling move to if valid
+     * @param count          The number of moves already in the buffer
+     * @return The new number of moves in the buffer
+     */
+    private int canCastleKingSide(ChessBoardData chessBoardData, int[] moves, int count) {
+        int castlingRight = (color == 'w') ? BitboardPosition.WHITE_KINGSIDE : BitboardPosition.BLACK_KINGSIDE;
+        long emptySquares = Bitboard.bit(Bitboard.square(row, col + 1)) | Bitboard.bit(Bitboard.square(row, col + 2));
+        if (canCastle(chessBoardData, castlingRight, emptySquares, col + 1, col + 2)) {
+            moves[count++] = MoveCode.of(Bitboard.square(row, col), Bitboard.square(row, col + 2), MoveCode.KING_CASTLE);
+        }
+        return count;
+    }
+
+    /**
+     * Shared castling conditions for both sides.
+     *
+     * @param chessBoardData The current state of the chess board
+     * @param castlingRight  The castling right flag for this side
+     * @param emptySquares   The squares between King and Rook that must be empty
+     * @param passCol        The column the King passes over
+     * @param targetCol      The column the King lands on
+     * @return true if castling is allowed
+     */
+    private boolean canCastle(ChessBoardData chessBoardData, int castlingRight, long emptySquares, int passCol, int targetCol) {
+        BitboardPosition position = chessBoardData.getPosition();
+        LegalMoveFilter legalMoveFilter = chessBoardData.getLegalMoveFilter();
+        // The right is only kept while King and Rook are unmoved on their starting squares
+        return (position.getCastlingRights() & castlingRight) != 0
+                && (position.getOccupancy() & emptySquares) == 0
+                && !legalMoveFilter.isInCheck()
+                && legalMoveFilter.isKingMoveLegal(Bitboard.square(row, passCol))
+                && legalMoveFilter.isKingMoveLegal(Bitboard.square(row, targetCol));
+    }
+
+    /**
+     * Determines if the King is currently in check.
+     * Checks all possible ways the king could be attacked.
+     *
+     * @param chessBoard The current state of the chess board
+     * @return true if the king is in check, false otherwise
+     */
+    public boolean isUnderCheck(Piece[][] chessBoard) {
+        return canKnightAttack(chessBoard) || canDiagonalAttack(chessBoard) || canStraightAttack(chessBoard) || canPawnAttack(chessBoard);
+    }
+
+    /**
+     * Checks if the King is under attack by enemy pawns.
+     *
+     * @param chessBoard The current state of the chess board
+     * @return true if the king is threatened by a pawn, false otherwise
+     */
+    private boolean canPawnAttack(Piece[][] chessBoard) {
+        // Pawns attack in different directions based on their color
+        int increment = (color == 'b') ? 1 : -1;
+
+        // Check the two diagonals where enemy pawns could attack from
+        return (CheckSquares.squareInBoardNotEmptyOppositeColor(chessBoard, row + increment, col - 1, color) && chessBoard[row + increment][col - 1] instanceof Pawn) || (CheckSquares.squareInBoardNotEmptyOppositeColor(chessBoard, row + increment, col + 1, color) && chessBoard[row + increment][col + 1] instanceof Pawn);
+    }
+
+    /**
+     * Checks if the King is under attack by enemy knights.
+     *
+     * @param chessBoard The current state of the chess board
+     * @return true if the king is threatened by a knight, false otherwise
+     */
+    private boolean canKnightAttack(Piece[][] chessBoard) {
+        // Check all eight possible knight move positions
+        return (CheckSquares.isOppositeColorKnight(chessBoard, row + 2, col - 1, color) || CheckSquares.isOppositeColorKnight(chessBoard, row + 2, col + 1, color) || CheckSquares.isOppositeColorKnight(chessBoard, row - 2, col - 1, color) || CheckSquares.isOppositeColorKnight(chessBoard, row - 2, col + 1, color) || CheckSquares.isOppositeColorKnight(chessBoard, row + 1, col - 2, color) || CheckSquares.isOppositeColorKnight(chessBoard, row + 1, col + 2, color) || CheckSquares.isOppositeColorKnight(chessBoard, row - 1, col - 2, color) || CheckSquares.isOppositeColorKnight(chessBoard, row - 1, col + 2, color));
+    }
+
+    /**
+     * Checks if the King is under attack along diagonal lines (by bishops or queens).
+     *
+     * @param chessBoard The current state of the chess board
+     * @return true if the king is threatened diagonally, false otherwise
+     */
+    private boolean canDiagonalAttack(Piece[][] chessBoard) {
+        // Check all four diagonal directions
+        return canDirectionAttack(1, 1, chessBoard) ||    // Down-right
+                canDirectionAttack(-1, -1, chessBoard) ||  // Up-left
+                canDirectionAttack(-1, 1, chessBoard) ||   // Up-right
+                canDirectionAttack(1, -1, chessBoard);     // Down-left
+    }
+
+    /**
+     * Checks if the King is under attack along straight lines (by rooks or queens).
+     *
+     * @param chessBoard The current state of the chess board
+     * @return true if the king is threatened horizontally or vertically, false otherwise
+     */
+    private boolean canStraightAttack(Piece[][] chessBoard) {
+        // Check all four straight directions
+        return canDirectionAttack(1, 0, chessBoard) ||   // Down
+                canDirectionAttack(-1, 0, chessBoard) ||  // Up
+                canDirectionAttack(0, 1, chessBoard) ||   // Right
+                canDirectionAttack(0, -1, chessBoard);    // Left
+    }
+
+    /**
+     * Helper method to check if the King is under attack from a specific direction.
+     * Traces a line from the king outward and checks for enemy pieces that could attack.
+     *
+     * @param rowIncrement The row direction (-1, 0, or 1)
+     * @param colIncrement The column direction (-1, 0, or 1)
+     * @param chessBoard   The current state of the chess board
+     * @return true if the king is threatened from this direction, false otherwise
+     */
+    private boolean canDirectionAttack(int rowIncrement, int colIncrement, Piece[][] chessBoard) {
+        // Check up to 7 squares in the specified direction
+        for (int i = 1; i < 8; i++) {
+            int targetRow = row + i * rowIncrement;
+            int targetCol = col + i * colIncrement;
+
+            // Check if target square is on the board
+            if (CheckSquares.isWithInBoard(targetRow, targetCol)) {
+                // If square is empty, continue checking further in this direction
+                if (CheckSquares.squareEmpty(chessBoard, targetRow, targetCol)) {
+                    continue;
+                }
+
+                // If square has opponent's piece
+                if (CheckSquares.squareOppositeColor(chessBoard, targetRow, targetCol, color)) {
+                    Piece piece = chessBoard[targetRow][targetCol];
+
+                    // Check if it's a straight line attack (horizontal or vertical)
+                    if ((rowIncrement == 0 || colIncrement == 0)) {
+                        // Rooks and Queens can attack straight
+                        if ((piece instanceof Rook || piece instanceof Queen)) {
+                            return true;
+                        }
+                    }
+                    // Check if it's a diagonal attack
+                    else {
+                        // Bishops and Queens can attack diagonally
+                        if (piece instanceof Bishop || piece instanceof Queen) {
+                            return true;
+                        }
+                    }
+                    return false;
+                } else {
+                    // If square has friendly piece, it blocks any attack from this direction
+                    return false;
+                }
+            }
+            // If we've gone off the board, no attack is possible from this direction
+            else {
+                return false;
+            }
+        }
+        return false;
+    }
+}
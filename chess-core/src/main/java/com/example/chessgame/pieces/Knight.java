@@ -0,0 +1,45 @@
+package com.example.chessgame.pieces;
+
+import com.example.chessgame.bitboard.Attacks;
+import com.example.chessgame.bitboard.Bitboard;
+import com.example.chessgame.data.ChessBoardData;
+
+/**
+ * Represents a Knight chess piece that extends the base Piece class.
+ * Knights move in an L-shape pattern: 2 squares in one direction and 1 square perpendicular.
+ */
+public class Knight extends Piece {
+    /**
+     * Constructor for creating a new Knight.
+     *
+     * @param color The color of the Knight ('w' for white, 'b' for black)
+     * @param row   The initial row position on the chess board
+     * @param col   The initial column position on the chess board
+     */
+    public Knight(char color, int row, int col) {
+        // Call the parent constructor to set color and position
+        super(color, row, col);
+        // Set the piece letter to 'N' (standard chess notation for Knight)
+        letter = 'N';
+    }
+
+    /**
+     * Calculates all possible moves for this Knight based on current board state.
+     * Knights have a unique L-shaped movement pattern and can jump over other pieces,
+     * so the squares they attack only depend on the square they stand on.
+     *
+     * @param chessBoardData Contains the current state of the chess board
+     * @param moves          The buffer to write the moves to
+     * @param count          The number of moves already in the buffer
+     * @return The new number of moves in the buffer
+     */
+    @Override
+    public int generateMoves(ChessBoardData chessBoardData, int[] moves, int count) {
+        // Only calculate moves if it's this piece's turn to move
+        if (chessBoardData.getTurn() == color) {
+            // Look up all eight L-shaped jumps (2 squares in one direction, 1 square perpendicular)
+            count = addMovesToAttackedSquares(Attacks.knightAttacks(Bitboard.square(row, col)), chessBoardData, moves, count);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.chessgame.pieces;
+
+import com.example.chessgame.bitboard.Attacks;
+import com.example.chessgame.bitboard.Bitboard;
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.LegalMoveFilter;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.bitboard.PieceCode;
+import com.example.chessgame.data.ChessBoardData;
+import com.example.chessgame.helper.CheckSquares;
+
+/**
+ * This class represents a Pawn chess piece.
+ * Pawns have special movement rules including:
+ * - Moving one square forward
+ * - Moving two squares on first move
+ * - Capturing diagonally
+ * - En Passant captures
+ * - Promotion when reaching the opposite side
+ */
+public class Pawn extends Piece {
+
+    /**
+     * Constructor for creating a new Pawn
+     *
+     * @param color The color of the pawn ('w' for white, 'b' for black)
+     * @param row   The starting row position
+     * @param col   The starting column position
+     */
+    public Pawn(char color, int row, int col) {
+        super(color, row, col);  // Call the parent constructor
+        letter = 'P';  // Set the piece identifier to 'P' for Pawn
+    }
+
+    /**
+     * Calculates all possible valid moves for this pawn.
+     * A move onto the last row is written once, as a queen promotion (see {@link Piece#generateMoves}).
+     *
+     * @param chessBoardData Current state of the chess board
+     * @param moves          The buffer to write the moves to
+     * @param count          The number of moves already in the buffer
+     * @return The new number of moves in the buffer
+     */
+    @Override
+    public int generateMoves(ChessBoardData chessBoardData, int[] moves, int count) {
+        // Only calculate moves if it's this pawn's turn to move
+        if (chessBoardData.getTurn() == color) {
+            // Determine direction of movement (black moves down, white moves up)
+            int moveDirection = (color == 'b') ? 1 : -1;
+            BitboardPosition position = chessBoardData.getPosition();
+            LegalMoveFilter legalMoveFilter = chessBoardData.getLegalMoveFilter();
+            int square = Bitboard.square(row, col);
+            long emptySquares = ~position.getOccupancy();
+
+            // Check forward movement: one square, and two squares from the starting row if both are empty
+            long targets = 0;
+            if (CheckSquares.isWithInBoard(row + moveDirection, col)) {
+                long oneForward = Bitboard.bit(Bitboard.square(row + moveDirection, col)) & emptySquares;
+                targets |= oneForward;
+                if (oneForward != 0 && row == startRow()) {
+                    targets |= Bitboard.bit(Bitboard.square(row + 2 * moveDirection, col)) & emptySquares;
+                }
+            }
+
+            // Check diagonal captures of opponent pieces
+            long opponentPieces = position.getOccupancy(PieceCode.colorOf(color) ^ 1);
+            targets |= Attacks.pawnAttacks(PieceCode.colorOf(color), square) & opponentPieces;
+
+            // Keep only the squares that do not leave our king in check
+            targets = legalMoveFilter.legalTargets(square, targets);
+            while (targets != 0) {
+                int target = Bitboard.firstSquare(targets);
+                targets &= targets - 1; // Clear the square we just took
+                boolean taking = (opponentPieces & Bitboard.bit(target)) != 0;
+
+                int flag;
+                if (pawnToOtherSide(Bitboard.row(target))) {
+                    // The pawn reaches the opposite end (promotion)
+                    flag = MoveCode.promotionFlag(PieceCode.QUEEN, taking);
+                } else if (taking) {
+                    flag = MoveCode.CAPTURE;
+                } else {
+                    flag = Math.abs(Bitboard.row(target) - row) == 2 ? MoveCode.DOUBLE_PUSH : MoveCode.QUIET;
+                }
+                moves[count++] = MoveCode.of(square, target, flag);
+            }
+
+            // Check for En Passant capture: the square an enemy pawn just skipped is diagonally in front
+            int enPassantSquare = position.getEnPassantSquare();
+            if (enPassantSquare != Bitboard.NO_SQUARE && (Attacks.pawnAttacks(PieceCode.colorOf(color), square) & Bitboard.bit(enPassantSquare)) != 0
+                    && legalMoveFilter.isEnPassantLegal(square, enPassantSquare)) {
+                moves[count++] = MoveCode.of(square, enPassantSquare, MoveCode.EN_PASSANT);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the row this pawn starts the game on, from where it may move two squares
+     *
+     * @return 6 for white pawns, 1 for black pawns
+     */
+    private int startRow() {
+        return (color == 'w') ? 6 : 1;
+    }
+
+    /**
+     * Determines if the pawn has reached the opposite side of the board
+     *
+     * @param row The row to check
+     * @return true if the pawn has reached the opposite end of the board
+     */
+    private boolean pawnToOtherSide(int row) {
+        return (row == 0 && color == 'w') || (row == 7 && color == 'b');
+    }
+
+    /**
+     * Promotes the pawn to another piece (queen, rook, bishop, or knight).
+     * Then checks if the game has ended, since the move that reached the last row is now complete.
+     *
+     * @param chessBoardData The current state of the chess board
+     * @param piece          String indicating which piece to promote to (e.g., "wq" for white queen)
+     */
+    public void promotePiece(ChessBoardData chessBoardData, String piece) {
+        char promotedPieceColor = piece.charAt(0);  // First char is the color
+        char pieceToPromoteTO = piece.charAt(1);    // Second char is the piece type
+
+        // Replace this pawn with the chosen piece
+        chessBoardData.setPiece(this.row, this.col, ChessBoardData.createPiece(promotedPieceColor, Character.toUpperCase(pieceToPromoteTO), this.row, this.col));
+
+        checkForGameEnd(chessBoardData);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,228 @@
+package com.example.chessgame.pieces;
+
+import com.example.chessgame.bitboard.Bitboard;
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.LegalMoveFilter;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.bitboard.PieceCode;
+import com.example.chessgame.data.ChessBoardData;
+import com.example.chessgame.data.GameResult;
+import com.example.chessgame.data.Move;
+
+/**
+ * Abstract base class representing a chess piece.
+ * All specific piece types (King, Queen, Pawn, etc.) extend this class.
+ */
+public abstract class Piece {
+    protected final char color; // 'w' for white, 'b' for black
+    protected int row;         // Current row position (0-7)
+    protected int col;         // Current column position (0-7)
+    protected char letter;     // Letter representation of the piece (e.g., 'K' for king)
+
+    /**
+     * Constructor for creating a chess piece.
+     *
+     * @param color The color of the piece ('w' for white, 'b' for black)
+     * @param row   Initial row position (0-7)
+     * @param col   Initial column position (0-7)
+     */
+    public Piece(char color, int row, int col) {
+        this.color = color;
+        this.row = row;
+        this.col = col;
+    }
+
+    // Getters and setters for piece properties
+    public char getColor() {
+        return color;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public void setRow(int row) {
+        this.row = row;
+    }
+
+    public int getCol() {
+        return col;
+    }
+
+    public void setCol(int col) {
+        this.col = col;
+    }
+
+    public char getLetter() {
+        return letter;
+    }
+
+    /**
+     * Moves the piece to a new position and handles special moves.
+     * The game listener of the board is told when a pawn has to be promoted or when the game has ended.
+     *
+     * @param row            The destination row
+     * @param col            The destination column
+     * @param chessBoardData Contains the board state and game information
+     * @param specialMove    Enum representing special moves like castling or en passant
+     */
+    public void move(int row, int col, ChessBoardData chessBoardData, Move specialMove) {
+        applyMove(row, col, chessBoardData, specialMove);
+
+        if (specialMove == Move.PROMOTE || specialMove == Move.PROMOTE_TAKING) {
+            // The game continues once the player has chosen a piece, see Pawn#promotePiece
+            chessBoardData.getGameListener().onPromotion(row, col);
+        } else {
+            // Check if the game has ended (checkmate, stalemate, etc.)
+            checkForGameEnd(chessBoardData);
+        }
+    }
+
+    /**
+     * Moves the piece to a new position and handles special moves, without touching the UI.
+     * Pawn promotion is not part of the move; the pawn is replaced afterwards with
+     * {@link Pawn#promotePiece(ChessBoardData, String)}.
+     *
+     * @param row            The destination row
+     * @param col            The destination column
+     * @param chessBoardData Contains the board state and game information
+     * @param specialMove    Enum representing special moves like castling or en passant
+     */
+    public void applyMove(int row, int col, ChessBoardData chessBoardData, Move specialMove) {
+        chessBoardData.makeMove(toMoveCode(row, col, specialMove, ' '));
+    }
+
+    /**
+     * Converts a move of this piece into the packed form used by
+     * {@link ChessBoardData#makeMove(int)}.
+     *
+     * @param row         The destination row
+     * @param col         The destination column
+     * @param specialMove Enum representing special moves like castling or en passant, or null
+     * @param promotion   The lower case letter of the piece a pawn promotes to (e.g., 'q'),
+     *                    or ' ' to move the pawn onto the last row and promote it later
+     * @return The packed move (see {@link MoveCode})
+     */
+    public int toMoveCode(int row, int col, Move specialMove, char promotion) {
+        int from = Bitboard.square(this.row, this.col);
+        int to = Bitboard.square(row, col);
+        boolean taking = specialMove == Move.TAKING || specialMove == Move.PROMOTE_TAKING;
+
+        int flag;
+        if (promotion != ' ') {
+            flag = MoveCode.promotionFlag(PieceCode.type(PieceCode.fromFenChar(promotion)), taking);
+        } else if (specialMove == Move.CASTLING) {
+            flag = col > this.col ? MoveCode.KING_CASTLE : MoveCode.QUEEN_CASTLE;
+        } else if (specialMove == Move.EN_PASSANT) {
+            flag = MoveCode.EN_PASSANT;
+        } else if (taking) {
+            flag = MoveCode.CAPTURE;
+        } else if (this instanceof Pawn && Math.abs(this.row - row) == 2) {
+            // A pawn moving two squares can be taken en passant on the next move
+            flag = MoveCode.DOUBLE_PUSH;
+        } else {
+            flag = MoveCode.QUIET;
+        }
+        return MoveCode.of(from, to, flag);
+    }
+
+    /**
+     * Abstract method to be implemented by each piece type.
+     * Writes all legal moves of this piece into a move buffer as packed moves (see {@link MoveCode}),
+     * so no objects are allocated. Every target square is written once: a pawn move onto the
+     * last row carries the queen promotion flag and stands for all four promotions, since the
+     * player picks the piece after the move (see {@link Move#of(int)}).
+     *
+     * @param chessBoardData Current state of the chess board
+     * @param moves          The buffer to write to, with room for MoveGenerator.MAX_MOVES moves in total
+     * @param count          The number of moves already in the buffer; new moves are written after them
+     * @return The new number of moves in the buffer, equal to count if the piece cannot move
+     */
+    public abstract int generateMoves(ChessBoardData chessBoardData, int[] moves, int count);
+
+    /**
+     * Adds a move for every legal square in a bitboard of attacked squares.
+     * Squares holding a piece of this piece's color are skipped, squares that would leave the king
+     * in check are masked out by the legal move filter, empty squares become quiet moves and
+     * squares with an opponent's piece become captures.
+     *
+     * @param attacks        Bitboard of squares the piece attacks
+     * @param chessBoardData Current state of the chess board
+     * @param moves          The buffer to write the moves to
+     * @param count          The number of moves already in the buffer
+     * @return The new number of moves in the buffer
+     */
+    protected int addMovesToAttackedSquares(long attacks, ChessBoardData chessBoardData, int[] moves, int count) {
+        BitboardPosition position = chessBoardData.getPosition();
+        long occupied = position.getOccupancy();
+        int from = Bitboard.square(row, col);
+        long targets = attacks & ~position.getOccupancy(PieceCode.colorOf(color));
+
+        // Keep only the squares that do not leave our king in check
+        targets = chessBoardData.getLegalMoveFilter().legalTargets(from, targets);
+
+        while (targets != 0) {
+            int target = Bitboard.firstSquare(targets);
+            targets &= targets - 1; // Clear the square we just took
+
+            // A square with an opponent's piece is a capture
+            moves[count++] = MoveCode.of(from, target, (occupied & Bitboard.bit(target)) != 0 ? MoveCode.CAPTURE : MoveCode.QUIET);
+        }
+        return count;
+    }
+
+    /**
+     * Checks if the game has ended after a move and tells the game listener of the board.
+     *
+     * @param chessBoardData Current state of the chess board
+     */
+    protected static void checkForGameEnd(ChessBoardData chessBoardData) {
+        GameResult gameResult = getGameResult(chessBoardData);
+        if (gameResult != GameResult.PLAY_ON) {
+            chessBoardData.getGameListener().onGameEnd(gameResult);
+        }
+    }
+
+    /**
+     * Determines the result of the game based on the current board state.
+     * Checks for checkmate and stalemate first, since a checkmate ends the game even on the move
+     * that completes a repetition or the fifty moves. Then checks the other draw rules, or if the
+     * game should continue.
+     *
+     * @param chessBoardData Current state of the chess board
+     * @return GameResult enum indicating the result (BLACK_WIN, WHITE_WIN, a draw, or PLAY_ON)
+     */
+    public static GameResult getGameResult(ChessBoardData chessBoardData) {
+        // Checkers and pins are computed once; the search stops at the first legal move
+        LegalMoveFilter legalMoveFilter = chessBoardData.getLegalMoveFilter();
+        if (!legalMoveFilter.hasLegalMove()) {
+            // No legal moves exist. If the king is in check it's checkmate, otherwise stalemate
+            if (legalMoveFilter.isInCheck()) {
+                if (chessBoardData.getTurn() == 'b') {
+                    return GameResult.WHITE_WIN; // Black king in check, White wins
+                } else {
+                    return GameResult.BLACK_WIN; // White king in check, Black wins
+                }
+            }
+            return GameResult.STALEMATE;
+        }
+
+        // At least one legal move exists, the game continues unless a draw rule ends it
+        BitboardPosition position = chessBoardData.getPosition();
+        if (position.isFiftyMoveRule()) {
+            return GameResult.FIFTY_MOVE_RULE;
+        }
+        if (position.isThreefoldRepetition()) {
+            return GameResult.THREEFOLD_REPETITION;
+        }
+        if (position.hasInsufficientMaterial()) {
+            return GameResult.INSUFFICIENT_MATERIAL;
+        }
+        return GameResult.PLAY_ON;
+    }
+
+    @Override
+    public String toString() {
+        return "Piece{" + "color=" + color + ", row=" + row + ", col=" + col + ", letter=" + letter + '}';
+    }
+}
\ No newline at end of file
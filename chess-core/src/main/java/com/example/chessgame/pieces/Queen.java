@@ -0,0 +1,45 @@
+package com.example.chessgame.pieces;
+
+import com.example.chessgame.bitboard.Attacks;
+import com.example.chessgame.bitboard.Bitboard;
+import com.example.chessgame.data.ChessBoardData;
+
+/**
+ * Represents a Queen piece in chess.
+ * The Queen combines the movement capabilities of both the Bishop and Rook,
+ * allowing it to move any number of squares diagonally, horizontally, or vertically.
+ */
+public class Queen extends Piece {
+
+    /**
+     * Constructor for creating a Queen piece.
+     *
+     * @param color The color of the piece ('w' for white, 'b' for black)
+     * @param row   Initial row position (0-7)
+     * @param col   Initial column position (0-7)
+     */
+    public Queen(char color, int row, int col) {
+        super(color, row, col);
+        letter = 'Q'; // Set the letter representation for the Queen
+    }
+
+    /**
+     * Calculates all possible moves for the Queen from its current position.
+     * The Queen combines the movement patterns of both Bishop (diagonal) and Rook (straight),
+     * so its attacked squares are the union of both lookups.
+     *
+     * @param chessBoardData Current state of the chess board
+     * @param moves          The buffer to write the moves to
+     * @param count          The number of moves already in the buffer
+     * @return The new number of moves in the buffer
+     */
+    @Override
+    public int generateMoves(ChessBoardData chessBoardData, int[] moves, int count) {
+        // Only calculate moves if it's this piece's turn to move
+        if (chessBoardData.getTurn() == color) {
+            long attacks = Attacks.queenAttacks(Bitboard.square(row, col), chessBoardData.getPosition().getOccupancy());
+            count = addMovesToAttackedSquares(attacks, chessBoardData, moves, count);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.chessgame.pieces;
+
+import com.example.chessgame.bitboard.Attacks;
+import com.example.chessgame.bitboard.Bitboard;
+import com.example.chessgame.data.ChessBoardData;
+
+/**
+ * Represents a Rook piece in chess.
+ * The Rook can move any number of squares horizontally or vertically,
+ * as long as its path is not blocked by other pieces.
+ */
+public class Rook extends Piece {
+
+    /**
+     * Constructor for creating a Rook piece.
+     *
+     * @param color The color of the piece ('w' for white, 'b' for black)
+     * @param row   Initial row position (0-7)
+     * @param col   Initial column position (0-7)
+     */
+    public Rook(char color, int row, int col) {
+        super(color, row, col);
+        letter = 'R'; // Set the letter representation for the Rook
+    }
+
+    /**
+     * Calculates all possible moves for the Rook from its current position.
+     * The Rook can move horizontally or vertically in any direction.
+     *
+     * @param chessBoardData Current state of the chess board
+     * @param moves          The buffer to write the moves to
+     * @param count          The number of moves already in the buffer
+     * @return The new number of moves in the buffer
+     */
+    @Override
+    public int generateMoves(ChessBoardData chessBoardData, int[] moves, int count) {
+        // Only calculate moves if it's this piece's turn to move
+        if (chessBoardData.getTurn() == color) {
+            // Look up all squares the rook attacks horizontally and vertically in one step
+            long attacks = Attacks.rookAttacks(Bitboard.square(row, col), chessBoardData.getPosition().getOccupancy());
+            count = addMovesToAttackedSquares(attacks, chessBoardData, moves, count);
+        }
+
+        return count;
+    }
+}
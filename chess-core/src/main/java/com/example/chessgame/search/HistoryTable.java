@@ -0,0 +1,67 @@
+package com.example.chessgame.search;
+
+import com.example.chessgame.bitboard.MoveCode;
+
+/**
+ * Butterfly history table for move ordering: a score for every quiet move of either color,
+ * indexed by its from and to squares.
+ * <p>
+ * Quiet moves that cause a beta cutoff get a bonus and the quiet moves tried before them get the
+ * same amount as a malus. Updates use "gravity": the closer a score already is to the limit, the
+ * less it moves. Scores therefore stay between {@code -MAX_SCORE} and {@code MAX_SCORE}, and
+ * old results fade out when newer ones disagree.
+ */
+public class HistoryTable {
+
+    /**
+     * Largest absolute history score
+     */
+    public static final int MAX_SCORE = 16384;
+
+    // Scores indexed by color * 4096 + from * 64 + to
+    private final int[] scores = new int[2 * 64 * 64];
+
+    /**
+     * Gets the history score of a quiet move.
+     *
+     * @param color The color making the move
+     * @param move  The packed move
+     * @return The score between -MAX_SCORE and MAX_SCORE
+     */
+    public int get(int color, int move) {
+        return scores[index(color, move)];
+    }
+
+    /**
+     * Adds a bonus (or a malus, if negative) to a quiet move.
+     *
+     * @param color The color making the move
+     * @param move  The packed move
+     * @param bonus The amount to add, usually the squared search depth
+     */
+    public void update(int color, int move, int bonus) {
+        int index = index(color, move);
+        int clamped = Math.max(-MAX_SCORE, Math.min(MAX_SCORE, bonus));
+        scores[index] += clamped - scores[index] * Math.abs(clamped) / MAX_SCORE;
+    }
+
+    /**
+     * Halves all scores, so a new search starts with what was learned but adapts quickly.
+     */
+    public void age() {
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] /= 2;
+        }
+    }
+
+    /**
+     * Gets the table index of a move.
+     *
+     * @param color The color making the move
+     * @param move  The packed move
+     * @return The index into the score array
+     */
+    private static int index(int color, int move) {
+        return (color << 12) | (MoveCode.from(move) << 6) | MoveCode.to(move);
+    }
+}
@@ -0,0 +1,308 @@
+package com.example.chessgame.search;
+
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.data.ChessBoardData;
+import com.example.chessgame.eval.PawnHashTable;
+import com.example.chessgame.eval.nnue.Network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Multi-threaded search using Lazy SMP.
+ * <p>
+ * Every thread runs its own {@link Search} of the same root position. The threads do not split
+ * the tree. Instead they share one {@link TranspositionTable}, so each thread finds the bounds
+ * and best moves the others have already stored. Helper threads skip some iteration depths,
+ * which spreads them over different parts of the tree. The calling thread runs the main search.
+ * When it finishes, the helpers are stopped and the best finished result of all threads is
+ * returned. Each thread has its own {@link PawnHashTable}, since pawn structure scores are cheap
+ * to share within a thread but not worth synchronising between threads.
+ * <p>
+ * Usage: {@code java -cp chess-core/target/classes com.example.chessgame.search.LazySmpSearch <depth> [--threads 1,2,4] [--hash MB] [--pawn-hash KB] [FEN]}
+ * <br>
+ * Searches the position once for every thread count, each time with empty tables, and prints
+ * the time to depth, total nodes, nodes per second, speedup over the first thread count and the
+ * pawn hash hit rate.
+ */
+public class LazySmpSearch {
+
+    private final TranspositionTable transpositionTable;
+
+    // Index 0 is the main search, the others are helpers
+    private final Search[] searches;
+    private final ExecutorService helperPool;
+
+    /**
+     * Creates a Lazy SMP search with default-sized pawn hash tables.
+     *
+     * @param threads            The number of search threads, including the calling thread
+     * @param transpositionTable The table shared by all threads
+     * @throws IllegalArgumentException if threads is smaller than 1
+     */
+    public LazySmpSearch(int threads, TranspositionTable transpositionTable) {
+        this(threads, transpositionTable, PawnHashTable.DEFAULT_SIZE_KB);
+    }
+
+    /**
+     * Creates a Lazy SMP search.
+     *
+     * @param threads            The number of search threads, including the calling thread
+     * @param transpositionTable The table shared by all threads
+     * @param pawnHashKb         The size of the pawn hash table of each thread in kilobytes
+     * @throws IllegalArgumentException if threads is smaller than 1
+     */
+    public LazySmpSearch(int threads, TranspositionTable transpositionTable, int pawnHashKb) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least one search thread: " + threads);
+        }
+        this.transpositionTable = transpositionTable;
+        searches = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(transpositionTable, new PawnHashTable(pawnHashKb), i);
+        }
+        helperPool = threads > 1 ? Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    /**
+     * Benchmarks the search with different thread counts from the command line.
+     *
+     * @param args The depth, optional flags and a FEN (defaults to the starting position)
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: LazySmpSearch <depth> [--threads 1,2,4] [--hash MB] [--pawn-hash KB] [FEN]");
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        int[] threadCounts = {1, Runtime.getRuntime().availableProcessors()};
+        int hashMb = TranspositionTable.DEFAULT_SIZE_MB;
+        int pawnHashKb = PawnHashTable.DEFAULT_SIZE_KB;
+        List<String> fenParts = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> threadCounts = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+                case "--hash" -> hashMb = Integer.parseInt(args[++i]);
+                case "--pawn-hash" -> pawnHashKb = Integer.parseInt(args[++i]);
+                default -> fenParts.add(args[i]);
+            }
+        }
+        ChessBoardData chessBoardData = new ChessBoardData(fenParts.isEmpty() ? BitboardPosition.START_FEN : String.join(" ", fenParts));
+
+        // One discarded run first, so the first thread count is not measured before the JIT has compiled the search
+        LazySmpSearch warmUp = new LazySmpSearch(1, new TranspositionTable(hashMb), pawnHashKb);
+        warmUp.search(chessBoardData, SearchLimits.depth(depth));
+        warmUp.shutdown();
+
+        System.out.printf("%-8s %10s %12s %12s %8s %10s  %s%n", "Threads", "Time (ms)", "Nodes", "NPS", "Speedup", "Pawn hits", "Best move");
+        long firstMillis = 0;
+        for (int threads : threadCounts) {
+            LazySmpSearch search = new LazySmpSearch(threads, new TranspositionTable(hashMb), pawnHashKb);
+            SearchResult result = search.search(chessBoardData, SearchLimits.depth(depth));
+            search.shutdown();
+            if (firstMillis == 0) {
+                firstMillis = Math.max(1, result.timeMillis());
+            }
+            System.out.printf("%-8d %10d %12d %12d %7.2fx %9.2f%%  %s (%d)%n", threads, result.timeMillis(), result.nodes(),
+                    result.nodesPerSecond(), (double) firstMillis / Math.max(1, result.timeMillis()), 100 * search.getPawnHashHitRate(),
+                    MoveCode.toUci(result.bestMove()), result.score());
+        }
+    }
+
+    /**
+     * Searches for the best move of the side to move with all threads.
+     *
+     * @param chessBoardData The position to search (not changed)
+     * @param limits         The depth and time limits, applied by the main thread
+     * @return The best finished result of all threads, with the node count of all threads
+     */
+    public SearchResult search(ChessBoardData chessBoardData, SearchLimits limits) {
+        return search(chessBoardData.getPosition(), limits);
+    }
+
+    /**
+     * Searches for the best move of the side to move with all threads.
+     *
+     * @param rootPosition The position to search (not changed)
+     * @param limits       The limits; the time limits are applied by the main thread, the node limit is split between the threads
+     * @return The best finished result of all threads, with the node count of all threads
+     */
+    public SearchResult search(BitboardPosition rootPosition, SearchLimits limits) {
+        long start = System.nanoTime();
+        transpositionTable.newSearch();
+        for (Search search : searches) {
+            search.prepare();
+        }
+
+        // Helpers search up to the same depth, but only the main thread watches the clock.
+        // A node limit is shared out equally, so all threads together stay within it.
+        long nodeShare = limits.hasNodeLimit() ? Math.max(1, limits.maxNodes() / searches.length) : 0;
+        SearchLimits mainLimits = new SearchLimits(limits.maxDepth(), limits.timeMillis(), nodeShare, limits.softTimeMillis());
+        SearchLimits helperLimits = new SearchLimits(limits.maxDepth(), 0, nodeShare);
+        List<Future<SearchResult>> helpers = new ArrayList<>();
+        for (int i = 1; i < searches.length; i++) {
+            Search helper = searches[i];
+            helpers.add(helperPool.submit(() -> helper.iterativeDeepening(rootPosition, helperLimits)));
+        }
+
+        SearchResult best = searches[0].iterativeDeepening(rootPosition, mainLimits);
+        stop();
+
+        long nodes = best.nodes();
+        for (Future<SearchResult> helper : helpers) {
+            SearchResult result = waitFor(helper);
+            nodes += result.nodes();
+            // Prefer a deeper finished iteration, and the higher score at equal depth
+            if (result.bestMove() != MoveCode.NONE && (result.depth() > best.depth()
+                    || (result.depth() == best.depth() && result.score() > best.score()))) {
+                best = result;
+            }
+        }
+        // All threads have finished, so the stop that ended them can go
+        clearStop();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new SearchResult(best.bestMove(), best.score(), best.depth(), best.pv(), nodes, elapsedMillis);
+    }
+
+    /**
+     * Asks all threads to stop as soon as possible.
+     */
+    public void stop() {
+        for (Search search : searches) {
+            search.stop();
+        }
+    }
+
+    /**
+     * Withdraws a stop request of all threads, so the next search runs. The search does not do this
+     * when it starts, since a stop sent just before that would be forgotten: a GUI that sends
+     * {@code stop} right after {@code go infinite} would get no move. A caller that starts the
+     * search on another thread clears the stop before starting that thread instead.
+     */
+    public void clearStop() {
+        for (Search search : searches) {
+            search.clearStop();
+        }
+    }
+
+    /**
+     * Sets the neural network all threads evaluate with, from the next search on.
+     * Each thread gets its own accumulator; the weights are shared.
+     *
+     * @param network The network, or null for the classic evaluation
+     */
+    public void setNetwork(Network network) {
+        for (Search search : searches) {
+            search.setNetwork(network);
+        }
+    }
+
+    /**
+     * Sets the selective search techniques all threads use, from the next search on.
+     *
+     * @param config The configuration, SearchConfig.ALL by default
+     */
+    public void setConfig(SearchConfig config) {
+        for (Search search : searches) {
+            search.setConfig(config);
+        }
+    }
+
+    /**
+     * Sets the number of principal variations the main thread searches, from the next search on.
+     * Helpers keep searching one variation, which is all they need to fill the shared table.
+     *
+     * @param multiPv The number of variations, at least 1
+     * @throws IllegalArgumentException if multiPv is smaller than 1
+     */
+    public void setMultiPv(int multiPv) {
+        searches[0].setMultiPv(multiPv);
+    }
+
+    /**
+     * Sets the listener that is told about every variation the main thread finishes.
+     * The node counts it receives are those of all threads.
+     *
+     * @param listener The listener, or null for none
+     */
+    public void setListener(SearchListener listener) {
+        searches[0].setListener(listener == null ? null : (line, result) -> listener.onIteration(line,
+                new SearchResult(result.bestMove(), result.score(), result.depth(), result.pv(), totalNodes(), result.timeMillis())));
+    }
+
+    /**
+     * Stops the helper threads of this search.
+     */
+    public void shutdown() {
+        if (helperPool != null) {
+            helperPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Gets the number of search threads.
+     *
+     * @return The number of threads, including the main thread
+     */
+    public int getThreads() {
+        return searches.length;
+    }
+
+    /**
+     * Gets the share of pawn hash probes that hit, over the tables of all threads.
+     *
+     * @return The hit rate between 0 and 1, or 0 before the first probe
+     */
+    public double getPawnHashHitRate() {
+        long hits = 0;
+        long probes = 0;
+        for (Search search : searches) {
+            PawnHashTable pawnHashTable = search.getPawnHashTable();
+            hits += pawnHashTable.getHits();
+            probes += pawnHashTable.getHits() + pawnHashTable.getMisses();
+        }
+        return probes == 0 ? 0 : (double) hits / probes;
+    }
+
+    /**
+     * Adds up the nodes of all threads while they search. The helpers' counts are read without
+     * synchronisation, so they may lag slightly behind, which is fine for reporting progress.
+     *
+     * @return The number of nodes searched so far
+     */
+    private long totalNodes() {
+        long nodes = 0;
+        for (Search search : searches) {
+            nodes += search.getNodes();
+        }
+        return nodes;
+    }
+
+    /**
+     * Waits for a helper thread to finish its search.
+     *
+     * @param helper The helper's pending result
+     * @return The helper's result
+     * @throws IllegalStateException if the helper failed or the wait was interrupted
+     */
+    private static SearchResult waitFor(Future<SearchResult> helper) {
+        try {
+            return helper.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a search thread", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search thread failed", e.getCause());
+        }
+    }
+}
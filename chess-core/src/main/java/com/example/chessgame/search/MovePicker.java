@@ -0,0 +1,152 @@
+package com.example.chessgame.search;
+
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.bitboard.MoveGenerator;
+import com.example.chessgame.bitboard.PieceCode;
+
+/**
+ * Hands out the moves of one position in the order the search should try them.
+ * <p>
+ * The tiers are: the transposition table move, captures and promotions that do not lose material
+ * by MVV-LVA (most valuable victim first, and among equal victims the least valuable attacker
+ * first), the two killer moves of the ply, the other quiet moves by their {@link HistoryTable}
+ * score, and last the captures that lose material according to {@link StaticExchange}. Every move gets one number for its tier and rank. The list is never sorted as a whole:
+ * {@link #next()} selects the best remaining move, so when an early move causes a cutoff, the
+ * rest of the list is not ordered at all.
+ * <p>
+ * The search keeps one picker per ply and reuses it, so ordering does not allocate.
+ */
+public class MovePicker {
+
+    // Base scores of the tiers, far enough apart that the ranks within a tier never overlap
+    private static final int TT_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 24;
+    private static final int FIRST_KILLER_SCORE = 1 << 20;
+    private static final int SECOND_KILLER_SCORE = FIRST_KILLER_SCORE - 1;
+    private static final int LOSING_CAPTURE_SCORE = -(1 << 24);
+
+    // Victim and attacker weights for MVV-LVA, indexed by piece type
+    private static final int[] PIECE_ORDER_VALUES = {1, 3, 3, 5, 9, 20};
+
+    private final StaticExchange staticExchange;
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private final int[] scores = new int[MoveGenerator.MAX_MOVES];
+    private int count;
+    private int next;
+
+    /**
+     * Creates a move picker.
+     *
+     * @param staticExchange The exchange evaluator of the search thread that uses this picker
+     */
+    public MovePicker(StaticExchange staticExchange) {
+        this.staticExchange = staticExchange;
+    }
+
+    /**
+     * Takes the moves of a new position and scores them.
+     *
+     * @param position     The position the moves belong to
+     * @param legalMoves   The legal moves
+     * @param count        The number of legal moves
+     * @param ttMove       The best move stored in the transposition table, or NONE
+     * @param firstKiller  The newest killer move of this ply, or NONE
+     * @param secondKiller The older killer move of this ply, or NONE
+     * @param history      The history scores for quiet moves
+     */
+    public void init(BitboardPosition position, int[] legalMoves, int count, int ttMove, int firstKiller, int secondKiller, HistoryTable history) {
+        this.count = count;
+        next = 0;
+        int us = position.getSideToMove();
+        for (int i = 0; i < count; i++) {
+            int move = legalMoves[i];
+            moves[i] = move;
+            if (move == ttMove) {
+                scores[i] = TT_MOVE_SCORE;
+            } else if (MoveCode.isCapture(move) || MoveCode.isPromotion(move)) {
+                int rank = captureRank(position, move);
+                scores[i] = (isLosing(position, move) ? LOSING_CAPTURE_SCORE : CAPTURE_SCORE) + rank;
+            } else if (move == firstKiller) {
+                scores[i] = FIRST_KILLER_SCORE;
+            } else if (move == secondKiller) {
+                scores[i] = SECOND_KILLER_SCORE;
+            } else {
+                scores[i] = history.get(us, move);
+            }
+        }
+    }
+
+    /**
+     * Gets the best move that has not been handed out yet.
+     *
+     * @return The next move to search, or NONE when all moves have been handed out
+     */
+    public int next() {
+        if (next == count) {
+            return MoveCode.NONE;
+        }
+        // Selection step: swap the best remaining move to the front of the remaining part
+        int best = next;
+        for (int i = next + 1; i < count; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves[best];
+        int score = scores[best];
+        moves[best] = moves[next];
+        scores[best] = scores[next];
+        moves[next] = move;
+        scores[next] = score;
+        next++;
+        return move;
+    }
+
+    /**
+     * Checks if the move last handed out by {@link #next()} is a capture that loses material.
+     *
+     * @return true if static exchange evaluation says the capture loses material
+     */
+    public boolean isLosingCapture() {
+        return next > 0 && scores[next - 1] < -HistoryTable.MAX_SCORE;
+    }
+
+    /**
+     * Checks if a capture loses material once all recaptures are played out.
+     * A capture of a piece worth at least as much as the capturing piece can never lose,
+     * so the exchange is only evaluated for the other captures.
+     *
+     * @param position The position before the move
+     * @param move     The capture or promotion
+     * @return true if the exchange loses material
+     */
+    private boolean isLosing(BitboardPosition position, int move) {
+        int victim = position.pieceAt(MoveCode.to(move));
+        if (victim != PieceCode.NO_PIECE && PIECE_ORDER_VALUES[PieceCode.type(victim)] >= PIECE_ORDER_VALUES[PieceCode.type(position.pieceAt(MoveCode.from(move)))]) {
+            return false;
+        }
+        return staticExchange.evaluate(position, move) < 0;
+    }
+
+    /**
+     * Ranks a capture or promotion by MVV-LVA. Promotions add the value of the new piece.
+     *
+     * @param position The position before the move
+     * @param move     The capture or promotion
+     * @return The rank within the capture tier, higher is searched first
+     */
+    private static int captureRank(BitboardPosition position, int move) {
+        int attacker = PieceCode.type(position.pieceAt(MoveCode.from(move)));
+        int victimValue = 0;
+        if (MoveCode.flag(move) == MoveCode.EN_PASSANT) {
+            victimValue = PIECE_ORDER_VALUES[PieceCode.PAWN];
+        } else if (MoveCode.isCapture(move)) {
+            victimValue = PIECE_ORDER_VALUES[PieceCode.type(position.pieceAt(MoveCode.to(move)))];
+        }
+        if (MoveCode.isPromotion(move)) {
+            victimValue += PIECE_ORDER_VALUES[MoveCode.promotionType(move)];
+        }
+        return victimValue * 64 - PIECE_ORDER_VALUES[attacker];
+    }
+}
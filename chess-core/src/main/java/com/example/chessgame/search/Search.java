@@ -0,0 +1,931 @@
+package com.example.chessgame.search;
+
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.bitboard.MoveGenerator;
+import com.example.chessgame.bitboard.PieceCode;
+import com.example.chessgame.data.ChessBoardData;
+import com.example.chessgame.eval.Evaluator;
+import com.example.chessgame.eval.PawnHashTable;
+import com.example.chessgame.eval.nnue.Accumulator;
+import com.example.chessgame.eval.nnue.Network;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Negamax alpha-beta search with iterative deepening.
+ * <p>
+ * The search runs on a copy of the {@link BitboardPosition} behind a {@link ChessBoardData}, using
+ * the {@link MoveGenerator} and make/unmake, so the board shown in the game is never touched.
+ * It searches depth 1, 2, 3 and so on until the depth or time limit is reached, and returns the
+ * result of the last iteration that finished. With a clock, the {@link TimeManager} decides
+ * after every iteration whether another one is worth starting. Results are stored in a
+ * {@link TranspositionTable}, which gives earlier iterations' best moves to later ones. The
+ * principal variation is collected in a triangular table while searching.
+ * <p>
+ * Principal variation search only gives the first move of a position the full window; the others
+ * just have to be proven worse, which a null window search does faster. Each iteration starts
+ * with an aspiration window around the previous score. The search is also selective: null move
+ * pruning, late move reductions, reverse futility and futility pruning cut away lines that are
+ * very unlikely to matter, and check extensions look deeper where it does. Each of these
+ * techniques can be switched off with a {@link SearchConfig}.
+ * <p>
+ * Usage: {@code java -cp chess-core/target/classes com.example.chessgame.search.Search <depth> [--time ms] [--pawn-hash KB] [--nnue file|builtin] [--config names] [FEN]}
+ */
+public class Search {
+
+    /**
+     * Score of a checkmate at the root. Mate in n half moves scores {@code MATE - n}.
+     */
+    public static final int MATE = 30000;
+
+    /**
+     * Scores above this value (or below its negative) are mate scores
+     */
+    public static final int MATE_BOUND = MATE - 1000;
+
+    // Larger than any score, used as the initial search window
+    private static final int INFINITY = 32000;
+
+    // Longest line the search can reach, including the plies beyond the nominal depth
+    private static final int MAX_PLY = 128;
+
+    // How many nodes are searched between two checks of the time and node limits
+    private static final int LIMIT_CHECK_INTERVAL = 2048;
+
+    // Depth skipping of Lazy SMP helper threads: helper i skips an iteration when
+    // (depth + SKIP_PHASE[i]) / SKIP_SIZE[i] is odd, so helpers spread over different depths
+    private static final int[] SKIP_SIZE = {1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4, 4};
+    private static final int[] SKIP_PHASE = {0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6, 7};
+
+    // Aspiration windows: the first depth they are used at and the initial distance from the
+    // previous score, doubled whenever the score falls outside
+    private static final int ASPIRATION_MIN_DEPTH = 4;
+    private static final int ASPIRATION_WINDOW = 25;
+
+    // Null move pruning: the shallowest depth it is tried at, and the depth it saves at least
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    private static final int NULL_MOVE_REDUCTION = 3;
+
+    // With this many pieces other than pawns and the king or fewer, zugzwang is likely enough
+    // that a null move cutoff is verified by a normal search
+    private static final int ZUGZWANG_PIECES = 2;
+
+    // Reverse futility pruning: the deepest depth it is used at and the margin per half move
+    private static final int REVERSE_FUTILITY_MAX_DEPTH = 6;
+    private static final int REVERSE_FUTILITY_MARGIN = 90;
+
+    // Futility pruning: the deepest depth it is used at and the margin per half move
+    private static final int FUTILITY_MAX_DEPTH = 3;
+    private static final int FUTILITY_MARGIN = 150;
+
+    // Late move reductions: the shallowest depth they are used at, and the base reduction
+    // for every depth and move number, growing with the logarithm of both
+    private static final int LATE_MOVE_MIN_DEPTH = 3;
+    private static final int[][] LATE_MOVE_REDUCTIONS = createLateMoveReductions();
+
+    private final TranspositionTable transpositionTable;
+
+    // Pawn structure scores, kept between searches; every thread has its own
+    private final PawnHashTable pawnHashTable;
+
+    // Hidden layer of the neural network evaluation, null to use the classic evaluation
+    private Accumulator accumulator;
+
+    private final MoveGenerator moveGenerator = new MoveGenerator();
+
+    // 0 for the main search, 1 and up for Lazy SMP helper threads
+    private final int threadIndex;
+
+    // One move buffer and one move picker per ply, so searching does not allocate
+    private final int[][] moves = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+    private final MovePicker[] movePickers = new MovePicker[MAX_PLY];
+    private final StaticExchange staticExchange = new StaticExchange();
+
+    // Triangular principal variation table: row ply holds the best line from that ply on,
+    // in the entries ply to pvLength[ply] - 1
+    private final int[][] pvTable = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+
+    // Two quiet moves per ply that recently caused a beta cutoff, newest first
+    private final int[][] killers = new int[MAX_PLY][2];
+
+    // The quiet moves searched so far at each ply, which lose history when a later quiet move causes a cutoff
+    private final int[][] searchedQuiets = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+
+    // Quiet move scores learned from cutoffs, kept (and aged) between searches
+    private final HistoryTable history = new HistoryTable();
+
+    private BitboardPosition position;
+    private long nodes;
+    private final TimeManager timeManager = new TimeManager();
+    private long maxNodes;
+    private volatile boolean stopped;
+
+    // Best move at the root in the current iteration
+    private int rootBestMove;
+
+    // Number of principal variations searched per iteration, and the root moves of the
+    // variations already found in the current iteration, which the next variation leaves out
+    private int multiPv = 1;
+    private final int[] excludedRootMoves = new int[MoveGenerator.MAX_MOVES];
+    private int excludedRootMoveCount;
+
+    // Told about every finished variation, or null
+    private SearchListener listener;
+
+    // The selective search techniques in use
+    private SearchConfig config = SearchConfig.ALL;
+
+    // Whether the move played at a ply was a null move, so two never follow each other
+    private final boolean[] nullMovePlayed = new boolean[MAX_PLY];
+
+    // Null moves are not tried before this ply, while a null move cutoff is being verified
+    private int nullMoveMinPly;
+
+    /**
+     * Creates a search that stores its results in a transposition table.
+     *
+     * @param transpositionTable The table to use, may be shared with other searches
+     */
+    public Search(TranspositionTable transpositionTable) {
+        this(transpositionTable, new PawnHashTable());
+    }
+
+    /**
+     * Creates a search with its own pawn hash table.
+     *
+     * @param transpositionTable The table to use, may be shared with other searches
+     * @param pawnHashTable      The pawn structure cache, used only by this search
+     */
+    public Search(TranspositionTable transpositionTable, PawnHashTable pawnHashTable) {
+        this(transpositionTable, pawnHashTable, 0);
+    }
+
+    /**
+     * Creates a search that may be a helper thread of a {@link LazySmpSearch}.
+     *
+     * @param transpositionTable The table to use, shared with the other threads
+     * @param pawnHashTable      The pawn structure cache, used only by this thread
+     * @param threadIndex        0 for the main thread, 1 and up for helpers, which skip some depths
+     */
+    Search(TranspositionTable transpositionTable, PawnHashTable pawnHashTable, int threadIndex) {
+        this.transpositionTable = transpositionTable;
+        this.pawnHashTable = pawnHashTable;
+        this.threadIndex = threadIndex;
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            movePickers[ply] = new MovePicker(staticExchange);
+        }
+    }
+
+    /**
+     * Runs a search from the command line and prints every finished iteration and the best move.
+     *
+     * @param args The depth, optional flags and a FEN (defaults to the starting position)
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: Search <depth> [--time ms] [--pawn-hash KB] [--nnue file|builtin] [--config names] [FEN]");
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        long timeMillis = 0;
+        int pawnHashKb = PawnHashTable.DEFAULT_SIZE_KB;
+        String networkSource = null;
+        SearchConfig config = SearchConfig.ALL;
+        List<String> fenParts = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--time" -> timeMillis = Long.parseLong(args[++i]);
+                case "--pawn-hash" -> pawnHashKb = Integer.parseInt(args[++i]);
+                case "--nnue" -> networkSource = args[++i];
+                case "--config" -> config = SearchConfig.parse(args[++i]);
+                default -> fenParts.add(args[i]);
+            }
+        }
+        String fen = fenParts.isEmpty() ? BitboardPosition.START_FEN : String.join(" ", fenParts);
+
+        PawnHashTable pawnHashTable = new PawnHashTable(pawnHashKb);
+        Search search = new Search(new TranspositionTable(), pawnHashTable);
+        search.setConfig(config);
+        if (networkSource != null) {
+            try {
+                search.setNetwork(Network.load(networkSource));
+            } catch (IOException e) {
+                System.err.println("Could not load network: " + e.getMessage());
+                return;
+            }
+        }
+        SearchResult result = search.search(new ChessBoardData(fen), new SearchLimits(depth, timeMillis));
+        System.out.println(result);
+        System.out.println("NPS: " + result.nodesPerSecond());
+        System.out.printf("Pawn hash: %d entries, hit rate %.2f%%%n", pawnHashTable.getEntries(), 100 * pawnHashTable.getHitRate());
+        System.out.println("Best move: " + MoveCode.toUci(result.bestMove()));
+    }
+
+    /**
+     * Searches for the best move of the side to move.
+     *
+     * @param chessBoardData The position to search (not changed)
+     * @param limits         The depth and time limits
+     * @return The result of the deepest finished iteration
+     */
+    public SearchResult search(ChessBoardData chessBoardData, SearchLimits limits) {
+        return search(chessBoardData.getPosition(), limits);
+    }
+
+    /**
+     * Searches for the best move of the side to move.
+     *
+     * @param rootPosition The position to search (not changed)
+     * @param limits       The depth and time limits
+     * @return The result of the deepest finished iteration
+     */
+    public SearchResult search(BitboardPosition rootPosition, SearchLimits limits) {
+        transpositionTable.newSearch();
+        prepare();
+        SearchResult result = iterativeDeepening(rootPosition, limits);
+        clearStop();
+        return result;
+    }
+
+    /**
+     * Clears the node count of an earlier search. Lazy SMP calls this for every thread before any
+     * of them starts, so the node counts added up during the search never include an earlier search.
+     */
+    void prepare() {
+        nodes = 0;
+    }
+
+    /**
+     * Withdraws a stop request, so the next search runs. The stop request is not cleared when a
+     * search starts, since a stop sent from another thread just before that would be forgotten.
+     * Instead it is cleared when a search returns, and by the owner of a search thread before it
+     * starts the thread.
+     */
+    public void clearStop() {
+        stopped = false;
+    }
+
+    /**
+     * Searches depth 1, 2, 3 and so on until a limit is reached or the search is stopped.
+     *
+     * @param rootPosition The position to search (not changed)
+     * @param limits       The depth and time limits
+     * @return The result of the deepest finished iteration
+     */
+    SearchResult iterativeDeepening(BitboardPosition rootPosition, SearchLimits limits) {
+        long start = System.nanoTime();
+        position = new BitboardPosition(rootPosition);
+        position.setAccumulator(accumulator);
+        timeManager.start(limits, start);
+        maxNodes = limits.maxNodes();
+        nullMoveMinPly = 0;
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = MoveCode.NONE;
+            plyKillers[1] = MoveCode.NONE;
+        }
+        history.age();
+
+        // There cannot be more variations than legal moves
+        int legalMoveCount = moveGenerator.generateMoves(position, moves[0]);
+        int lines = Math.max(1, Math.min(multiPv, legalMoveCount));
+        // The score of every variation in the previous iteration, the center of its aspiration window
+        int[] previousScores = new int[lines];
+        // The variations finished in the current iteration
+        SearchResult[] lineResults = new SearchResult[lines];
+
+        SearchResult result = new SearchResult(MoveCode.NONE, 0, 0, new int[0], 0, 0);
+        for (int depth = 1; depth <= limits.maxDepth(); depth++) {
+            if (skipsDepth(depth)) {
+                continue;
+            }
+            excludedRootMoveCount = 0;
+            int finishedLines = 0;
+            for (int line = 1; line <= lines; line++) {
+                rootBestMove = MoveCode.NONE;
+                int score = searchRoot(depth, previousScores[line - 1]);
+                // An iteration cut short by the clock is not trusted, unless there is nothing else
+                if (stopped && (line > 1 || result.depth() > 0)) {
+                    break;
+                }
+                long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+                lineResults[finishedLines++] = new SearchResult(rootBestMove, score, depth, Arrays.copyOf(pvTable[0], pvLength[0]), nodes, elapsedMillis);
+                if (rootBestMove == MoveCode.NONE || stopped) {
+                    break;
+                }
+                // The next variation is the best line without this move
+                excludedRootMoves[excludedRootMoveCount++] = rootBestMove;
+            }
+            if (finishedLines == 0) {
+                break;
+            }
+            // Every variation is searched with a different tree, so a later one can score higher
+            // than an earlier one; they are reported best first
+            Arrays.sort(lineResults, 0, finishedLines, (a, b) -> Integer.compare(b.score(), a.score()));
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            for (int i = 0; i < finishedLines; i++) {
+                SearchResult line = lineResults[i];
+                if (finishedLines > 1) {
+                    // All variations report the nodes and time of the whole iteration
+                    line = new SearchResult(line.bestMove(), line.score(), depth, line.pv(), nodes, elapsedMillis);
+                }
+                if (i == 0) {
+                    result = line;
+                }
+                previousScores[i] = line.score();
+                if (listener != null && !stopped) {
+                    listener.onIteration(i + 1, line);
+                }
+            }
+            if (lines > 1 && result.depth() == depth) {
+                // The root entry holds the last variation's move; the next iteration should try the best one first
+                transpositionTable.store(position.getZobristKey(), result.bestMove(), result.score(), depth, TranspositionTable.EXACT);
+            }
+            // No legal moves, or a forced mate found: searching deeper changes nothing
+            if (result.bestMove() == MoveCode.NONE || stopped || Math.abs(result.score()) >= MATE_BOUND) {
+                break;
+            }
+            // Past the soft time limit, another iteration would most likely not finish before the hard one
+            if (timeManager.stopAfterIteration(result.bestMove(), result.score())) {
+                break;
+            }
+        }
+        if (result.bestMove() == MoveCode.NONE && legalMoveCount > 0) {
+            // Stopped before the first root move was searched: a legal move is still better than none
+            int move = fallbackMove(legalMoveCount);
+            result = new SearchResult(move, 0, 0, new int[] {move}, nodes, (System.nanoTime() - start) / 1_000_000);
+        }
+        return result;
+    }
+
+    /**
+     * Picks a root move without searching, for a search that was stopped before it found one:
+     * the move stored in the transposition table if it is legal, otherwise the first legal move.
+     *
+     * @param legalMoveCount The number of legal moves of the root, which are in the move buffer of ply 0
+     * @return A legal move of the root
+     */
+    private int fallbackMove(int legalMoveCount) {
+        // The root is searched with the same buffer, so it still holds the legal moves, maybe reordered
+        int[] rootMoves = moves[0];
+        int ttMove = TranspositionTable.move(transpositionTable.probe(position.getZobristKey()));
+        for (int i = 0; i < legalMoveCount; i++) {
+            if (rootMoves[i] == ttMove) {
+                return ttMove;
+            }
+        }
+        return rootMoves[0];
+    }
+
+    /**
+     * Searches the root, with an aspiration window around the previous iteration's score when
+     * enabled. A score outside the window only tells that the true score is beyond it, so the
+     * window is widened on that side and the root is searched again.
+     *
+     * @param depth         The depth of the iteration
+     * @param previousScore The score of the same variation in the previous iteration
+     * @return The score of the root, or 0 if the search was stopped
+     */
+    private int searchRoot(int depth, int previousScore) {
+        if (!config.aspirationWindows() || depth < ASPIRATION_MIN_DEPTH || Math.abs(previousScore) >= MATE_BOUND) {
+            return negamax(depth, -INFINITY, INFINITY, 0);
+        }
+        int delta = ASPIRATION_WINDOW;
+        int alpha = previousScore - delta;
+        int beta = previousScore + delta;
+        while (true) {
+            int score = negamax(depth, alpha, beta, 0);
+            if (stopped) {
+                return 0;
+            }
+            if (score <= alpha) {
+                alpha = Math.max(alpha - delta, -INFINITY);
+            } else if (score >= beta) {
+                beta = Math.min(beta + delta, INFINITY);
+            } else {
+                return score;
+            }
+            delta *= 2;
+        }
+    }
+
+    /**
+     * Checks the time and node limits of the search.
+     *
+     * @return true if the search has to stop
+     */
+    private boolean limitReached() {
+        return timeManager.isHardLimitReached() || (maxNodes > 0 && nodes >= maxNodes);
+    }
+
+    /**
+     * Checks if a root move belongs to a variation already found in this iteration.
+     *
+     * @param move The root move
+     * @return true if the move is left out of the current variation
+     */
+    private boolean isExcludedRootMove(int move) {
+        for (int i = 0; i < excludedRootMoveCount; i++) {
+            if (excludedRootMoves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if this thread leaves out an iteration, so Lazy SMP helpers do not all search
+     * the same depth at the same time. The main search and depth 1 are never skipped.
+     *
+     * @param depth The depth of the iteration
+     * @return true if the iteration is skipped
+     */
+    private boolean skipsDepth(int depth) {
+        if (threadIndex == 0 || depth == 1) {
+            return false;
+        }
+        int i = (threadIndex - 1) % SKIP_SIZE.length;
+        return ((depth + SKIP_PHASE[i]) / SKIP_SIZE[i]) % 2 != 0;
+    }
+
+    /**
+     * Asks a running search to stop as soon as possible. The search then returns the result
+     * of the last finished iteration.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Searches a position with the negamax form of alpha-beta: the score is always from the
+     * side to move's point of view, and a child's score is the negated score of its parent.
+     *
+     * @param depth The remaining depth in half moves
+     * @param alpha The score the side to move is already guaranteed
+     * @param beta  The score the opponent is already guaranteed, above which the opponent avoids this line
+     * @param ply   The distance from the root
+     * @return The score of the position, or 0 if the search was stopped
+     */
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        if ((++nodes & (LIMIT_CHECK_INTERVAL - 1)) == 0 && limitReached()) {
+            stopped = true;
+        }
+        // The line from here on stays empty unless a move raises alpha
+        pvLength[ply] = ply;
+        if (stopped) {
+            return 0;
+        }
+
+        // A repetition is scored as a draw already the second time: if repeating is good for
+        // one side, it can repeat again. The root is never a draw, a move has to be found there.
+        if (ply > 0 && (position.repetitionCount() > 0 || position.isFiftyMoveRule() || position.hasInsufficientMaterial())) {
+            return 0;
+        }
+
+        // Only nodes searched with a null window are pruned. Lines that may become the principal
+        // variation are searched in full, so the table does not cut them short either, except
+        // without principal variation search, where nearly every window is open.
+        boolean pvNode = beta - alpha > 1;
+
+        // A stored result that is deep enough can end the search of this position at once
+        long key = position.getZobristKey();
+        long entry = transpositionTable.probe(key);
+        int ttMove = TranspositionTable.move(entry);
+        if (entry != 0 && ply > 0 && (!pvNode || !config.principalVariationSearch()) && TranspositionTable.depth(entry) >= depth) {
+            int ttScore = scoreFromTable(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER_BOUND && ttScore >= beta)
+                    || (bound == TranspositionTable.UPPER_BOUND && ttScore <= alpha)) {
+                return ttScore;
+            }
+        }
+
+        // Positions in check are searched one half move deeper, since the forced replies
+        // often decide the game; it also keeps checks at the horizon out of quiescence
+        boolean inCheck = position.isInCheck();
+        if (inCheck && config.checkExtensions()) {
+            depth++;
+        }
+        if (depth == 0) {
+            return quiescence(alpha, beta, ply);
+        }
+        if (ply >= MAX_PLY - 1) {
+            return evaluate();
+        }
+
+        int staticEval = inCheck || pvNode ? -INFINITY : evaluate();
+
+        // Reverse futility pruning: far enough above beta, no quiet move of the opponent
+        // near the horizon will bring the score back down
+        if (config.reverseFutilityPruning() && !pvNode && !inCheck && depth <= REVERSE_FUTILITY_MAX_DEPTH
+                && Math.abs(beta) < MATE_BOUND && staticEval - REVERSE_FUTILITY_MARGIN * depth >= beta) {
+            return staticEval;
+        }
+
+        // Null move pruning: if the position is still above beta after giving the opponent a
+        // free move, a real move will be too. This fails in zugzwang, where every move makes the
+        // position worse, so it needs a piece other than pawns, and few pieces get a verification.
+        int us = position.getSideToMove();
+        int pieces = nonPawnPieces(us);
+        if (config.nullMovePruning() && !pvNode && !inCheck && ply > 0 && !nullMovePlayed[ply - 1] && ply >= nullMoveMinPly
+                && depth >= NULL_MOVE_MIN_DEPTH && staticEval >= beta && pieces > 0) {
+            int reduction = NULL_MOVE_REDUCTION + depth / 4;
+            position.makeNullMove();
+            nullMovePlayed[ply] = true;
+            int nullScore = -negamax(Math.max(0, depth - 1 - reduction), -beta, -beta + 1, ply + 1);
+            nullMovePlayed[ply] = false;
+            position.unmakeNullMove();
+            if (stopped) {
+                return 0;
+            }
+            if (nullScore >= beta) {
+                // A mate found after passing is not a proven mate
+                nullScore = Math.min(nullScore, MATE_BOUND - 1);
+                if (pieces > ZUGZWANG_PIECES) {
+                    return nullScore;
+                }
+                // Verify with a reduced search of this position that does not pass in the first
+                // plies, so a zugzwang shows up as a fail low
+                int previousMinPly = nullMoveMinPly;
+                nullMoveMinPly = ply + 3 * (depth - reduction) / 4;
+                int verifiedScore = negamax(Math.max(0, depth - 1 - reduction), beta - 1, beta, ply);
+                nullMoveMinPly = previousMinPly;
+                if (stopped) {
+                    return 0;
+                }
+                if (verifiedScore >= beta) {
+                    return nullScore;
+                }
+            }
+        }
+
+        int[] plyMoves = moves[ply];
+        int count = moveGenerator.generateMoves(position, plyMoves);
+        if (count == 0) {
+            // Checkmate (the sooner the better for the winner) or stalemate
+            return inCheck ? -MATE + ply : 0;
+        }
+        MovePicker movePicker = movePickers[ply];
+        movePicker.init(position, plyMoves, count, ttMove, killers[ply][0], killers[ply][1], history);
+
+        // Futility pruning: near the horizon, quiet moves cannot raise a static evaluation
+        // this far below alpha, so only captures, promotions and checks are searched
+        boolean futile = config.futilityPruning() && !pvNode && !inCheck && depth <= FUTILITY_MAX_DEPTH
+                && Math.abs(alpha) < MATE_BOUND && staticEval + FUTILITY_MARGIN * depth <= alpha;
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = MoveCode.NONE;
+        int move;
+        int searched = 0;
+        int quietCount = 0;
+        while ((move = movePicker.next()) != MoveCode.NONE) {
+            if (ply == 0 && excludedRootMoveCount > 0 && isExcludedRootMove(move)) {
+                continue;
+            }
+            searched++;
+            boolean quiet = isQuiet(move);
+            int moveHistory = quiet ? history.get(us, move) : 0;
+            position.makeMove(move);
+
+            // Quiet moves after the first one may be pruned or reduced, unless they give check
+            boolean lateQuiet = quiet && searched > 1 && !inCheck && !position.isInCheck();
+            if (futile && lateQuiet) {
+                position.unmakeMove(move);
+                continue;
+            }
+
+            // Late move reductions: with good move ordering, late quiet moves rarely matter,
+            // so they are searched shallower first
+            int reduction = 0;
+            if (config.lateMoveReductions() && lateQuiet && depth >= LATE_MOVE_MIN_DEPTH && ply > 0) {
+                reduction = lateMoveReduction(depth, searched, moveHistory, pvNode, move == killers[ply][0] || move == killers[ply][1]);
+            }
+            int score;
+            if (searched == 1 || (reduction == 0 && !config.principalVariationSearch())) {
+                score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            } else {
+                // A null window only proves the move is not better than alpha. A reduced move
+                // that beats it is searched again at full depth, and a move that lands between
+                // alpha and beta with the full window to get its exact score.
+                score = -negamax(depth - 1 - reduction, -alpha - 1, -alpha, ply + 1);
+                if (score > alpha && reduction > 0 && !stopped) {
+                    score = -negamax(depth - 1, -alpha - 1, -alpha, ply + 1);
+                }
+                if (score > alpha && score < beta && !stopped) {
+                    score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+                }
+            }
+            position.unmakeMove(move);
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (ply == 0) {
+                    rootBestMove = move;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    updatePrincipalVariation(move, ply);
+                    if (alpha >= beta) {
+                        // The opponent will not allow this line, the other moves do not matter
+                        if (quiet) {
+                            rememberCutoff(move, quietCount, depth, ply);
+                        }
+                        break;
+                    }
+                }
+            }
+            if (quiet) {
+                searchedQuiets[ply][quietCount++] = move;
+            }
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND
+                : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        transpositionTable.store(key, bestMove, scoreToTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    /**
+     * Searches only captures and promotions until the position is quiet, so the evaluation is
+     * never taken in the middle of an exchange. The side to move may also "stand pat": accept the
+     * static evaluation instead of capturing, since in chess it is rarely forced to capture.
+     * Captures that lose material by static exchange evaluation are skipped. In check, all moves
+     * are searched, since standing pat is not an option there.
+     *
+     * @param alpha The score the side to move is already guaranteed
+     * @param beta  The score the opponent is already guaranteed
+     * @param ply   The distance from the root
+     * @return The score of the position, or 0 if the search was stopped
+     */
+    private int quiescence(int alpha, int beta, int ply) {
+        if ((++nodes & (LIMIT_CHECK_INTERVAL - 1)) == 0 && limitReached()) {
+            stopped = true;
+        }
+        // Captures are not part of the principal variation
+        pvLength[ply] = ply;
+        if (stopped) {
+            return 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return evaluate();
+        }
+
+        boolean inCheck = position.isInCheck();
+        int bestScore = -INFINITY;
+        if (!inCheck) {
+            int standPat = evaluate();
+            if (standPat >= beta) {
+                return standPat;
+            }
+            alpha = Math.max(alpha, standPat);
+            bestScore = standPat;
+        }
+
+        int[] plyMoves = moves[ply];
+        int count = inCheck ? moveGenerator.generateMoves(position, plyMoves) : moveGenerator.generateCaptures(position, plyMoves);
+        if (count == 0 && inCheck) {
+            return -MATE + ply;
+        }
+        MovePicker movePicker = movePickers[ply];
+        movePicker.init(position, plyMoves, count, MoveCode.NONE, MoveCode.NONE, MoveCode.NONE, history);
+
+        int move;
+        while ((move = movePicker.next()) != MoveCode.NONE) {
+            if (!inCheck && (movePicker.isLosingCapture()
+                    || (MoveCode.isPromotion(move) && MoveCode.promotionType(move) != PieceCode.QUEEN))) {
+                // Losing captures and under-promotions are not worth following here
+                continue;
+            }
+            position.makeMove(move);
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            position.unmakeMove(move);
+            if (stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    /**
+     * Evaluates the current position with the neural network if one is set, and with the
+     * classic {@link Evaluator} otherwise.
+     *
+     * @return The score in centipawns from the side to move's point of view
+     */
+    private int evaluate() {
+        if (accumulator != null) {
+            return accumulator.evaluate(position.getSideToMove());
+        }
+        return Evaluator.evaluate(position, pawnHashTable);
+    }
+
+    /**
+     * Makes a move that raised alpha the start of the principal variation of its ply, followed by
+     * the principal variation of the ply after it. Only array entries are copied.
+     *
+     * @param move The move
+     * @param ply  The distance from the root
+     */
+    private void updatePrincipalVariation(int move, int ply) {
+        int[] line = pvTable[ply];
+        line[ply] = move;
+        int childLength = pvLength[ply + 1];
+        System.arraycopy(pvTable[ply + 1], ply + 1, line, ply + 1, childLength - (ply + 1));
+        pvLength[ply] = childLength;
+    }
+
+    /**
+     * Learns from a quiet move that caused a beta cutoff: it becomes the newest killer of its ply,
+     * its history score rises and the quiet moves searched before it lose the same amount.
+     * Quiet moves skipped by futility pruning were never searched, so they keep their score.
+     *
+     * @param move       The move that caused the cutoff
+     * @param quietCount The number of quiet moves searched before it at this ply
+     * @param depth      The remaining depth, deeper cutoffs count more
+     * @param ply        The distance from the root
+     */
+    private void rememberCutoff(int move, int quietCount, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int us = position.getSideToMove();
+        int bonus = depth * depth;
+        history.update(us, move, bonus);
+        int[] triedQuiets = searchedQuiets[ply];
+        for (int i = 0; i < quietCount; i++) {
+            history.update(us, triedQuiets[i], -bonus);
+        }
+    }
+
+    /**
+     * Gets how much shallower a late quiet move is searched. Moves with a good history score,
+     * killer moves and moves in possible principal variations are reduced less.
+     *
+     * @param depth       The remaining depth
+     * @param moveNumber  The number of the move in the search order, starting at 1
+     * @param moveHistory The history score of the move
+     * @param pvNode      Whether the position may be on the principal variation
+     * @param killer      Whether the move is a killer move of this ply
+     * @return The reduction in half moves, leaving at least one half move to search
+     */
+    private static int lateMoveReduction(int depth, int moveNumber, int moveHistory, boolean pvNode, boolean killer) {
+        int reduction = LATE_MOVE_REDUCTIONS[Math.min(depth, 63)][Math.min(moveNumber, 63)];
+        // The history score moves the reduction by up to two half moves either way
+        reduction -= moveHistory / (HistoryTable.MAX_SCORE / 2);
+        if (pvNode) {
+            reduction--;
+        }
+        if (killer) {
+            reduction--;
+        }
+        return Math.max(0, Math.min(reduction, depth - 2));
+    }
+
+    /**
+     * Counts the knights, bishops, rooks and queens of one color.
+     *
+     * @param color The color
+     * @return The number of pieces other than pawns and the king
+     */
+    private int nonPawnPieces(int color) {
+        return position.getPieceCount(PieceCode.of(color, PieceCode.KNIGHT)) + position.getPieceCount(PieceCode.of(color, PieceCode.BISHOP))
+                + position.getPieceCount(PieceCode.of(color, PieceCode.ROOK)) + position.getPieceCount(PieceCode.of(color, PieceCode.QUEEN));
+    }
+
+    /**
+     * Builds the table of base late move reductions.
+     *
+     * @return The reductions indexed by depth and move number
+     */
+    private static int[][] createLateMoveReductions() {
+        int[][] reductions = new int[64][64];
+        for (int depth = 1; depth < 64; depth++) {
+            for (int moveNumber = 1; moveNumber < 64; moveNumber++) {
+                reductions[depth][moveNumber] = (int) (0.75 + Math.log(depth) * Math.log(moveNumber) / 2.25);
+            }
+        }
+        return reductions;
+    }
+
+    /**
+     * Checks if a move neither captures nor promotes.
+     *
+     * @param move The packed move
+     * @return true for quiet moves, including castling and double pushes
+     */
+    private static boolean isQuiet(int move) {
+        return !MoveCode.isCapture(move) && !MoveCode.isPromotion(move);
+    }
+
+    /**
+     * Converts a mate score from "mate in n from the root" to "mate in n from this position"
+     * before storing it, since the same position can be reached at different distances from the root.
+     *
+     * @param score The score relative to the root
+     * @param ply   The distance of the position from the root
+     * @return The score to store
+     */
+    private static int scoreToTable(int score, int ply) {
+        if (score >= MATE_BOUND) {
+            return score + ply;
+        }
+        if (score <= -MATE_BOUND) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * Converts a stored mate score back to "mate in n from the root".
+     *
+     * @param score The stored score
+     * @param ply   The distance of the position from the root
+     * @return The score relative to the root
+     */
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= MATE_BOUND) {
+            return score - ply;
+        }
+        if (score <= -MATE_BOUND) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Sets the number of principal variations every iteration searches, from the next search on.
+     * The first is the best line; each further one is the best line starting with another move.
+     *
+     * @param multiPv The number of variations, at least 1
+     * @throws IllegalArgumentException if multiPv is smaller than 1
+     */
+    public void setMultiPv(int multiPv) {
+        if (multiPv < 1) {
+            throw new IllegalArgumentException("MultiPV must be at least 1: " + multiPv);
+        }
+        this.multiPv = multiPv;
+    }
+
+    /**
+     * Sets the selective search techniques to use, from the next search on.
+     *
+     * @param config The configuration, SearchConfig.ALL by default
+     */
+    public void setConfig(SearchConfig config) {
+        this.config = config;
+    }
+
+    public SearchConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Sets the listener that is told about every finished variation.
+     *
+     * @param listener The listener, or null for none
+     */
+    public void setListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    public PawnHashTable getPawnHashTable() {
+        return pawnHashTable;
+    }
+
+    public HistoryTable getHistory() {
+        return history;
+    }
+
+    /**
+     * Sets the neural network to evaluate with, from the next search on.
+     *
+     * @param network The network, or null for the classic evaluation
+     */
+    public void setNetwork(Network network) {
+        accumulator = network == null ? null : new Accumulator(network);
+    }
+}
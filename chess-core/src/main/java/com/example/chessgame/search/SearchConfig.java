@@ -0,0 +1,105 @@
+package com.example.chessgame.search;
+
+import java.util.StringJoiner;
+
+/**
+ * Switches for the search techniques on top of plain alpha-beta, so the effect of each one on
+ * the node count and the playing strength can be measured on its own.
+ * <p>
+ * A configuration is written as a comma separated list of the short names of the enabled
+ * techniques, for example {@code "pvs,nmp,lmr"}: {@code pvs} principal variation search,
+ * {@code asp} aspiration windows, {@code nmp} null move pruning, {@code lmr} late move
+ * reductions, {@code rfp} reverse futility pruning, {@code fp} futility pruning and {@code ext}
+ * check extensions. {@code all} enables everything and {@code none} gives plain alpha-beta,
+ * the baseline node counts are compared with.
+ *
+ * @param principalVariationSearch Search moves after the first with a null window, and again with the full window only if they turn out better
+ * @param aspirationWindows        Start every iteration with a narrow window around the score of the one before
+ * @param nullMovePruning          Skip the side to move's turn; if the position still fails high, cut it off
+ * @param lateMoveReductions       Search late quiet moves with less depth, unless they turn out to be good
+ * @param reverseFutilityPruning   Cut off positions whose static evaluation is far above beta near the horizon
+ * @param futilityPruning          Skip quiet moves near the horizon that cannot bring the evaluation up to alpha
+ * @param checkExtensions          Search positions in check one half move deeper
+ */
+public record SearchConfig(boolean principalVariationSearch, boolean aspirationWindows, boolean nullMovePruning,
+                           boolean lateMoveReductions, boolean reverseFutilityPruning, boolean futilityPruning,
+                           boolean checkExtensions) {
+
+    /**
+     * Every technique enabled, the configuration searches use unless told otherwise
+     */
+    public static final SearchConfig ALL = new SearchConfig(true, true, true, true, true, true, true);
+
+    /**
+     * Every technique disabled: plain alpha-beta with quiescence search
+     */
+    public static final SearchConfig NONE = new SearchConfig(false, false, false, false, false, false, false);
+
+    /**
+     * Parses a configuration from the short names of the enabled techniques.
+     *
+     * @param names Comma separated short names, or "all" or "none"
+     * @return The configuration
+     * @throws IllegalArgumentException if a name is unknown
+     */
+    public static SearchConfig parse(String names) {
+        if (names.equals("all")) {
+            return ALL;
+        }
+        boolean principalVariationSearch = false;
+        boolean aspirationWindows = false;
+        boolean nullMovePruning = false;
+        boolean lateMoveReductions = false;
+        boolean reverseFutilityPruning = false;
+        boolean futilityPruning = false;
+        boolean checkExtensions = false;
+        if (!names.equals("none")) {
+            for (String name : names.split(",")) {
+                switch (name.trim()) {
+                    case "pvs" -> principalVariationSearch = true;
+                    case "asp" -> aspirationWindows = true;
+                    case "nmp" -> nullMovePruning = true;
+                    case "lmr" -> lateMoveReductions = true;
+                    case "rfp" -> reverseFutilityPruning = true;
+                    case "fp" -> futilityPruning = true;
+                    case "ext" -> checkExtensions = true;
+                    default -> throw new IllegalArgumentException("Unknown search technique: " + name);
+                }
+            }
+        }
+        return new SearchConfig(principalVariationSearch, aspirationWindows, nullMovePruning, lateMoveReductions,
+                reverseFutilityPruning, futilityPruning, checkExtensions);
+    }
+
+    /**
+     * Writes the configuration in the form {@link #parse} reads.
+     *
+     * @return The short names of the enabled techniques, or "none"
+     */
+    @Override
+    public String toString() {
+        StringJoiner names = new StringJoiner(",");
+        if (principalVariationSearch) {
+            names.add("pvs");
+        }
+        if (aspirationWindows) {
+            names.add("asp");
+        }
+        if (nullMovePruning) {
+            names.add("nmp");
+        }
+        if (lateMoveReductions) {
+            names.add("lmr");
+        }
+        if (reverseFutilityPruning) {
+            names.add("rfp");
+        }
+        if (futilityPruning) {
+            names.add("fp");
+        }
+        if (checkExtensions) {
+            names.add("ext");
+        }
+        return names.length() == 0 ? "none" : names.toString();
+    }
+}
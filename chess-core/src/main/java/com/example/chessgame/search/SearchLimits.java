@@ -0,0 +1,135 @@
+package com.example.chessgame.search;
+
+/**
+ * Limits of one search: how deep it may go, how long it may take and how many nodes it may visit.
+ * The search stops at whichever limit is reached first.
+ * <p>
+ * A search with a clock also has a soft time limit, after which no new iteration starts. The
+ * {@link TimeManager} stretches or shrinks it while searching; the time limit stays a hard deadline.
+ *
+ * @param maxDepth       The deepest iteration to search, in half moves
+ * @param timeMillis     The time the search may take in milliseconds, or 0 for no time limit
+ * @param maxNodes       The number of nodes the search may visit, or 0 for no node limit
+ * @param softTimeMillis The time after which no new iteration should start in milliseconds, or 0 to search until the time limit
+ */
+public record SearchLimits(int maxDepth, long timeMillis, long maxNodes, long softTimeMillis) {
+
+    /**
+     * Deepest iteration the search supports
+     */
+    public static final int MAX_DEPTH = 64;
+
+    /**
+     * Creates limits, checking that they make sense.
+     *
+     * @throws IllegalArgumentException if the depth is not between 1 and MAX_DEPTH, the time or node limit is negative,
+     *                                  or the soft time limit is negative, without a time limit or beyond it
+     */
+    public SearchLimits {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Search depth must be between 1 and " + MAX_DEPTH + ": " + maxDepth);
+        }
+        if (timeMillis < 0) {
+            throw new IllegalArgumentException("Search time must not be negative: " + timeMillis);
+        }
+        if (maxNodes < 0) {
+            throw new IllegalArgumentException("Node limit must not be negative: " + maxNodes);
+        }
+        if (softTimeMillis < 0 || (softTimeMillis > 0 && (timeMillis == 0 || softTimeMillis > timeMillis))) {
+            throw new IllegalArgumentException("Soft time limit must be between 0 and the time limit " + timeMillis + ": " + softTimeMillis);
+        }
+    }
+
+    /**
+     * Creates limits on depth, time and nodes, without a soft time limit.
+     *
+     * @param maxDepth   The deepest iteration to search
+     * @param timeMillis The time the search may take in milliseconds, or 0 for no time limit
+     * @param maxNodes   The number of nodes the search may visit, or 0 for no node limit
+     */
+    public SearchLimits(int maxDepth, long timeMillis, long maxNodes) {
+        this(maxDepth, timeMillis, maxNodes, 0);
+    }
+
+    /**
+     * Creates limits on depth and time, without a node limit.
+     *
+     * @param maxDepth   The deepest iteration to search
+     * @param timeMillis The time the search may take in milliseconds, or 0 for no time limit
+     */
+    public SearchLimits(int maxDepth, long timeMillis) {
+        this(maxDepth, timeMillis, 0);
+    }
+
+    /**
+     * Creates limits that only restrict the depth.
+     *
+     * @param maxDepth The deepest iteration to search
+     * @return The search limits
+     */
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, 0);
+    }
+
+    /**
+     * Creates limits that only restrict the time.
+     *
+     * @param timeMillis The time the search may take in milliseconds
+     * @return The search limits
+     */
+    public static SearchLimits time(long timeMillis) {
+        return new SearchLimits(MAX_DEPTH, timeMillis);
+    }
+
+    /**
+     * Creates limits that only restrict the number of nodes.
+     *
+     * @param maxNodes The number of nodes the search may visit
+     * @return The search limits
+     */
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(MAX_DEPTH, 0, maxNodes);
+    }
+
+    /**
+     * Creates limits for a move with a clock, with a soft and a hard time limit from the
+     * {@link TimeManager} and the default move overhead.
+     *
+     * @param remainingMillis The time left on the clock
+     * @param incrementMillis The time added after every move
+     * @param movesToGo       The moves left until the next time control, or 0 if unknown
+     * @return The search limits
+     */
+    public static SearchLimits clock(long remainingMillis, long incrementMillis, int movesToGo) {
+        long overhead = TimeManager.DEFAULT_MOVE_OVERHEAD_MILLIS;
+        return new SearchLimits(MAX_DEPTH, TimeManager.hardLimit(remainingMillis, incrementMillis, movesToGo, overhead), 0,
+                TimeManager.softLimit(remainingMillis, incrementMillis, movesToGo, overhead));
+    }
+
+    /**
+     * Checks if the search has a time limit.
+     *
+     * @return true if the search must stop after timeMillis
+     */
+    public boolean hasTimeLimit() {
+        return timeMillis > 0;
+    }
+
+    /**
+     * Checks if the search has a soft time limit.
+     *
+     * @return true if no new iteration should start after softTimeMillis
+     */
+    public boolean hasSoftTimeLimit() {
+        return softTimeMillis > 0;
+    }
+
+    /**
+     * Checks if the search has a node limit.
+     *
+     * @return true if the search must stop after maxNodes nodes
+     */
+    public boolean hasNodeLimit() {
+        return maxNodes > 0;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.chessgame.search;
+
+/**
+ * Receives the progress of a running search, for example to print it as it happens.
+ * <p>
+ * The listener is called on the search thread after every finished principal variation of
+ * every iteration, so it should return quickly.
+ */
+@FunctionalInterface
+public interface SearchListener {
+
+    /**
+     * Called when an iteration has finished one principal variation.
+     *
+     * @param line   The number of the variation, 1 for the best move and up to the MultiPV setting
+     * @param result The variation with its score, the depth of the iteration and the nodes and time so far
+     */
+    void onIteration(int line, SearchResult result);
+}
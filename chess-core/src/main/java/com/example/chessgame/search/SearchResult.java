@@ -0,0 +1,45 @@
+package com.example.chessgame.search;
+
+import com.example.chessgame.bitboard.MoveCode;
+
+import java.util.StringJoiner;
+
+/**
+ * The outcome of a search: the best move, its score and the line of play the search expects.
+ *
+ * @param bestMove   The best move found (see {@link MoveCode}), or NONE if there is no legal move
+ * @param score      The score in centipawns from the side to move's point of view (see {@link Search#MATE})
+ * @param depth      The depth of the last completed iteration
+ * @param pv         The principal variation, starting with the best move
+ * @param nodes      The number of positions visited
+ * @param timeMillis The time the search took in milliseconds
+ */
+public record SearchResult(int bestMove, int score, int depth, int[] pv, long nodes, long timeMillis) {
+
+    /**
+     * Gets the nodes searched per second.
+     *
+     * @return The search speed, or 0 if no time was measured
+     */
+    public long nodesPerSecond() {
+        return timeMillis == 0 ? 0 : nodes * 1000 / timeMillis;
+    }
+
+    /**
+     * Writes the principal variation in coordinate notation, for example "e2e4 e7e5 g1f3".
+     *
+     * @return The moves separated by spaces
+     */
+    public String pvString() {
+        StringJoiner moves = new StringJoiner(" ");
+        for (int move : pv) {
+            moves.add(MoveCode.toUci(move));
+        }
+        return moves.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "depth " + depth + " score " + score + " nodes " + nodes + " time " + timeMillis + " pv " + pvString();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.chessgame.search;
+
+import com.example.chessgame.bitboard.Attacks;
+import com.example.chessgame.bitboard.Bitboard;
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.bitboard.PieceCode;
+
+/**
+ * Static exchange evaluation (SEE): the material won or lost by a capture
+ * once both sides have recaptured on the target square as long as it pays off for them.
+ * <p>
+ * No moves are played. The attackers and defenders of the square come from
+ * {@link BitboardPosition#attackersTo}, and each side recaptures with its least valuable piece.
+ * After every capture the capturing piece is removed from the occupancy, which uncovers sliders
+ * standing behind it (x-rays). Pins are ignored, as usual for SEE.
+ * <p>
+ * An instance reuses its buffer between calls and is not thread safe, so every search thread has its own.
+ */
+public class StaticExchange {
+
+    // Piece values for exchanges in centipawns, indexed by piece type. The king can capture
+    // last, but is worth so much that losing it always ends the exchange.
+    private static final int[] VALUES = {100, 320, 330, 500, 900, 20000};
+
+    // Longest possible sequence of captures on one square
+    private static final int MAX_EXCHANGES = 32;
+
+    // Balance after each capture in the sequence, from the point of view of the side making it
+    private final int[] gain = new int[MAX_EXCHANGES];
+
+    /**
+     * Evaluates the exchange a capture starts.
+     *
+     * @param position The position before the move
+     * @param move     The move, usually a capture or promotion
+     * @return The material the side to move wins (positive) or loses (negative) in centipawns
+     */
+    public int evaluate(BitboardPosition position, int move) {
+        int from = MoveCode.from(move);
+        int to = MoveCode.to(move);
+        gain[0] = 0;
+        long occupancy = position.getOccupancy() ^ Bitboard.bit(from);
+
+        // First capture: the victim's value, and for promotions the value the pawn gains
+        int attackerType = PieceCode.type(position.pieceAt(from));
+        if (MoveCode.flag(move) == MoveCode.EN_PASSANT) {
+            gain[0] = VALUES[PieceCode.PAWN];
+            occupancy ^= Bitboard.bit(Bitboard.square(Bitboard.row(from), Bitboard.col(to)));
+        } else if (position.pieceAt(to) != PieceCode.NO_PIECE) {
+            gain[0] = VALUES[PieceCode.type(position.pieceAt(to))];
+        }
+        if (MoveCode.isPromotion(move)) {
+            attackerType = MoveCode.promotionType(move);
+            gain[0] += VALUES[attackerType] - VALUES[PieceCode.PAWN];
+        }
+
+        long diagonalSliders = position.getPieces(PieceCode.WHITE, PieceCode.BISHOP) | position.getPieces(PieceCode.BLACK, PieceCode.BISHOP)
+                | position.getPieces(PieceCode.WHITE, PieceCode.QUEEN) | position.getPieces(PieceCode.BLACK, PieceCode.QUEEN);
+        long straightSliders = position.getPieces(PieceCode.WHITE, PieceCode.ROOK) | position.getPieces(PieceCode.BLACK, PieceCode.ROOK)
+                | position.getPieces(PieceCode.WHITE, PieceCode.QUEEN) | position.getPieces(PieceCode.BLACK, PieceCode.QUEEN);
+        long attackers = position.attackersTo(to, occupancy) & occupancy;
+        int side = position.getSideToMove() ^ 1;
+        int depth = 0;
+
+        while (depth < MAX_EXCHANGES - 1) {
+            long sideAttackers = attackers & position.getOccupancy(side);
+            if (sideAttackers == 0) {
+                break;
+            }
+            depth++;
+            // The side recaptures the piece that captured last
+            gain[depth] = VALUES[attackerType] - gain[depth - 1];
+            // If the side loses material whether it recaptures or not, it will not start this
+            // recapture. Leaving it out does not change who comes out ahead.
+            if (Math.max(-gain[depth - 1], gain[depth]) < 0) {
+                depth--;
+                break;
+            }
+
+            // Recapture with the least valuable attacker
+            int square = Bitboard.NO_SQUARE;
+            for (int type = PieceCode.PAWN; type <= PieceCode.KING; type++) {
+                long pieces = sideAttackers & position.getPieces(side, type);
+                if (pieces != 0) {
+                    square = Bitboard.firstSquare(pieces);
+                    attackerType = type;
+                    break;
+                }
+            }
+            occupancy ^= Bitboard.bit(square);
+            // Sliders behind the piece that just moved now see the square
+            attackers |= (Attacks.bishopAttacks(to, occupancy) & diagonalSliders) | (Attacks.rookAttacks(to, occupancy) & straightSliders);
+            attackers &= occupancy;
+            side ^= 1;
+        }
+
+        // Each side may stop capturing when that is better, so fold the gains back from the end
+        for (; depth > 0; depth--) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+        }
+        return gain[0];
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.chessgame.search;
+
+import com.example.chessgame.bitboard.MoveCode;
+
+/**
+ * Decides how long a search with a clock thinks about its move.
+ * <p>
+ * Before the search, {@link #softLimit} and {@link #hardLimit} share out the time left on the
+ * clock for sudden death, increment and moves-to-go time controls. The hard limit is a deadline:
+ * the search polls {@link #isHardLimitReached} every few thousand nodes and stops at once, so a
+ * move never takes longer than that. The soft limit is only checked between iterations, by
+ * {@link #stopAfterIteration}: no new iteration starts once it has passed. It is scaled by how the
+ * search is going. A best move that stays the same iteration after iteration is probably right,
+ * so the search stops early, and a score that drops means trouble, so the search gets more time.
+ * <p>
+ * All times are measured with {@link System#nanoTime}, which is monotonic, so a change of the
+ * system clock cannot make a move take too long.
+ */
+public class TimeManager {
+
+    /**
+     * Time kept back from every move for the GUI, the operating system and the network, in milliseconds
+     */
+    public static final long DEFAULT_MOVE_OVERHEAD_MILLIS = 50;
+
+    // Moves assumed left in the game when the time control does not tell
+    private static final int DEFAULT_MOVES_TO_GO = 30;
+
+    // More moves to go than this do not make a move shorter, since games rarely last that long
+    private static final int MAX_MOVES_TO_GO = 50;
+
+    // The hard limit is this many times the soft limit, so an iteration that has started can finish
+    private static final int HARD_LIMIT_FACTOR = 4;
+
+    // Factor of the soft limit by the number of iterations the best move has stayed the same
+    private static final double[] STABILITY_FACTORS = {1.3, 1.0, 0.8, 0.65, 0.55, 0.5};
+
+    // A score drop of this many centipawns or more doubles the soft limit; smaller drops add less
+    private static final int SCORE_DROP_LIMIT = 100;
+
+    private long startNanos;
+    private boolean softLimited;
+    private long softNanos;
+    private boolean hardLimited;
+    private long hardDeadline;
+
+    // The best move and score of the previous iteration, and for how many iterations the move has not changed
+    private int previousBestMove;
+    private int previousScore;
+    private int stableIterations;
+
+    /**
+     * Calculates the time a move should take. Without moves-to-go, the remaining time is shared out
+     * as if a fixed number of moves were left, which makes every move take a little less time than
+     * the one before in sudden death. Most of the increment is added on top.
+     *
+     * @param remainingMillis The time left on the clock
+     * @param incrementMillis The time added after every move
+     * @param movesToGo       The moves left until the next time control, or 0 if unknown
+     * @param overheadMillis  The time kept back for the GUI and the network
+     * @return The soft limit in milliseconds, at least 1
+     */
+    public static long softLimit(long remainingMillis, long incrementMillis, int movesToGo, long overheadMillis) {
+        long available = Math.max(1, remainingMillis - overheadMillis);
+        int moves = movesToGo > 0 ? Math.min(movesToGo, MAX_MOVES_TO_GO) : DEFAULT_MOVES_TO_GO;
+        long soft = available / moves + incrementMillis * 3 / 4;
+        return Math.max(1, Math.min(soft, maximumTime(available, moves)));
+    }
+
+    /**
+     * Calculates the time a move may take at most: a multiple of the soft limit, but never so much
+     * of the clock that the following moves would have to be played in a hurry.
+     *
+     * @param remainingMillis The time left on the clock
+     * @param incrementMillis The time added after every move
+     * @param movesToGo       The moves left until the next time control, or 0 if unknown
+     * @param overheadMillis  The time kept back for the GUI and the network
+     * @return The hard limit in milliseconds, at least 1 and at least the soft limit
+     */
+    public static long hardLimit(long remainingMillis, long incrementMillis, int movesToGo, long overheadMillis) {
+        long available = Math.max(1, remainingMillis - overheadMillis);
+        int moves = movesToGo > 0 ? Math.min(movesToGo, MAX_MOVES_TO_GO) : DEFAULT_MOVES_TO_GO;
+        long soft = softLimit(remainingMillis, incrementMillis, movesToGo, overheadMillis);
+        return Math.max(soft, Math.min(soft * HARD_LIMIT_FACTOR, maximumTime(available, moves)));
+    }
+
+    /**
+     * Calculates the most time one move may take: everything before the time control on the
+     * last move, otherwise half of what is left.
+     *
+     * @param available The time left on the clock after the overhead
+     * @param moves     The moves left until the next time control
+     * @return The most time for the move in milliseconds, at least 1
+     */
+    private static long maximumTime(long available, int moves) {
+        return Math.max(1, moves == 1 ? available : available / 2);
+    }
+
+    /**
+     * Starts timing a search.
+     *
+     * @param limits     The limits of the search; without a soft limit, the time limit is used for both
+     * @param startNanos The time the search started, from System.nanoTime
+     */
+    public void start(SearchLimits limits, long startNanos) {
+        this.startNanos = startNanos;
+        hardLimited = limits.hasTimeLimit();
+        hardDeadline = startNanos + limits.timeMillis() * 1_000_000;
+        softLimited = limits.hasSoftTimeLimit();
+        softNanos = limits.softTimeMillis() * 1_000_000;
+        previousBestMove = MoveCode.NONE;
+        previousScore = 0;
+        stableIterations = 0;
+    }
+
+    /**
+     * Checks if the hard limit has passed. Cheap enough to be polled during the search.
+     *
+     * @return true if the search has to stop now
+     */
+    public boolean isHardLimitReached() {
+        // Compared as a difference, which stays right even if the nanosecond counter overflows
+        return hardLimited && System.nanoTime() - hardDeadline >= 0;
+    }
+
+    /**
+     * Records the result of a finished iteration and decides if another one should start.
+     *
+     * @param bestMove The best move of the iteration
+     * @param score    The score of the iteration
+     * @return true if the soft limit, scaled by the stability of the best move and the score drop, has passed
+     */
+    public boolean stopAfterIteration(int bestMove, int score) {
+        boolean firstIteration = previousBestMove == MoveCode.NONE;
+        stableIterations = bestMove == previousBestMove ? stableIterations + 1 : 0;
+        int scoreDrop = firstIteration ? 0 : Math.min(Math.max(previousScore - score, 0), SCORE_DROP_LIMIT);
+        previousBestMove = bestMove;
+        previousScore = score;
+        if (!softLimited) {
+            return false;
+        }
+        double factor = STABILITY_FACTORS[Math.min(stableIterations, STABILITY_FACTORS.length - 1)]
+                * (1 + (double) scoreDrop / SCORE_DROP_LIMIT);
+        return System.nanoTime() - startNanos >= softNanos * factor;
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.chessgame.search;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size transposition table shared by all search threads, stored off the Java heap.
+ * <p>
+ * The table is divided into buckets of four entries. Each entry is two longs: the position's
+ * Zobrist key XOR-ed with the data, and the data itself (best move, score, depth, bound type and
+ * the search generation packed into one long). Threads read and write entries without locks.
+ * If two threads write the same entry at once, the key and data words can come from different
+ * writes. The key word then no longer XORs back to the probed key, so the torn entry is treated
+ * as a miss instead of being trusted. A hit's move should still be checked for legality, since
+ * two different positions can share a key.
+ * <p>
+ * Replacement is depth-preferred with aging: a new entry goes into an empty slot or the slot of
+ * the same position if there is one, otherwise it replaces the entry with the lowest depth,
+ * where entries from older searches count as shallower.
+ * <p>
+ * The memory is split into direct buffers of at most 1 GiB, so tables larger than the 2 GiB
+ * limit of a single buffer are possible. Direct memory is capped by the JVM (by default at the
+ * maximum heap size), so large tables may need {@code -XX:MaxDirectMemorySize}.
+ */
+public class TranspositionTable {
+
+    // Bound types
+    public static final int NO_BOUND = 0;
+    public static final int UPPER_BOUND = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int EXACT = 3;
+
+    /**
+     * Size used when no size is configured
+     */
+    public static final int DEFAULT_SIZE_MB = 64;
+
+    // A bucket is four entries of two longs, 64 bytes, one cache line on most processors
+    private static final int ENTRIES_PER_BUCKET = 4;
+    private static final int LONGS_PER_BUCKET = ENTRIES_PER_BUCKET * 2;
+    private static final int BUCKET_BYTES = LONGS_PER_BUCKET * Long.BYTES;
+
+    // Each direct buffer holds 2^24 buckets (1 GiB)
+    private static final int SEGMENT_SHIFT = 24;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    // How much an entry's depth counts less for every search generation it is old
+    private static final int AGE_PENALTY = 8;
+
+    // Layout of the data long: move in bits 0-15, score in 16-31, depth in 32-39, bound in 40-41, generation in 42-49
+    private static final int SCORE_SHIFT = 16;
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BOUND_SHIFT = 40;
+    private static final int GENERATION_SHIFT = 42;
+
+    private final LongBuffer[] segments;
+    private final long bucketCount;
+    private final int sizeMb;
+
+    // Advanced once per search so entries from earlier searches can be recognised as old
+    private volatile int generation = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+
+    /**
+     * Creates a transposition table of the default size.
+     */
+    public TranspositionTable() {
+        this(DEFAULT_SIZE_MB);
+    }
+
+    /**
+     * Creates a transposition table.
+     *
+     * @param sizeMb The size of the table in megabytes, at least 1
+     * @throws IllegalArgumentException if the size is smaller than 1 MB
+     */
+    public TranspositionTable(int sizeMb) {
+        if (sizeMb < 1) {
+            throw new IllegalArgumentException("Transposition table size must be at least 1 MB: " + sizeMb);
+        }
+        this.sizeMb = sizeMb;
+        bucketCount = ((long) sizeMb << 20) / BUCKET_BYTES;
+        int segmentCount = (int) ((bucketCount + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        segments = new LongBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long buckets = Math.min(bucketCount - ((long) i << SEGMENT_SHIFT), 1L << SEGMENT_SHIFT);
+            segments[i] = ByteBuffer.allocateDirect((int) (buckets * BUCKET_BYTES)).order(ByteOrder.nativeOrder()).asLongBuffer();
+        }
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key The Zobrist key of the position
+     * @return The packed entry data (read it with the static getters), or 0 if the position is not stored
+     */
+    public long probe(long key) {
+        long bucket = bucketIndex(key);
+        LongBuffer segment = segments[(int) (bucket >>> SEGMENT_SHIFT)];
+        int base = (int) (bucket & SEGMENT_MASK) * LONGS_PER_BUCKET;
+        for (int i = base; i < base + LONGS_PER_BUCKET; i += 2) {
+            long data = segment.get(i + 1);
+            if (data != 0 && (segment.get(i) ^ data) == key) {
+                hits.increment();
+                return data;
+            }
+        }
+        misses.increment();
+        return 0;
+    }
+
+    /**
+     * Stores the result of searching a position.
+     *
+     * @param key   The Zobrist key of the position
+     * @param move  The best move found (see {@link com.example.chessgame.bitboard.MoveCode}), or NONE
+     * @param score The score of the position, must fit in 16 bits
+     * @param depth The depth that was searched (0-255)
+     * @param bound The bound type (UPPER_BOUND, LOWER_BOUND or EXACT)
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        long bucket = bucketIndex(key);
+        LongBuffer segment = segments[(int) (bucket >>> SEGMENT_SHIFT)];
+        int base = (int) (bucket & SEGMENT_MASK) * LONGS_PER_BUCKET;
+        int currentGeneration = generation;
+
+        int replace = base;
+        int replaceValue = Integer.MAX_VALUE;
+        for (int i = base; i < base + LONGS_PER_BUCKET; i += 2) {
+            long data = segment.get(i + 1);
+            if (data == 0) {
+                // An empty slot is used unless the position is found further on
+                if (replaceValue > Integer.MIN_VALUE) {
+                    replace = i;
+                    replaceValue = Integer.MIN_VALUE;
+                }
+                continue;
+            }
+            if ((segment.get(i) ^ data) == key) {
+                // Same position: keep a deeper result from this search unless the new one is exact
+                if (bound != EXACT && depth < depth(data) && generation(data) == currentGeneration) {
+                    return;
+                }
+                // Keep the old best move if this search did not find one
+                if (move == 0) {
+                    move = move(data);
+                }
+                replace = i;
+                replaceValue = Integer.MIN_VALUE;
+                break;
+            }
+            // Otherwise replace the shallowest entry, counting older entries as shallower
+            int age = (currentGeneration - generation(data)) & 0xFF;
+            int value = depth(data) - AGE_PENALTY * age;
+            if (value < replaceValue) {
+                replace = i;
+                replaceValue = value;
+            }
+        }
+        if (replaceValue > Integer.MIN_VALUE) {
+            // Every slot held another position, one of them is overwritten
+            collisions.increment();
+        }
+
+        long data = (move & 0xFFFFL)
+                | ((score & 0xFFFFL) << SCORE_SHIFT)
+                | ((long) (depth & 0xFF) << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) currentGeneration << GENERATION_SHIFT);
+        segment.put(replace, key ^ data);
+        segment.put(replace + 1, data);
+    }
+
+    /**
+     * Starts a new search generation, so entries of earlier searches age and are replaced first.
+     * Called once at the start of every search.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Empties the table and resets the counters.
+     */
+    public void clear() {
+        for (LongBuffer segment : segments) {
+            for (int i = 0; i < segment.capacity(); i++) {
+                segment.put(i, 0L);
+            }
+        }
+        generation = 0;
+        hits.reset();
+        misses.reset();
+        collisions.reset();
+    }
+
+    /**
+     * Estimates how full the table is with entries of the current search, in the UCI "hashfull" format.
+     *
+     * @return The filled share of a sample of the first 1000 entries, in permille
+     */
+    public int hashfull() {
+        LongBuffer segment = segments[0];
+        int sampled = (int) Math.min(1000, bucketCount * ENTRIES_PER_BUCKET);
+        int used = 0;
+        for (int entry = 0; entry < sampled; entry++) {
+            long data = segment.get(entry * 2 + 1);
+            if (data != 0 && generation(data) == generation) {
+                used++;
+            }
+        }
+        return used * 1000 / sampled;
+    }
+
+    /**
+     * Picks the bucket of a key. The high bits of {@code key * bucketCount} spread the keys
+     * evenly over any number of buckets, not only powers of two.
+     *
+     * @param key The Zobrist key
+     * @return The bucket index
+     */
+    private long bucketIndex(long key) {
+        return Math.unsignedMultiplyHigh(key, bucketCount);
+    }
+
+    /**
+     * Gets the best move of an entry.
+     *
+     * @param data The packed entry data returned by probe
+     * @return The packed move, or NONE
+     */
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    /**
+     * Gets the score of an entry.
+     *
+     * @param data The packed entry data returned by probe
+     * @return The stored score
+     */
+    public static int score(long data) {
+        return (short) (data >>> SCORE_SHIFT);
+    }
+
+    /**
+     * Gets the search depth of an entry.
+     *
+     * @param data The packed entry data returned by probe
+     * @return The depth the score was searched to
+     */
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    /**
+     * Gets the bound type of an entry.
+     *
+     * @param data The packed entry data returned by probe
+     * @return UPPER_BOUND, LOWER_BOUND or EXACT
+     */
+    public static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+
+    /**
+     * Gets the search generation an entry was stored in.
+     *
+     * @param data The packed entry data returned by probe
+     * @return The generation (0-255)
+     */
+    private static int generation(long data) {
+        return (int) (data >>> GENERATION_SHIFT) & 0xFF;
+    }
+
+    public int getSizeMb() {
+        return sizeMb;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of stores that had to overwrite an entry of another position.
+     *
+     * @return The number of bucket collisions
+     */
+    public long getCollisions() {
+        return collisions.sum();
+    }
+
+    /**
+     * Gets the share of probes that found their position.
+     *
+     * @return The hit rate between 0 and 1, or 0 before the first probe
+     */
+    public double getHitRate() {
+        long probes = getHits() + getMisses();
+        return probes == 0 ? 0 : (double) getHits() / probes;
+    }
+}
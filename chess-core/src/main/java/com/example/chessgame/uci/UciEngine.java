@@ -0,0 +1,499 @@
+package com.example.chessgame.uci;
+
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.bitboard.MoveGenerator;
+import com.example.chessgame.bitboard.PieceCode;
+import com.example.chessgame.search.LazySmpSearch;
+import com.example.chessgame.search.Search;
+import com.example.chessgame.search.SearchLimits;
+import com.example.chessgame.search.SearchResult;
+import com.example.chessgame.search.TimeManager;
+import com.example.chessgame.search.TranspositionTable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the engine with the Universal Chess Interface (UCI) protocol, so chess GUIs and
+ * tournament managers can play with it.
+ * <p>
+ * Commands are read from standard input on the calling thread and the search runs on its own
+ * thread, so {@code stop}, {@code ponderhit} and {@code isready} are answered while the engine
+ * thinks. Supported commands: {@code uci}, {@code isready}, {@code ucinewgame},
+ * {@code setoption} (Hash, Threads, MultiPV, Ponder, Move Overhead), {@code position startpos|fen ... [moves ...]},
+ * {@code go} (depth, movetime, wtime, btime, winc, binc, movestogo, nodes, infinite, ponder),
+ * {@code stop}, {@code ponderhit} and {@code quit}. Every finished variation of every iteration
+ * is reported in an {@code info} line with depth, score, nodes, nps, hashfull, time and pv.
+ * <p>
+ * Usage: {@code java -cp chess-core/target/classes com.example.chessgame.uci.UciEngine}
+ */
+public class UciEngine {
+
+    private static final String NAME = "ChessGame";
+    private static final String AUTHOR = "the ChessGame authors";
+
+    // Upper bounds of the spin options
+    private static final int MAX_HASH_MB = 65536;
+    private static final int MAX_THREADS = 256;
+    private static final int MAX_MOVE_OVERHEAD_MILLIS = 5000;
+
+    private final BufferedReader input;
+    private final PrintStream output;
+
+    // Options, applied to the search the next time it is created
+    private int hashMb = TranspositionTable.DEFAULT_SIZE_MB;
+    private int threads = 1;
+    private int multiPv = 1;
+
+    // Time kept back from every move for the GUI and the network
+    private long moveOverheadMillis = TimeManager.DEFAULT_MOVE_OVERHEAD_MILLIS;
+
+    // Created on first use, and again after Hash or Threads change
+    private TranspositionTable transpositionTable;
+    private LazySmpSearch search;
+
+    private BitboardPosition position = BitboardPosition.fromFen(BitboardPosition.START_FEN);
+
+    // The thread of the running search, or null
+    private Thread searchThread;
+
+    // While set, a finished search holds back its bestmove until stop or ponderhit (guarded by lock)
+    private final Object lock = new Object();
+    private boolean waitingForStop;
+
+    // Time for the move once the opponent plays the pondered move, 0 if the search has no time limit
+    private long ponderTimeMillis;
+
+    // Stops the search when the time after a ponderhit has run out
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "uci-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledFuture<?> stopTimer;
+
+    /**
+     * Creates an engine that talks UCI over the given streams.
+     *
+     * @param input  The commands from the GUI
+     * @param output The answers to the GUI
+     */
+    public UciEngine(BufferedReader input, PrintStream output) {
+        this.input = input;
+        this.output = output;
+    }
+
+    /**
+     * Runs the engine on standard input and output.
+     *
+     * @param args Not used
+     * @throws IOException if standard input cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        new UciEngine(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)), System.out).run();
+    }
+
+    /**
+     * Reads and executes commands until {@code quit} or the end of the input.
+     *
+     * @throws IOException if the input cannot be read
+     */
+    public void run() throws IOException {
+        try {
+            String line;
+            while ((line = input.readLine()) != null && !line.trim().equals("quit")) {
+                execute(line.trim());
+            }
+        } finally {
+            stopSearch();
+            if (search != null) {
+                search.shutdown();
+            }
+            timer.shutdownNow();
+        }
+    }
+
+    /**
+     * Executes one command. Unknown commands are ignored, as the protocol asks.
+     *
+     * @param command The command line
+     */
+    private void execute(String command) {
+        String[] tokens = command.split("\\s+");
+        switch (tokens[0]) {
+            case "uci" -> identify();
+            case "isready" -> {
+                ensureSearch();
+                send("readyok");
+            }
+            case "ucinewgame" -> {
+                stopSearch();
+                ensureSearch();
+                transpositionTable.clear();
+            }
+            case "setoption" -> setOption(tokens);
+            case "position" -> setPosition(tokens);
+            case "go" -> go(tokens);
+            case "stop" -> stopSearch();
+            case "ponderhit" -> ponderHit();
+            default -> {
+                // Not a command this engine knows
+            }
+        }
+    }
+
+    /**
+     * Answers {@code uci} with the engine's name and options.
+     */
+    private void identify() {
+        send("id name " + NAME);
+        send("id author " + AUTHOR);
+        send("option name Hash type spin default " + TranspositionTable.DEFAULT_SIZE_MB + " min 1 max " + MAX_HASH_MB);
+        send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+        send("option name MultiPV type spin default 1 min 1 max " + MoveGenerator.MAX_MOVES);
+        send("option name Ponder type check default false");
+        send("option name Move Overhead type spin default " + TimeManager.DEFAULT_MOVE_OVERHEAD_MILLIS + " min 0 max " + MAX_MOVE_OVERHEAD_MILLIS);
+        send("uciok");
+    }
+
+    /**
+     * Executes {@code setoption name <name> [value <value>]}.
+     *
+     * @param tokens The command split into words
+     */
+    private void setOption(String[] tokens) {
+        int nameIndex = indexOf(tokens, "name");
+        int valueIndex = indexOf(tokens, "value");
+        if (nameIndex < 0) {
+            return;
+        }
+        int nameEnd = valueIndex < 0 ? tokens.length : valueIndex;
+        String name = String.join(" ", Arrays.copyOfRange(tokens, nameIndex + 1, nameEnd));
+        String value = valueIndex < 0 ? "" : String.join(" ", Arrays.copyOfRange(tokens, valueIndex + 1, tokens.length));
+        try {
+            switch (name.toLowerCase()) {
+                case "hash" -> {
+                    hashMb = parseSpin(value, 1, MAX_HASH_MB);
+                    discardSearch();
+                }
+                case "threads" -> {
+                    threads = parseSpin(value, 1, MAX_THREADS);
+                    discardSearch();
+                }
+                case "multipv" -> {
+                    multiPv = parseSpin(value, 1, MoveGenerator.MAX_MOVES);
+                    if (search != null) {
+                        search.setMultiPv(multiPv);
+                    }
+                }
+                case "ponder" -> {
+                    // The GUI decides when to ponder, the engine needs no preparation
+                }
+                case "move overhead" -> moveOverheadMillis = parseSpin(value, 0, MAX_MOVE_OVERHEAD_MILLIS);
+                default -> send("info string Unknown option: " + name);
+            }
+        } catch (IllegalArgumentException e) {
+            send("info string Invalid value for " + name + ": " + value);
+        }
+    }
+
+    /**
+     * Executes {@code position startpos|fen <fen> [moves <move>...]}.
+     * If the FEN or a move is invalid, the position stays as it was.
+     *
+     * @param tokens The command split into words
+     */
+    private void setPosition(String[] tokens) {
+        if (tokens.length < 2) {
+            return;
+        }
+        int movesIndex = indexOf(tokens, "moves");
+        int fenEnd = movesIndex < 0 ? tokens.length : movesIndex;
+        BitboardPosition newPosition;
+        try {
+            newPosition = switch (tokens[1]) {
+                case "startpos" -> BitboardPosition.fromFen(BitboardPosition.START_FEN);
+                case "fen" -> BitboardPosition.fromFen(String.join(" ", Arrays.copyOfRange(tokens, 2, fenEnd)));
+                default -> throw new IllegalArgumentException("Expected startpos or fen: " + tokens[1]);
+            };
+        } catch (IllegalArgumentException e) {
+            send("info string " + e.getMessage());
+            return;
+        }
+        if (movesIndex >= 0) {
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            MoveGenerator moveGenerator = new MoveGenerator();
+            for (int i = movesIndex + 1; i < tokens.length; i++) {
+                int move = findMove(newPosition, tokens[i], moveGenerator, moves);
+                if (move == MoveCode.NONE) {
+                    send("info string Illegal move: " + tokens[i]);
+                    return;
+                }
+                newPosition.makeMove(move);
+            }
+        }
+        position = newPosition;
+    }
+
+    /**
+     * Executes {@code go} and starts the search on its own thread.
+     *
+     * @param tokens The command split into words
+     */
+    private void go(String[] tokens) {
+        int depth = SearchLimits.MAX_DEPTH;
+        long moveTime = 0;
+        long nodes = 0;
+        long[] time = {-1, -1};
+        long[] increment = {0, 0};
+        int movesToGo = 0;
+        boolean infinite = false;
+        boolean ponder = false;
+        try {
+            for (int i = 1; i < tokens.length; i++) {
+                switch (tokens[i]) {
+                    case "depth" -> depth = Integer.parseInt(tokens[++i]);
+                    case "movetime" -> moveTime = Long.parseLong(tokens[++i]);
+                    case "nodes" -> nodes = Long.parseLong(tokens[++i]);
+                    case "wtime" -> time[PieceCode.WHITE] = Long.parseLong(tokens[++i]);
+                    case "btime" -> time[PieceCode.BLACK] = Long.parseLong(tokens[++i]);
+                    case "winc" -> increment[PieceCode.WHITE] = Long.parseLong(tokens[++i]);
+                    case "binc" -> increment[PieceCode.BLACK] = Long.parseLong(tokens[++i]);
+                    case "movestogo" -> movesToGo = Integer.parseInt(tokens[++i]);
+                    case "infinite" -> infinite = true;
+                    case "ponder" -> ponder = true;
+                    default -> {
+                        // searchmoves and mate are not supported, their arguments are skipped as unknown words
+                    }
+                }
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            send("info string Invalid go command: " + String.join(" ", tokens));
+            return;
+        }
+
+        // A fixed move time is a hard limit only; a clock gets a soft limit the search can stretch or cut short
+        int us = position.getSideToMove();
+        long hardMillis = 0;
+        long softMillis = 0;
+        if (moveTime > 0) {
+            hardMillis = moveTime;
+        } else if (time[us] >= 0) {
+            hardMillis = TimeManager.hardLimit(time[us], increment[us], movesToGo, moveOverheadMillis);
+            softMillis = TimeManager.softLimit(time[us], increment[us], movesToGo, moveOverheadMillis);
+        }
+        int maxDepth = Math.min(Math.max(depth, 1), SearchLimits.MAX_DEPTH);
+        // Pondering and infinite searches have no time limit until ponderhit or stop
+        boolean untimed = infinite || ponder;
+        SearchLimits limits = untimed ? new SearchLimits(maxDepth, 0, Math.max(nodes, 0))
+                : new SearchLimits(maxDepth, hardMillis, Math.max(nodes, 0), softMillis);
+        // After a ponderhit, the search has already had time to think, so it only gets the soft limit
+        startSearch(limits, untimed, ponder ? (softMillis > 0 ? softMillis : hardMillis) : 0);
+    }
+
+    /**
+     * Starts a search of the current position on a new thread. The thread sends the bestmove.
+     *
+     * @param limits          The limits of the search
+     * @param waitForStop     Whether the bestmove waits for stop or ponderhit, as UCI asks of
+     *                        infinite and ponder searches
+     * @param ponderTimeMillis The time to search after a ponderhit, or 0 for no time limit
+     */
+    private void startSearch(SearchLimits limits, boolean waitForStop, long ponderTimeMillis) {
+        stopSearch();
+        ensureSearch();
+        LazySmpSearch runningSearch = search;
+        // Cleared here, not by the search thread, so a stop that comes before the thread runs is kept
+        runningSearch.clearStop();
+        BitboardPosition root = new BitboardPosition(position);
+        this.ponderTimeMillis = ponderTimeMillis;
+        synchronized (lock) {
+            waitingForStop = waitForStop;
+        }
+        searchThread = new Thread(() -> {
+            SearchResult result = runningSearch.search(root, limits);
+            synchronized (lock) {
+                while (waitingForStop) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+            int[] pv = result.pv();
+            send("bestmove " + MoveCode.toUci(result.bestMove()) + (pv.length > 1 ? " ponder " + MoveCode.toUci(pv[1]) : ""));
+        }, "uci-search");
+        searchThread.start();
+    }
+
+    /**
+     * Executes {@code ponderhit}: the opponent played the expected move, so the pondering search
+     * becomes a normal one, with the time of the move counted from now.
+     */
+    private void ponderHit() {
+        if (searchThread == null) {
+            return;
+        }
+        synchronized (lock) {
+            waitingForStop = false;
+            lock.notifyAll();
+        }
+        if (ponderTimeMillis > 0) {
+            stopTimer = timer.schedule(search::stop, ponderTimeMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops the running search, if any, and waits until it has sent its bestmove.
+     */
+    private void stopSearch() {
+        if (stopTimer != null) {
+            stopTimer.cancel(false);
+            stopTimer = null;
+        }
+        if (searchThread == null) {
+            return;
+        }
+        synchronized (lock) {
+            waitingForStop = false;
+            lock.notifyAll();
+        }
+        search.stop();
+        try {
+            searchThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searchThread = null;
+    }
+
+    /**
+     * Creates the transposition table and the search with the current options, if needed.
+     */
+    private void ensureSearch() {
+        if (search != null) {
+            return;
+        }
+        if (transpositionTable == null || transpositionTable.getSizeMb() != hashMb) {
+            transpositionTable = new TranspositionTable(hashMb);
+        }
+        search = new LazySmpSearch(threads, transpositionTable);
+        search.setMultiPv(multiPv);
+        search.setListener(this::sendInfo);
+    }
+
+    /**
+     * Drops the search after an option change, so the next command creates it with the new options.
+     */
+    private void discardSearch() {
+        stopSearch();
+        if (search != null) {
+            search.shutdown();
+            search = null;
+        }
+    }
+
+    /**
+     * Sends the info line of a finished variation.
+     *
+     * @param line   The number of the variation
+     * @param result The variation
+     */
+    private void sendInfo(int line, SearchResult result) {
+        send("info depth " + result.depth() + " multipv " + line + " score " + formatScore(result.score())
+                + " nodes " + result.nodes() + " nps " + result.nodesPerSecond() + " hashfull " + transpositionTable.hashfull()
+                + " time " + result.timeMillis() + " pv " + result.pvString());
+    }
+
+    /**
+     * Writes a score the UCI way: centipawns, or moves until mate.
+     *
+     * @param score The score from the side to move's point of view
+     * @return "cp n", or "mate n" with a negative n if the side to move gets mated
+     */
+    private static String formatScore(int score) {
+        if (score >= Search.MATE_BOUND) {
+            return "mate " + (Search.MATE - score + 1) / 2;
+        }
+        if (score <= -Search.MATE_BOUND) {
+            return "mate " + -(Search.MATE + score) / 2;
+        }
+        return "cp " + score;
+    }
+
+    /**
+     * Finds the legal move written in coordinate notation.
+     *
+     * @param position      The position the move is played in
+     * @param uci           The move, for example "e2e4" or "e7e8q"
+     * @param moveGenerator The move generator
+     * @param moves         A move buffer
+     * @return The packed move, or NONE if no legal move matches
+     */
+    private static int findMove(BitboardPosition position, String uci, MoveGenerator moveGenerator, int[] moves) {
+        int count = moveGenerator.generateMoves(position, moves);
+        for (int i = 0; i < count; i++) {
+            if (MoveCode.toUci(moves[i]).equals(uci)) {
+                return moves[i];
+            }
+        }
+        return MoveCode.NONE;
+    }
+
+    /**
+     * Parses the value of a spin option.
+     *
+     * @param value The value
+     * @param min   The smallest allowed value
+     * @param max   The largest allowed value
+     * @return The value
+     * @throws IllegalArgumentException if the value is not a number in range
+     */
+    private static int parseSpin(String value, int min, int max) {
+        int number = Integer.parseInt(value);
+        if (number < min || number > max) {
+            throw new IllegalArgumentException("Out of range: " + number);
+        }
+        return number;
+    }
+
+    /**
+     * Finds a keyword in a command.
+     *
+     * @param tokens  The command split into words
+     * @param keyword The keyword
+     * @return The index of the keyword, or -1 if it is missing
+     */
+    private static int indexOf(String[] tokens, String keyword) {
+        for (int i = 0; i < tokens.length; i++) {
+            if (tokens[i].equals(keyword)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Sends one line to the GUI. Lines come from both the input and the search thread, so they
+     * are written whole and flushed at once.
+     *
+     * @param line The line to send
+     */
+    private void send(String line) {
+        synchronized (output) {
+            output.println(line);
+            output.flush();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.chessgame;
+
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.LegalMoveFilter;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.bitboard.MoveGenerator;
+import com.example.chessgame.data.ChessBoardData;
+import com.example.chessgame.eval.Evaluator;
+import com.example.chessgame.eval.PawnHashTable;
+import com.example.chessgame.eval.nnue.Accumulator;
+import com.example.chessgame.eval.nnue.Network;
+import com.example.chessgame.perft.Perft;
+import com.example.chessgame.search.StaticExchange;
+import com.sun.management.HotSpotDiagnosticMXBean;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks that the hot path of the engine does not allocate.
+ * <p>
+ * Move generation, make/unmake, legality checks and evaluation run at every node of a search, so
+ * an allocation there turns into garbage collection pauses in long searches. Every test walks the
+ * move trees of a few positions and reads the bytes the thread allocated from the JVM. The walks
+ * run several times first, so the JIT has compiled them and removed allocations it can prove do
+ * not escape, as it does in a real search. A test passes if the steady state allocates zero bytes.
+ * <p>
+ * The network evaluation is the exception that depends on the JIT: its Vector API kernels only
+ * stop allocating vector objects once C2 has compiled them to vector instructions. Its test is
+ * skipped when the network runs on scalar kernels, or when C2 is switched off, for example with
+ * {@code -XX:TieredStopAtLevel=1}.
+ * <p>
+ * HotPathBenchmark in the benchmarks module measures the same operations with JMH, where
+ * {@code -prof gc} reports their bytes per call as {@code gc.alloc.rate.norm}.
+ */
+class AllocationTest {
+
+    // Positions with castling, en passant, checks and promotions
+    private static final String[] POSITIONS = {
+            BitboardPosition.START_FEN,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8"
+    };
+
+    // Depth of the move trees that are walked
+    private static final int DEPTH = 3;
+
+    // Walks before measuring, so the JIT has compiled the hot path
+    private static final int WARMUP_ROUNDS = 10;
+
+    // Walks that are measured
+    private static final int MEASURED_ROUNDS = 3;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void moveGenerationAndMakeUnmakeDoNotAllocate() {
+        assertNoAllocation("move generation, make/unmake", null, (position, buffer, count) -> {
+        });
+    }
+
+    @Test
+    void legalityCheckDoesNotAllocate() {
+        assertNoAllocation("legality check", null, (position, buffer, count) -> {
+            for (int i = 0; i < count; i++) {
+                int to = MoveCode.to(buffer[i]);
+                position.isKingSafeAfterMove(MoveCode.from(buffer[i]), to, to);
+            }
+        });
+    }
+
+    @Test
+    void gameEndDetectionDoesNotAllocate() {
+        LegalMoveFilter legalMoveFilter = new LegalMoveFilter();
+        assertNoAllocation("game end detection", null, (position, buffer, count) -> {
+            legalMoveFilter.update(position);
+            legalMoveFilter.hasLegalMove();
+        });
+    }
+
+    @Test
+    void capturesAndExchangeDoNotAllocate() {
+        MoveGenerator moveGenerator = new MoveGenerator();
+        StaticExchange staticExchange = new StaticExchange();
+        assertNoAllocation("captures, exchange", null, (position, buffer, count) -> {
+            // The tree walk is done with this node's buffer, so it can be reused
+            int captures = moveGenerator.generateCaptures(position, buffer);
+            for (int i = 0; i < captures; i++) {
+                staticExchange.evaluate(position, buffer[i]);
+            }
+        });
+    }
+
+    @Test
+    void evaluationDoesNotAllocate() {
+        PawnHashTable pawnHashTable = new PawnHashTable();
+        assertNoAllocation("evaluation", null, (position, buffer, count) -> Evaluator.evaluate(position, pawnHashTable));
+    }
+
+    @Test
+    void networkEvaluationDoesNotAllocate() {
+        // The accumulator is updated incrementally by make/unmake and read at every node
+        Accumulator accumulator = new Accumulator(Network.fromPieceSquareTables());
+        assumeTrue(accumulator.getKernelName().startsWith("vector"), "The network runs on scalar kernels");
+        assumeTrue(hasOptimizingCompiler(), "C2 is not available to compile the vector kernels");
+        assertNoAllocation("network evaluation", accumulator, (position, buffer, count) -> accumulator.evaluate(position.getSideToMove()));
+    }
+
+    /**
+     * Checks move generation through the piece API and make/unmake on a {@link ChessBoardData},
+     * as the game and the default perft mode use them.
+     */
+    @Test
+    void pieceMovesAndMakeUnmakeDoNotAllocate() {
+        int[][] moves = new int[DEPTH + 1][MoveGenerator.MAX_MOVES];
+        ChessBoardData[] boards = new ChessBoardData[POSITIONS.length];
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = new ChessBoardData(POSITIONS[i]);
+        }
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (ChessBoardData board : boards) {
+                walk(board, DEPTH, moves);
+            }
+        }
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            for (ChessBoardData board : boards) {
+                walk(board, DEPTH, moves);
+            }
+        }
+        assertEquals(0, THREADS.getCurrentThreadAllocatedBytes() - before, "Bytes allocated by piece moves, make/unmake");
+    }
+
+    /**
+     * Checks if the JVM compiles hot code with C2, the compiler that turns Vector API calls into
+     * vector instructions. It does not in interpreted mode, or when tiered compilation stops
+     * at a lower level.
+     *
+     * @return true if C2 is available
+     */
+    private static boolean hasOptimizingCompiler() {
+        if (System.getProperty("java.vm.info", "").contains("interpreted")) {
+            return false;
+        }
+        HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+        boolean tiered = Boolean.parseBoolean(hotSpot.getVMOption("TieredCompilation").getValue());
+        return !tiered || Integer.parseInt(hotSpot.getVMOption("TieredStopAtLevel").getValue()) >= 4;
+    }
+
+    /**
+     * Walks the move trees with the core move generator, calls an operation at every node and
+     * fails if the measured walks allocate. Move generation and make/unmake are part of every walk.
+     *
+     * @param name        The name of the checked operation, for the failure message
+     * @param accumulator The accumulator to attach to the positions, or null
+     * @param operation   The operation to check
+     */
+    private static void assertNoAllocation(String name, Accumulator accumulator, NodeOperation operation) {
+        MoveGenerator moveGenerator = new MoveGenerator();
+        int[][] moves = new int[DEPTH + 1][MoveGenerator.MAX_MOVES];
+        BitboardPosition[] positions = new BitboardPosition[POSITIONS.length];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = BitboardPosition.fromFen(POSITIONS[i]);
+            positions[i].setAccumulator(accumulator);
+        }
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (BitboardPosition position : positions) {
+                walk(position, DEPTH, moveGenerator, moves, operation);
+            }
+        }
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            for (BitboardPosition position : positions) {
+                walk(position, DEPTH, moveGenerator, moves, operation);
+            }
+        }
+        assertEquals(0, THREADS.getCurrentThreadAllocatedBytes() - before, "Bytes allocated by " + name);
+    }
+
+    /**
+     * Walks a move tree with the core move generator, calling an operation at every node.
+     *
+     * @param position      The position, restored when done
+     * @param depth         The remaining depth
+     * @param moveGenerator The move generator
+     * @param moves         One move buffer per remaining depth
+     * @param operation     The operation to call
+     */
+    private static void walk(BitboardPosition position, int depth, MoveGenerator moveGenerator, int[][] moves, NodeOperation operation) {
+        int[] buffer = moves[depth];
+        int count = moveGenerator.generateMoves(position, buffer);
+        if (depth > 0) {
+            for (int i = 0; i < count; i++) {
+                position.makeMove(buffer[i]);
+                walk(position, depth - 1, moveGenerator, moves, operation);
+                position.unmakeMove(buffer[i]);
+            }
+        }
+        operation.apply(position, buffer, count);
+    }
+
+    /**
+     * Walks a move tree through the piece API.
+     *
+     * @param chessBoardData The position, restored when done
+     * @param depth          The remaining depth
+     * @param moves          One move buffer per remaining depth
+     */
+    private static void walk(ChessBoardData chessBoardData, int depth, int[][] moves) {
+        int[] buffer = moves[depth];
+        int count = Perft.legalMoves(chessBoardData, buffer);
+        if (depth > 0) {
+            for (int i = 0; i < count; i++) {
+                chessBoardData.makeMove(buffer[i]);
+                walk(chessBoardData, depth - 1, moves);
+                chessBoardData.unmakeMove(buffer[i]);
+            }
+        }
+    }
+
+    /**
+     * An operation called at every node of a move tree.
+     */
+    @FunctionalInterface
+    private interface NodeOperation {
+
+        /**
+         * Runs the operation on a node.
+         *
+         * @param position The position at the node
+         * @param moves    The legal moves of the position; may be overwritten, the walk is done with them
+         * @param count    The number of legal moves
+         */
+        void apply(BitboardPosition position, int[] moves, int count);
+    }
+}
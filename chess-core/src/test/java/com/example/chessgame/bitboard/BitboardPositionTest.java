@@ -0,0 +1,172 @@
+package com.example.chessgame.bitboard;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that make/unmake keeps the incrementally updated keys of a {@link BitboardPosition}
+ * equal to keys computed from scratch, and restores the position exactly, that a position
+ * read from a FEN gets the same key as when it is reached by moves, and that the draw rules
+ * are recognised.
+ */
+class BitboardPositionTest {
+
+    // Positions with castling, en passant, checks and promotions
+    private static final String[] POSITIONS = {
+            BitboardPosition.START_FEN,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8"
+    };
+
+    // Depth of the move trees that are walked
+    private static final int DEPTH = 3;
+
+    @Test
+    void makeUnmakeKeepsKeysInStep() {
+        MoveGenerator moveGenerator = new MoveGenerator();
+        int[][] moves = new int[DEPTH + 1][MoveGenerator.MAX_MOVES];
+        for (String fen : POSITIONS) {
+            BitboardPosition position = BitboardPosition.fromFen(fen);
+            assertKeys(position);
+            walk(position, DEPTH, moveGenerator, moves);
+            assertEquals(fen, position.toFen());
+        }
+    }
+
+    @Test
+    void nullMoveKeepsKeysInStep() {
+        for (String fen : POSITIONS) {
+            BitboardPosition position = BitboardPosition.fromFen(fen);
+            long zobristKey = position.getZobristKey();
+            position.makeNullMove();
+            assertKeys(position);
+            position.unmakeNullMove();
+            assertEquals(zobristKey, position.getZobristKey());
+            assertEquals(fen, position.toFen());
+        }
+    }
+
+    @Test
+    void fenDropsEnPassantSquareNoPawnCanUse() {
+        // After 1. e4 no black pawn can take on e3
+        BitboardPosition dead = BitboardPosition.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+        BitboardPosition none = BitboardPosition.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1");
+        assertEquals(Bitboard.NO_SQUARE, dead.getEnPassantSquare());
+        assertEquals(none.getZobristKey(), dead.getZobristKey());
+
+        // With a black pawn on d4 the capture is possible, so the square stays
+        BitboardPosition live = BitboardPosition.fromFen("rnbqkbnr/ppp1pppp/8/8/3pP3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+        assertEquals(Bitboard.parseSquare("e3"), live.getEnPassantSquare());
+    }
+
+    @Test
+    void repetitionOfFenPositionWithDeadEnPassantSquareIsFound() {
+        BitboardPosition position = BitboardPosition.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+        String[] knightDance = {"g8f6", "g1f3", "f6g8", "f3g1"};
+        for (String move : knightDance) {
+            play(position, move);
+        }
+        assertEquals(1, position.repetitionCount());
+        assertFalse(position.isThreefoldRepetition());
+        for (String move : knightDance) {
+            play(position, move);
+        }
+        assertTrue(position.isThreefoldRepetition());
+    }
+
+    @Test
+    void fiftyMoveRuleCountsHalfMovesSincePawnMoveOrCapture() {
+        BitboardPosition position = BitboardPosition.fromFen("4k3/8/8/8/8/8/8/R3K3 w - - 99 80");
+        assertFalse(position.isFiftyMoveRule());
+        play(position, "a1a2");
+        assertEquals(100, position.getHalfmoveClock());
+        assertTrue(position.isFiftyMoveRule());
+        assertTrue(BitboardPosition.fromFen("4k3/8/8/8/8/8/8/R3K3 w - - 100 80").isFiftyMoveRule());
+
+        // A capture on the last move starts the count again
+        BitboardPosition capture = BitboardPosition.fromFen("4k3/8/8/8/8/8/r7/R3K3 w - - 99 80");
+        play(capture, "a1a2");
+        assertEquals(0, capture.getHalfmoveClock());
+        assertFalse(capture.isFiftyMoveRule());
+    }
+
+    @Test
+    void insufficientMaterialIsFound() {
+        assertTrue(BitboardPosition.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1").hasInsufficientMaterial(), "KvK");
+        assertTrue(BitboardPosition.fromFen("4k3/8/8/8/8/8/8/1N2K3 w - - 0 1").hasInsufficientMaterial(), "KNvK");
+        assertTrue(BitboardPosition.fromFen("4k3/8/8/8/8/8/8/2B1K3 w - - 0 1").hasInsufficientMaterial(), "KBvK");
+        // Bishops on c1 and f8 both stand on dark squares, on c1 and c8 on different colors
+        assertTrue(BitboardPosition.fromFen("4kb2/8/8/8/8/8/8/2B1K3 w - - 0 1").hasInsufficientMaterial(), "KBvKB, same colors");
+        assertFalse(BitboardPosition.fromFen("2b1k3/8/8/8/8/8/8/2B1K3 w - - 0 1").hasInsufficientMaterial(), "KBvKB, opposite colors");
+        assertFalse(BitboardPosition.fromFen("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1").hasInsufficientMaterial(), "KPvK");
+        assertFalse(BitboardPosition.fromFen("4k3/8/8/8/8/8/8/1NN1K3 w - - 0 1").hasInsufficientMaterial(), "KNNvK");
+    }
+
+    /**
+     * Plays a legal move given in coordinate notation.
+     *
+     * @param position The position to play the move in
+     * @param uci      The move, for example "g1f3"
+     */
+    private static void play(BitboardPosition position, String uci) {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = new MoveGenerator().generateMoves(position, moves);
+        for (int i = 0; i < count; i++) {
+            if (MoveCode.toUci(moves[i]).equals(uci)) {
+                position.makeMove(moves[i]);
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Not a legal move: " + uci);
+    }
+
+    /**
+     * Plays every move of a move tree, checking the keys after every make and unmake.
+     *
+     * @param position      The position, restored when done
+     * @param depth         The remaining depth
+     * @param moveGenerator The move generator
+     * @param moves         One move buffer per remaining depth
+     */
+    private static void walk(BitboardPosition position, int depth, MoveGenerator moveGenerator, int[][] moves) {
+        if (depth == 0) {
+            return;
+        }
+        int[] buffer = moves[depth];
+        int count = moveGenerator.generateMoves(position, buffer);
+        for (int i = 0; i < count; i++) {
+            long zobristKey = position.getZobristKey();
+            long pawnKey = position.getPawnKey();
+            long materialKey = position.getMaterialKey();
+            String fen = position.toFen();
+
+            position.makeMove(buffer[i]);
+            assertKeys(position);
+            walk(position, depth - 1, moveGenerator, moves);
+            position.unmakeMove(buffer[i]);
+
+            String move = MoveCode.toUci(buffer[i]) + " in " + fen;
+            assertEquals(zobristKey, position.getZobristKey(), "Zobrist key after unmaking " + move);
+            assertEquals(pawnKey, position.getPawnKey(), "Pawn key after unmaking " + move);
+            assertEquals(materialKey, position.getMaterialKey(), "Material key after unmaking " + move);
+            assertEquals(fen, position.toFen(), "Position after unmaking " + move);
+        }
+    }
+
+    /**
+     * Checks the incremental keys of a position against keys computed from scratch.
+     *
+     * @param position The position
+     */
+    private static void assertKeys(BitboardPosition position) {
+        String fen = position.toFen();
+        assertEquals(position.computeZobristKey(), position.getZobristKey(), "Zobrist key of " + fen);
+        assertEquals(position.computePawnKey(), position.getPawnKey(), "Pawn key of " + fen);
+        assertEquals(position.computeMaterialKey(), position.getMaterialKey(), "Material key of " + fen);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.chessgame.eval;
+
+import com.example.chessgame.bitboard.Bitboard;
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.bitboard.MoveGenerator;
+import com.example.chessgame.bitboard.PieceCode;
+import com.example.chessgame.data.ChessBoardData;
+import com.example.chessgame.data.Move;
+import com.example.chessgame.pieces.Pawn;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the middlegame, endgame and phase sums a {@link BitboardPosition} keeps up to date
+ * for the {@link Evaluator} equal sums computed from scratch, after every make and unmake of a
+ * move tree and after a pawn is promoted through the piece grid.
+ */
+class EvaluatorTest {
+
+    // Positions with castling, en passant, captures and promotions of both colors
+    private static final String[] POSITIONS = {
+            BitboardPosition.START_FEN,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1"
+    };
+
+    // Depth of the move trees that are walked
+    private static final int DEPTH = 3;
+
+    @Test
+    void makeUnmakeKeepsSumsInStep() {
+        MoveGenerator moveGenerator = new MoveGenerator();
+        int[][] moves = new int[DEPTH + 1][MoveGenerator.MAX_MOVES];
+        for (String fen : POSITIONS) {
+            BitboardPosition position = BitboardPosition.fromFen(fen);
+            assertSums(position);
+            walk(position, DEPTH, moveGenerator, moves);
+            assertEquals(fen, position.toFen());
+        }
+    }
+
+    @Test
+    void promotePieceKeepsSumsInStep() {
+        // A white push, a white capture and a black push onto the last row, each promoted to every piece
+        String[] fens = {
+                "4k3/1P6/8/8/8/8/8/4K3 w - - 0 1",
+                "r1n1k3/1P6/8/8/8/8/8/4K3 w - - 0 1",
+                "4k3/8/8/8/8/8/6p1/4K3 b - - 0 1"
+        };
+        int[][] pawnMoves = {{1, 1, 0, 1}, {1, 1, 0, 2}, {6, 6, 7, 6}};
+        Move[] specialMoves = {Move.PROMOTE, Move.PROMOTE_TAKING, Move.PROMOTE};
+        for (int i = 0; i < fens.length; i++) {
+            for (char letter : new char[]{'q', 'r', 'b', 'n'}) {
+                ChessBoardData chessBoardData = new ChessBoardData(fens[i]);
+                int[] pawnMove = pawnMoves[i];
+                Pawn pawn = (Pawn) chessBoardData.getChessBoard()[pawnMove[0]][pawnMove[1]];
+                pawn.applyMove(pawnMove[2], pawnMove[3], chessBoardData, specialMoves[i]);
+                assertSums(chessBoardData.getPosition());
+
+                pawn.promotePiece(chessBoardData, "" + pawn.getColor() + letter);
+                BitboardPosition position = chessBoardData.getPosition();
+                int square = Bitboard.square(pawnMove[2], pawnMove[3]);
+                assertEquals(PieceCode.type(PieceCode.fromFenChar(letter)), PieceCode.type(position.pieceAt(square)));
+                assertSums(position);
+            }
+        }
+    }
+
+    /**
+     * Plays every move of a move tree, checking the sums after every make and unmake.
+     *
+     * @param position      The position, restored when done
+     * @param depth         The remaining depth
+     * @param moveGenerator The move generator
+     * @param moves         One move buffer per remaining depth
+     */
+    private static void walk(BitboardPosition position, int depth, MoveGenerator moveGenerator, int[][] moves) {
+        if (depth == 0) {
+            return;
+        }
+        int[] buffer = moves[depth];
+        int count = moveGenerator.generateMoves(position, buffer);
+        for (int i = 0; i < count; i++) {
+            String fen = position.toFen();
+
+            position.makeMove(buffer[i]);
+            assertSums(position);
+            walk(position, depth - 1, moveGenerator, moves);
+            position.unmakeMove(buffer[i]);
+
+            assertSums(position);
+            assertEquals(fen, position.toFen(), "Position after unmaking " + MoveCode.toUci(buffer[i]) + " in " + fen);
+        }
+    }
+
+    /**
+     * Checks the incremental sums of a position, and the evaluation built on them, against ones
+     * computed from scratch.
+     *
+     * @param position The position
+     */
+    private static void assertSums(BitboardPosition position) {
+        int midgame = 0;
+        int endgame = 0;
+        int phase = 0;
+        for (int square = 0; square < 64; square++) {
+            int piece = position.pieceAt(square);
+            if (piece != PieceCode.NO_PIECE) {
+                midgame += PieceSquareTables.midgame(piece, square);
+                endgame += PieceSquareTables.endgame(piece, square);
+                phase += PieceSquareTables.phase(piece);
+            }
+        }
+        String fen = position.toFen();
+        assertEquals(midgame, position.getMidgameScore(), "Middlegame sum of " + fen);
+        assertEquals(endgame, position.getEndgameScore(), "Endgame sum of " + fen);
+        assertEquals(phase, position.getPhase(), "Phase of " + fen);
+        assertEquals(Evaluator.evaluateFromScratch(position), Evaluator.evaluate(position), "Evaluation of " + fen);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.chessgame.eval;
+
+import com.example.chessgame.bitboard.Bitboard;
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.bitboard.MoveGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the {@link PawnStructure} scores of positions with one known weakness or strength, and
+ * that a {@link PawnHashTable} returns the same scores as a fresh evaluation and counts its hits.
+ * <p>
+ * Apart from the shelter test, the white king stands on the eighth row and the black king on
+ * the first, so no pawn shelters a king and only the pawn structure is scored.
+ */
+class PawnStructureTest {
+
+    @Test
+    void doubledPawn() {
+        // b2 and b3; every other pawn is supported, and none is passed
+        assertPawnScore("K7/ppp5/8/8/8/1P6/PP6/7k w - - 0 1", -10, -20);
+    }
+
+    @Test
+    void isolatedPawn() {
+        // d4 has no pawn on the c or e file; the black pawns stop it and it stops them
+        assertPawnScore("K7/2pp4/8/8/3P4/8/8/7k w - - 0 1", -10, -15);
+    }
+
+    @Test
+    void backwardPawn() {
+        // d2 has no neighbour level or behind, and c4 guards d3
+        assertPawnScore("K7/8/8/3p4/2p1P3/8/3P4/7k w - - 0 1", -8, -10);
+    }
+
+    @Test
+    void passedPawns() {
+        // e6 has advanced five rows, d5 four, and no enemy pawn stands in front of them
+        assertPawnScore("K7/8/4P3/3P4/8/8/8/7k w - - 0 1", 40 + 25, 70 + 45);
+        assertPawnScore("K7/8/8/8/3p4/4p3/8/7k w - - 0 1", -(40 + 25), -(70 + 45));
+    }
+
+    @Test
+    void kingShelter() {
+        // f2, g2 and h3 stand one and two rows in front of the king on g1, but far from the king on b1
+        long sheltered = PawnStructure.evaluate(BitboardPosition.fromFen("k7/8/8/8/8/7P/5PP1/6K1 w - - 0 1"));
+        long exposed = PawnStructure.evaluate(BitboardPosition.fromFen("k7/8/8/8/8/7P/5PP1/1K6 w - - 0 1"));
+        assertEquals(2 * 12 + 6, PawnStructure.midgame(sheltered) - PawnStructure.midgame(exposed));
+        assertEquals(0, PawnStructure.endgame(sheltered) - PawnStructure.endgame(exposed));
+    }
+
+    @Test
+    void cachedScoreEqualsFreshScore() {
+        PawnHashTable pawnHashTable = new PawnHashTable(1);
+        int[][] moves = new int[3][MoveGenerator.MAX_MOVES];
+        MoveGenerator moveGenerator = new MoveGenerator();
+        for (String fen : new String[] {BitboardPosition.START_FEN, "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"}) {
+            walk(BitboardPosition.fromFen(fen), 2, pawnHashTable, moveGenerator, moves);
+        }
+    }
+
+    @Test
+    void hitsAndMissesAreCounted() {
+        PawnHashTable pawnHashTable = new PawnHashTable(64);
+        BitboardPosition position = BitboardPosition.fromFen(BitboardPosition.START_FEN);
+        pawnHashTable.probe(position);
+        assertCounts(pawnHashTable, 0, 1);
+        pawnHashTable.probe(position);
+        assertCounts(pawnHashTable, 1, 1);
+
+        // A knight move keeps the pawn key, a pawn move changes it
+        position.makeMove(MoveCode.of(Bitboard.parseSquare("g1"), Bitboard.parseSquare("f3"), MoveCode.QUIET));
+        pawnHashTable.probe(position);
+        assertCounts(pawnHashTable, 2, 1);
+        position.makeMove(MoveCode.of(Bitboard.parseSquare("e7"), Bitboard.parseSquare("e5"), MoveCode.DOUBLE_PUSH));
+        pawnHashTable.probe(position);
+        assertCounts(pawnHashTable, 2, 2);
+        assertEquals(0.5, pawnHashTable.getHitRate());
+
+        pawnHashTable.clear();
+        assertCounts(pawnHashTable, 0, 0);
+        pawnHashTable.probe(position);
+        assertCounts(pawnHashTable, 0, 1);
+    }
+
+    /**
+     * Checks the pawn structure scores of a position, from white's point of view.
+     *
+     * @param fen     The position
+     * @param midgame The middlegame score
+     * @param endgame The endgame score
+     */
+    private static void assertPawnScore(String fen, int midgame, int endgame) {
+        long score = PawnStructure.evaluate(BitboardPosition.fromFen(fen));
+        assertEquals(midgame, PawnStructure.midgame(score), "Middlegame score of " + fen);
+        assertEquals(endgame, PawnStructure.endgame(score), "Endgame score of " + fen);
+    }
+
+    /**
+     * Checks the counters of a pawn hash table.
+     *
+     * @param pawnHashTable The table
+     * @param hits          The expected number of hits
+     * @param misses        The expected number of misses
+     */
+    private static void assertCounts(PawnHashTable pawnHashTable, long hits, long misses) {
+        assertEquals(hits, pawnHashTable.getHits(), "Hits");
+        assertEquals(misses, pawnHashTable.getMisses(), "Misses");
+    }
+
+    /**
+     * Plays every move of a move tree, checking that the table returns the fresh scores of every
+     * position, both when it evaluates them and when it finds them on the second probe.
+     *
+     * @param position      The position, restored when done
+     * @param depth         The remaining depth
+     * @param pawnHashTable The table
+     * @param moveGenerator The move generator
+     * @param moves         One move buffer per remaining depth
+     */
+    private static void walk(BitboardPosition position, int depth, PawnHashTable pawnHashTable, MoveGenerator moveGenerator, int[][] moves) {
+        long fresh = PawnStructure.evaluate(position);
+        assertEquals(fresh, pawnHashTable.probe(position), position.toFen());
+        assertEquals(fresh, pawnHashTable.probe(position), position.toFen());
+        if (depth == 0) {
+            return;
+        }
+        int[] buffer = moves[depth];
+        int count = moveGenerator.generateMoves(position, buffer);
+        for (int i = 0; i < count; i++) {
+            position.makeMove(buffer[i]);
+            walk(position, depth - 1, pawnHashTable, moveGenerator, moves);
+            position.unmakeMove(buffer[i]);
+        }
+    }
+}
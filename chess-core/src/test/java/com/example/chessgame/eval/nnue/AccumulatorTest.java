@@ -0,0 +1,117 @@
+package com.example.chessgame.eval.nnue;
+
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.bitboard.MoveGenerator;
+import com.example.chessgame.bitboard.PieceCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Checks that the accumulator a {@link BitboardPosition} updates on every make and unmake stays
+ * equal to an accumulator computed from scratch, with both kinds of kernels.
+ */
+class AccumulatorTest {
+
+    // Positions with castling, en passant, checks and promotions
+    private static final String[] POSITIONS = {
+            BitboardPosition.START_FEN,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8"
+    };
+
+    // Depth of the move trees that are walked
+    private static final int DEPTH = 3;
+
+    // Not a multiple of any vector length, so the scalar remainder loops take part
+    private static final int HIDDEN_SIZE = 37;
+
+    @Test
+    void incrementalUpdatesMatchRefreshWithScalarKernels() {
+        assertIncrementalUpdates(new ScalarKernels());
+    }
+
+    @Test
+    void incrementalUpdatesMatchRefreshWithVectorKernels() {
+        assertIncrementalUpdates(new VectorKernels());
+    }
+
+    /**
+     * Walks the move trees with an attached accumulator and compares it with a fresh one at every step.
+     *
+     * @param kernels The kernels of the attached accumulator
+     */
+    private static void assertIncrementalUpdates(Kernels kernels) {
+        Network network = randomNetwork();
+        MoveGenerator moveGenerator = new MoveGenerator();
+        int[][] moves = new int[DEPTH + 1][MoveGenerator.MAX_MOVES];
+        for (String fen : POSITIONS) {
+            BitboardPosition position = BitboardPosition.fromFen(fen);
+            Accumulator accumulator = new Accumulator(network, kernels);
+            position.setAccumulator(accumulator);
+            walk(position, DEPTH, moveGenerator, moves, new Accumulator(network, new ScalarKernels()));
+        }
+    }
+
+    /**
+     * Plays every move of a move tree, checking the accumulator after every make and unmake.
+     *
+     * @param position      The position with the accumulator attached, restored when done
+     * @param depth         The remaining depth
+     * @param moveGenerator The move generator
+     * @param moves         One move buffer per remaining depth
+     * @param fresh         An accumulator to recompute from scratch
+     */
+    private static void walk(BitboardPosition position, int depth, MoveGenerator moveGenerator, int[][] moves, Accumulator fresh) {
+        if (depth == 0) {
+            return;
+        }
+        int[] buffer = moves[depth];
+        int count = moveGenerator.generateMoves(position, buffer);
+        for (int i = 0; i < count; i++) {
+            String fen = position.toFen();
+            position.makeMove(buffer[i]);
+            assertRefreshed(position, fresh, "after " + MoveCode.toUci(buffer[i]) + " in " + fen);
+            walk(position, depth - 1, moveGenerator, moves, fresh);
+            position.unmakeMove(buffer[i]);
+            assertRefreshed(position, fresh, "after unmaking " + MoveCode.toUci(buffer[i]) + " in " + fen);
+        }
+    }
+
+    /**
+     * Checks the attached accumulator of a position against one computed from scratch.
+     *
+     * @param position The position
+     * @param fresh    The accumulator to recompute
+     * @param when     The step of the walk, for the failure message
+     */
+    private static void assertRefreshed(BitboardPosition position, Accumulator fresh, String when) {
+        fresh.refresh(position);
+        Accumulator accumulator = position.getAccumulator();
+        assertArrayEquals(fresh.getValues(PieceCode.WHITE), accumulator.getValues(PieceCode.WHITE), "White's perspective " + when);
+        assertArrayEquals(fresh.getValues(PieceCode.BLACK), accumulator.getValues(PieceCode.BLACK), "Black's perspective " + when);
+    }
+
+    /**
+     * Creates a network with small random weights, so every input row has an effect.
+     *
+     * @return The network
+     */
+    private static Network randomNetwork() {
+        Random random = new Random(7);
+        short[] featureWeights = new short[Network.INPUTS * HIDDEN_SIZE];
+        for (int i = 0; i < featureWeights.length; i++) {
+            featureWeights[i] = (short) (random.nextInt(64) - 32);
+        }
+        short[] featureBiases = new short[HIDDEN_SIZE];
+        for (int i = 0; i < featureBiases.length; i++) {
+            featureBiases[i] = (short) random.nextInt(128);
+        }
+        return new Network(HIDDEN_SIZE, featureWeights, featureBiases, new short[2 * HIDDEN_SIZE], 0);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.chessgame.eval.nnue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the Vector API kernels compute exactly what the scalar kernels do. The hidden sizes
+ * include lengths below, at and just past multiples of every common vector length, so both the
+ * vector loops and the scalar loops that finish them are covered.
+ */
+class KernelsTest {
+
+    private static final int[] HIDDEN_SIZES = {1, 7, 8, 15, 16, 17, 31, 32, 33, 63, 64, 65, 255, 256, 257};
+
+    // Input rows in the weight array, so the offsets are not all zero
+    private static final int ROWS = 3;
+
+    private final Kernels scalar = new ScalarKernels();
+    private final Kernels vector = new VectorKernels();
+    private final Random random = new Random(42);
+
+    @Test
+    void addMatchesScalar() {
+        for (int hiddenSize : HIDDEN_SIZES) {
+            short[] weights = randomShorts(ROWS * hiddenSize);
+            short[] expected = randomShorts(hiddenSize);
+            short[] actual = expected.clone();
+            scalar.add(expected, weights, hiddenSize);
+            vector.add(actual, weights, hiddenSize);
+            assertArrayEquals(expected, actual, "add with " + hiddenSize + " hidden neurons");
+        }
+    }
+
+    @Test
+    void subtractMatchesScalar() {
+        for (int hiddenSize : HIDDEN_SIZES) {
+            short[] weights = randomShorts(ROWS * hiddenSize);
+            short[] expected = randomShorts(hiddenSize);
+            short[] actual = expected.clone();
+            scalar.subtract(expected, weights, 2 * hiddenSize);
+            vector.subtract(actual, weights, 2 * hiddenSize);
+            assertArrayEquals(expected, actual, "subtract with " + hiddenSize + " hidden neurons");
+        }
+    }
+
+    @Test
+    void addSubtractMatchesScalar() {
+        for (int hiddenSize : HIDDEN_SIZES) {
+            short[] weights = randomShorts(ROWS * hiddenSize);
+            short[] expected = randomShorts(hiddenSize);
+            short[] actual = expected.clone();
+            scalar.addSubtract(expected, weights, 2 * hiddenSize, hiddenSize);
+            vector.addSubtract(actual, weights, 2 * hiddenSize, hiddenSize);
+            assertArrayEquals(expected, actual, "addSubtract with " + hiddenSize + " hidden neurons");
+        }
+    }
+
+    @Test
+    void dotMatchesScalar() {
+        for (int hiddenSize : HIDDEN_SIZES) {
+            short[] weights = randomShorts(ROWS * hiddenSize);
+            // Values below zero and above QA, so the clipping is tested as well
+            short[] hidden = new short[hiddenSize];
+            for (int i = 0; i < hiddenSize; i++) {
+                hidden[i] = (short) (random.nextInt(2 * Network.QA) - Network.QA / 2);
+            }
+            assertEquals(scalar.dot(hidden, weights, hiddenSize), vector.dot(hidden, weights, hiddenSize),
+                    "dot with " + hiddenSize + " hidden neurons");
+        }
+    }
+
+    /**
+     * Creates an array of random 16-bit values over the whole range, so sums overflow now and then.
+     *
+     * @param length The length of the array
+     * @return The array
+     */
+    private short[] randomShorts(int length) {
+        short[] values = new short[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = (short) random.nextInt();
+        }
+        return values;
+    }
+}
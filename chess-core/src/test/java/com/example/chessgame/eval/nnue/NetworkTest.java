@@ -0,0 +1,68 @@
+package com.example.chessgame.eval.nnue;
+
+import com.example.chessgame.bitboard.BitboardPosition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that a network survives a round trip through its file format, and that files that are
+ * cut short or are not network files are rejected.
+ */
+class NetworkTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void saveAndLoadRoundTrip() throws IOException {
+        Network network = Network.fromPieceSquareTables();
+        Path file = directory.resolve("builtin.nnue");
+        network.save(file);
+        Network loaded = Network.load(file);
+
+        assertEquals(network.getHiddenSize(), loaded.getHiddenSize());
+        assertArrayEquals(network.getFeatureWeights(), loaded.getFeatureWeights());
+        assertArrayEquals(network.getFeatureBiases(), loaded.getFeatureBiases());
+        assertArrayEquals(network.getOutputWeights(), loaded.getOutputWeights());
+        assertEquals(network.getOutputBias(), loaded.getOutputBias());
+
+        BitboardPosition position = BitboardPosition.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        Accumulator accumulator = new Accumulator(network);
+        Accumulator loadedAccumulator = new Accumulator(loaded);
+        accumulator.refresh(position);
+        loadedAccumulator.refresh(position);
+        assertEquals(accumulator.evaluate(position.getSideToMove()), loadedAccumulator.evaluate(position.getSideToMove()));
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        Path file = directory.resolve("truncated.nnue");
+        Network.fromPieceSquareTables().save(file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> Network.load(file));
+
+        // Too short for even the header
+        Files.write(file, Arrays.copyOf(bytes, 3));
+        assertThrows(IOException.class, () -> Network.load(file));
+    }
+
+    @Test
+    void wrongMagicIsRejected() throws IOException {
+        Path file = directory.resolve("wrong.nnue");
+        Network.fromPieceSquareTables().save(file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[0] ^= 1;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> Network.load(file));
+    }
+}
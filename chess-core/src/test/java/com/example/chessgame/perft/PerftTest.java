@@ -0,0 +1,92 @@
+package com.example.chessgame.perft;
+
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.data.ChessBoardData;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Pins the published perft node counts, through the piece API the game uses and through the core
+ * move generator. The positions cover castling, en passant, pins, discovered checks and promotions,
+ * so a wrong move anywhere in the generators or in make/unmake changes a count.
+ * The depths are kept low enough for the whole class to run in a few seconds.
+ */
+class PerftTest {
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private static final String POSITION_3 = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    private static final String POSITION_4 = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+    private static final String POSITION_5 = "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+
+    @Test
+    void startPosition() {
+        assertPerft(BitboardPosition.START_FEN, 20, 400, 8902, 197281);
+    }
+
+    @Test
+    void kiwipete() {
+        assertPerft(KIWIPETE, 48, 2039, 97862);
+    }
+
+    @Test
+    void position3() {
+        assertPerft(POSITION_3, 14, 191, 2812, 43238);
+    }
+
+    @Test
+    void position4() {
+        assertPerft(POSITION_4, 6, 264, 9467);
+    }
+
+    @Test
+    void position5() {
+        assertPerft(POSITION_5, 44, 1486, 62379);
+    }
+
+    @Test
+    void divideRejectsDepthBelowOne() {
+        assertThrows(IllegalArgumentException.class, () -> Perft.divide(new ChessBoardData(BitboardPosition.START_FEN), 0));
+        assertThrows(IllegalArgumentException.class, () -> Perft.divideCore(BitboardPosition.fromFen(BitboardPosition.START_FEN), -1));
+    }
+
+    /**
+     * Checks the node counts of a position at depth 1, 2 and so on, with both move generators.
+     * Both divides must also agree move by move, and leave the position as it was.
+     *
+     * @param fen   The position
+     * @param nodes The expected node count at each depth, starting with depth 1
+     */
+    private static void assertPerft(String fen, long... nodes) {
+        for (int depth = 1; depth <= nodes.length; depth++) {
+            ChessBoardData chessBoardData = new ChessBoardData(fen);
+            Map<String, Long> pieces = Perft.divide(chessBoardData, depth);
+            assertEquals(nodes[depth - 1], total(pieces), "Piece API perft(" + depth + ") of " + fen);
+            assertEquals(fen, chessBoardData.getPosition().toFen(), "Position after the piece API perft(" + depth + ")");
+
+            BitboardPosition position = BitboardPosition.fromFen(fen);
+            Map<String, Long> core = Perft.divideCore(position, depth);
+            assertEquals(nodes[depth - 1], total(core), "Core perft(" + depth + ") of " + fen);
+            assertEquals(fen, position.toFen(), "Position after the core perft(" + depth + ")");
+
+            assertEquals(pieces, core, "Divide of both move generators at depth " + depth);
+        }
+    }
+
+    /**
+     * Adds up the node counts of a divide.
+     *
+     * @param divide The node count per root move
+     * @return The total node count
+     */
+    private static long total(Map<String, Long> divide) {
+        long nodes = 0;
+        for (long rootNodes : divide.values()) {
+            nodes += rootNodes;
+        }
+        return nodes;
+    }
+}
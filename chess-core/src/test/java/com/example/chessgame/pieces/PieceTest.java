@@ -0,0 +1,95 @@
+package com.example.chessgame.pieces;
+
+import com.example.chessgame.bitboard.Bitboard;
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.data.ChessBoardData;
+import com.example.chessgame.data.GameResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that {@link Piece#getGameResult(ChessBoardData)} tells every way a game can end apart.
+ */
+class PieceTest {
+
+    @Test
+    void gameGoesOn() {
+        assertResult(BitboardPosition.START_FEN, GameResult.PLAY_ON);
+    }
+
+    @Test
+    void checkmateWins() {
+        assertResult("R5k1/5ppp/8/8/8/8/8/6K1 b - - 0 1", GameResult.WHITE_WIN);
+        assertResult("6k1/8/8/8/8/8/5PPP/r5K1 w - - 0 1", GameResult.BLACK_WIN);
+    }
+
+    @Test
+    void checkmateOnTheHundredthHalfMoveWins() {
+        assertResult("R5k1/5ppp/8/8/8/8/8/6K1 b - - 100 80", GameResult.WHITE_WIN);
+    }
+
+    @Test
+    void stalemateIsADraw() {
+        assertResult("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1", GameResult.STALEMATE);
+    }
+
+    @Test
+    void fiftyMoveRuleIsADraw() {
+        assertResult("4k3/8/8/8/8/8/8/R3K3 w - - 99 80", GameResult.PLAY_ON);
+        assertResult("4k3/8/8/8/8/8/8/R3K3 w - - 100 80", GameResult.FIFTY_MOVE_RULE);
+    }
+
+    @Test
+    void threefoldRepetitionIsADraw() {
+        ChessBoardData chessBoardData = new ChessBoardData();
+        String[] knightDance = {"g1f3", "g8f6", "f3g1", "f6g8"};
+        for (int i = 0; i < 2; i++) {
+            assertEquals(GameResult.PLAY_ON, Piece.getGameResult(chessBoardData));
+            for (String move : knightDance) {
+                chessBoardData.makeMove(quietMove(move));
+            }
+        }
+        assertEquals(GameResult.THREEFOLD_REPETITION, Piece.getGameResult(chessBoardData));
+    }
+
+    @Test
+    void insufficientMaterialIsADraw() {
+        assertResult("4k3/8/8/8/8/8/8/4K3 w - - 0 1", GameResult.INSUFFICIENT_MATERIAL);
+        assertResult("4kb2/8/8/8/8/8/8/2B1K3 w - - 0 1", GameResult.INSUFFICIENT_MATERIAL);
+        assertResult("2b1k3/8/8/8/8/8/8/2B1K3 w - - 0 1", GameResult.PLAY_ON);
+    }
+
+    @Test
+    void onlyEndedGamesThatNobodyWonAreDraws() {
+        Set<GameResult> draws = EnumSet.of(GameResult.STALEMATE, GameResult.THREEFOLD_REPETITION,
+                GameResult.FIFTY_MOVE_RULE, GameResult.INSUFFICIENT_MATERIAL);
+        for (GameResult gameResult : GameResult.values()) {
+            assertEquals(draws.contains(gameResult), gameResult.isDraw(), gameResult.name());
+        }
+    }
+
+    /**
+     * Checks the result of the game in a position.
+     *
+     * @param fen      The position
+     * @param expected The result
+     */
+    private static void assertResult(String fen, GameResult expected) {
+        assertEquals(expected, Piece.getGameResult(new ChessBoardData(fen)), fen);
+    }
+
+    /**
+     * Gets a quiet move given in coordinate notation.
+     *
+     * @param uci The move, for example "g1f3"
+     * @return The packed move
+     */
+    private static int quietMove(String uci) {
+        return MoveCode.of(Bitboard.parseSquare(uci.substring(0, 2)), Bitboard.parseSquare(uci.substring(2, 4)), MoveCode.QUIET);
+    }
+}
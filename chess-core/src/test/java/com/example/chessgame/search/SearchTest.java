@@ -0,0 +1,131 @@
+package com.example.chessgame.search;
+
+import com.example.chessgame.bitboard.Bitboard;
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.bitboard.PieceCode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the selective search techniques (see {@link SearchConfig}) do not change what the
+ * search finds in tactical positions, only how many nodes it takes, and covers the two places
+ * where pruning is known to go wrong: zugzwang and the history of moves that were never searched.
+ */
+class SearchTest {
+
+    // Depth of the tactical searches, enough for every line below with plain alpha-beta
+    private static final int DEPTH = 6;
+
+    @Test
+    void backRankMateInOne() {
+        assertMateWithAllAndNone("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1", "a1a8", 1);
+    }
+
+    @Test
+    void scholarsMateInOne() {
+        assertMateWithAllAndNone("r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4", "h5f7", 1);
+    }
+
+    @Test
+    void quietMateInTwo() {
+        // 1. Ra6, with mate on the next move whatever Black plays
+        assertMateWithAllAndNone("kbK5/pp6/1P6/8/8/8/8/R7 w - - 0 1", "a1a6", 3);
+    }
+
+    @Test
+    void hangingQueenIsTaken() {
+        assertBestMoveWithAllAndNone("rnb1kbnr/pppp1ppp/8/3qp3/8/2N5/PPPP1PPP/R1BQKBNR w KQkq - 0 1", "c3d5");
+    }
+
+    @Test
+    void knightForkWinsTheRook() {
+        assertBestMoveWithAllAndNone("r3k3/p7/8/3N4/8/8/7P/4K3 w - - 0 1", "d5c7");
+    }
+
+    /**
+     * A well known null move test position: Nxd5 only wins because of a zugzwang later on. With
+     * few pieces left, a null move cutoff is verified by a search that may not pass; without that,
+     * the search trusts the null move here and plays another move.
+     */
+    @Test
+    void nullMoveVerificationFindsZugzwang() {
+        String fen = "8/8/1p1r1k2/p1pPN1p1/P3KnP1/1P6/8/3R4 b - - 0 1";
+        assertEquals("f4d5", MoveCode.toUci(search(fen, SearchConfig.ALL, 12).bestMove()));
+        assertEquals("f4d5", MoveCode.toUci(search(fen, SearchConfig.parse("pvs,nmp"), 12).bestMove()));
+    }
+
+    /**
+     * After Qd8, Black is far behind, so futility pruning skips every quiet move of Black that does
+     * not give check. Only Nf2, a smothered mate, is searched and cuts off. The skipped moves were
+     * never searched, so they must not lose history for coming before the cutoff.
+     */
+    @Test
+    void quietMovesSkippedByFutilityPruningKeepTheirHistory() {
+        Search search = new Search(new TranspositionTable(16));
+        search.setConfig(SearchConfig.parse("pvs,fp"));
+        search.search(BitboardPosition.fromFen("8/8/7k/8/4n3/6p1/6PP/3Q2RK w - - 0 1"), SearchLimits.depth(2));
+
+        HistoryTable history = search.getHistory();
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                int move = MoveCode.of(from, to, MoveCode.QUIET);
+                assertTrue(history.get(PieceCode.BLACK, move) >= 0, "History of " + MoveCode.toUci(move));
+            }
+        }
+        assertTrue(history.get(PieceCode.BLACK, quietMove("e4f2")) > 0, "History of the mating move");
+    }
+
+    /**
+     * Searches a position with every technique and with none, and checks both find the same mate.
+     *
+     * @param fen      The position
+     * @param bestMove The mating move
+     * @param plies    The number of half moves to the mate
+     */
+    private static void assertMateWithAllAndNone(String fen, String bestMove, int plies) {
+        for (SearchConfig config : new SearchConfig[] {SearchConfig.ALL, SearchConfig.NONE}) {
+            SearchResult result = search(fen, config, DEPTH);
+            assertEquals(bestMove, MoveCode.toUci(result.bestMove()), "Best move with " + config);
+            assertEquals(Search.MATE - plies, result.score(), "Score with " + config);
+        }
+    }
+
+    /**
+     * Searches a position with every technique and with none, and checks both find the same move.
+     *
+     * @param fen      The position
+     * @param bestMove The winning move
+     */
+    private static void assertBestMoveWithAllAndNone(String fen, String bestMove) {
+        for (SearchConfig config : new SearchConfig[] {SearchConfig.ALL, SearchConfig.NONE}) {
+            assertEquals(bestMove, MoveCode.toUci(search(fen, config, DEPTH).bestMove()), "Best move with " + config);
+        }
+    }
+
+    /**
+     * Searches a position to a fixed depth with a new search and an empty table.
+     *
+     * @param fen    The position
+     * @param config The search techniques to use
+     * @param depth  The depth
+     * @return The result of the search
+     */
+    private static SearchResult search(String fen, SearchConfig config, int depth) {
+        Search search = new Search(new TranspositionTable(16));
+        search.setConfig(config);
+        return search.search(BitboardPosition.fromFen(fen), SearchLimits.depth(depth));
+    }
+
+    /**
+     * Gets a quiet move given in coordinate notation.
+     *
+     * @param uci The move, for example "e4f2"
+     * @return The packed move
+     */
+    private static int quietMove(String uci) {
+        return MoveCode.of(Bitboard.parseSquare(uci.substring(0, 2)), Bitboard.parseSquare(uci.substring(2, 4)), MoveCode.QUIET);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.chessgame.search;
+
+import com.example.chessgame.bitboard.Bitboard;
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.eval.Evaluator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the material {@link StaticExchange} finds for the exchanges it has to get right:
+ * captures of defended pieces, sliders lined up behind each other and en passant, and that the
+ * quiescence search, which skips the captures it finds losing, resolves a hanging piece.
+ */
+class StaticExchangeTest {
+
+    @Test
+    void queenTakingPawnDefendedByPawnLosesTheQueen() {
+        assertExchange("4k3/8/2p5/3p4/8/8/8/3QK3 w - - 0 1", "d1d5", MoveCode.CAPTURE, 100 - 900);
+    }
+
+    @Test
+    void undefendedPieceIsWon() {
+        assertExchange("4k3/8/8/3n4/8/8/8/3RK3 w - - 0 1", "d1d5", MoveCode.CAPTURE, 320);
+    }
+
+    @Test
+    void rookBehindRookSupportsTheCapture() {
+        // Rxd5 Rxd5 Rxd5: the rook on d1 only sees d5 once the rook on d2 has left
+        assertExchange("3rk3/8/8/3p4/8/8/3R4/3RK3 w - - 0 1", "d2d5", MoveCode.CAPTURE, 100);
+        // Without it, the rook is lost for the pawn
+        assertExchange("3rk3/8/8/3p4/8/8/3R4/4K3 w - - 0 1", "d2d5", MoveCode.CAPTURE, 100 - 500);
+    }
+
+    @Test
+    void rookBehindDefendingRookRefutesTheCapture() {
+        // Two white rooks against two black rooks and the pawn: the black x-ray has the last word
+        assertExchange("3rk3/3r4/8/3p4/8/8/3R4/3RK3 w - - 0 1", "d2d5", MoveCode.CAPTURE, 100 - 500);
+    }
+
+    @Test
+    void enPassantCaptureWinsThePawnBesideTheTarget() {
+        assertExchange("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5d6", MoveCode.EN_PASSANT, 100);
+        // With the target square defended, the pawns are traded
+        assertExchange("4k3/2p5/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5d6", MoveCode.EN_PASSANT, 0);
+    }
+
+    /**
+     * Taking the rook with the queen looks best until the pawn recaptures. The quiescence search
+     * has to see that, skip the capture, and take the hanging knight instead; after that Black has
+     * nothing to capture, so the score is the static evaluation of that position.
+     */
+    @Test
+    void quiescenceResolvesHangingPiece() {
+        String fen = "4k3/8/2p5/3r4/n7/8/8/3QK3 w - - 0 1";
+        Search search = new Search(new TranspositionTable(16));
+        search.setConfig(SearchConfig.NONE);
+        SearchResult result = search.search(BitboardPosition.fromFen(fen), SearchLimits.depth(1));
+        assertEquals("d1a4", MoveCode.toUci(result.bestMove()));
+
+        BitboardPosition position = BitboardPosition.fromFen(fen);
+        position.makeMove(move("d1a4", MoveCode.CAPTURE));
+        assertEquals(-Evaluator.evaluate(position), result.score());
+    }
+
+    /**
+     * Checks the static exchange evaluation of a capture.
+     *
+     * @param fen      The position before the capture
+     * @param uci      The capture in coordinate notation
+     * @param flag     The move flag (see {@link MoveCode})
+     * @param expected The material the side to move wins in centipawns
+     */
+    private static void assertExchange(String fen, String uci, int flag, int expected) {
+        assertEquals(expected, new StaticExchange().evaluate(BitboardPosition.fromFen(fen), move(uci, flag)), uci + " in " + fen);
+    }
+
+    /**
+     * Gets a move given in coordinate notation.
+     *
+     * @param uci  The move, for example "d1d5"
+     * @param flag The move flag (see {@link MoveCode})
+     * @return The packed move
+     */
+    private static int move(String uci, int flag) {
+        return MoveCode.of(Bitboard.parseSquare(uci.substring(0, 2)), Bitboard.parseSquare(uci.substring(2, 4)), flag);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.chessgame.search;
+
+import com.example.chessgame.bitboard.Bitboard;
+import com.example.chessgame.bitboard.MoveCode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks how the {@link TimeManager} shares out the clock and how it scales the soft limit while
+ * searching. Instead of waiting, the searches are started as if they had begun some time ago.
+ */
+class TimeManagerTest {
+
+    private static final long OVERHEAD = TimeManager.DEFAULT_MOVE_OVERHEAD_MILLIS;
+
+    // The most the soft limit is stretched: a new best move (1.3) and a score drop of a pawn or more (2)
+    private static final double MAX_SCALING = 1.3 * 2;
+
+    private static final int MOVE_A = MoveCode.of(Bitboard.parseSquare("e2"), Bitboard.parseSquare("e4"), MoveCode.DOUBLE_PUSH);
+    private static final int MOVE_B = MoveCode.of(Bitboard.parseSquare("d2"), Bitboard.parseSquare("d4"), MoveCode.DOUBLE_PUSH);
+
+    @Test
+    void suddenDeathSharesOutTheClock() {
+        // One minute left: the clock after the overhead over 30 moves, and four times that at most
+        assertEquals(59_950 / 30, TimeManager.softLimit(60_000, 0, 0, OVERHEAD));
+        assertEquals(59_950 / 30 * 4, TimeManager.hardLimit(60_000, 0, 0, OVERHEAD));
+        assertTrue(TimeManager.softLimit(30_000, 0, 0, OVERHEAD) < TimeManager.softLimit(60_000, 0, 0, OVERHEAD));
+    }
+
+    @Test
+    void incrementIsMostlyAdded() {
+        assertEquals(59_950 / 30 + 750, TimeManager.softLimit(60_000, 1_000, 0, OVERHEAD));
+        assertEquals((59_950 / 30 + 750) * 4, TimeManager.hardLimit(60_000, 1_000, 0, OVERHEAD));
+    }
+
+    @Test
+    void movesToGoSharesOutTheClockOverThoseMoves() {
+        assertEquals(59_950 / 20, TimeManager.softLimit(60_000, 0, 20, OVERHEAD));
+        // More than fifty moves to go count as fifty
+        assertEquals(59_950 / 50, TimeManager.softLimit(60_000, 0, 80, OVERHEAD));
+    }
+
+    @Test
+    void lastMoveBeforeTimeControlUsesTheWholeClock() {
+        assertEquals(59_950, TimeManager.softLimit(60_000, 0, 1, OVERHEAD));
+        assertEquals(59_950, TimeManager.hardLimit(60_000, 0, 1, OVERHEAD));
+    }
+
+    @Test
+    void clockBelowOverheadLeavesOneMillisecond() {
+        assertEquals(1, TimeManager.softLimit(30, 0, 0, OVERHEAD));
+        assertEquals(1, TimeManager.hardLimit(30, 0, 0, OVERHEAD));
+        assertEquals(1, TimeManager.softLimit(0, 0, 1, OVERHEAD));
+        assertEquals(1, TimeManager.hardLimit(0, 0, 1, OVERHEAD));
+    }
+
+    @Test
+    void hardLimitIsBetweenSoftLimitAndClock() {
+        for (long remaining : new long[] {0, 1, 10, 100, 1_000, 10_000, 100_000, 1_000_000}) {
+            for (long increment : new long[] {0, 10, 1_000, 100_000}) {
+                for (int movesToGo : new int[] {0, 1, 2, 5, 40, 100}) {
+                    for (long overhead : new long[] {0, OVERHEAD}) {
+                        long soft = TimeManager.softLimit(remaining, increment, movesToGo, overhead);
+                        long hard = TimeManager.hardLimit(remaining, increment, movesToGo, overhead);
+                        String clock = remaining + "+" + increment + ", " + movesToGo + " to go, overhead " + overhead;
+                        assertTrue(soft >= 1, "Soft limit for " + clock);
+                        assertTrue(hard >= soft, "Hard limit for " + clock);
+                        assertTrue(hard <= Math.max(1, remaining - overhead), "Hard limit for " + clock);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void scaledSoftLimitStaysWithinHardLimit() {
+        for (long remaining : new long[] {1_000, 10_000, 60_000, 600_000, 3_600_000}) {
+            for (long increment : new long[] {0, remaining / 100, remaining / 10}) {
+                long soft = TimeManager.softLimit(remaining, increment, 0, OVERHEAD);
+                long hard = TimeManager.hardLimit(remaining, increment, 0, OVERHEAD);
+                assertTrue(soft * MAX_SCALING <= hard, remaining + "+" + increment + ": soft " + soft + ", hard " + hard);
+            }
+        }
+    }
+
+    @Test
+    void stableBestMoveStopsBeforeSoftLimit() {
+        TimeManager timeManager = startedAgo(new SearchLimits(SearchLimits.MAX_DEPTH, 40_000, 0, 10_000), 5_600);
+        // The limit shrinks from 13 s over 10, 8 and 6.5 s to 5.5 s as the move stays the same
+        for (int iteration = 0; iteration < 4; iteration++) {
+            assertFalse(timeManager.stopAfterIteration(MOVE_A, 0), "Iteration " + iteration);
+        }
+        assertTrue(timeManager.stopAfterIteration(MOVE_A, 0));
+    }
+
+    @Test
+    void changingBestMoveSearchesPastSoftLimit() {
+        TimeManager timeManager = startedAgo(new SearchLimits(SearchLimits.MAX_DEPTH, 40_000, 0, 10_000), 11_000);
+        assertFalse(timeManager.stopAfterIteration(MOVE_A, 0));
+        assertFalse(timeManager.stopAfterIteration(MOVE_B, 0));
+        assertTrue(timeManager.stopAfterIteration(MOVE_B, 0));
+    }
+
+    @Test
+    void scoreDropSearchesLongerUntilHardLimit() {
+        SearchLimits limits = new SearchLimits(SearchLimits.MAX_DEPTH, 40_000, 0, 10_000);
+        // Past the soft limit, the same best move with the same score stops the search
+        TimeManager timeManager = startedAgo(limits, 12_000);
+        assertFalse(timeManager.stopAfterIteration(MOVE_A, 50));
+        assertTrue(timeManager.stopAfterIteration(MOVE_A, 50));
+
+        // A drop of a pawn or more doubles the soft limit
+        timeManager = startedAgo(limits, 12_000);
+        assertFalse(timeManager.stopAfterIteration(MOVE_A, 50));
+        assertFalse(timeManager.stopAfterIteration(MOVE_A, -150));
+        assertFalse(timeManager.isHardLimitReached());
+
+        // Whatever the scaling, the hard limit ends the search
+        assertTrue(startedAgo(limits, 40_000).isHardLimitReached());
+    }
+
+    /**
+     * Starts timing a search as if it had started some time ago.
+     *
+     * @param limits        The limits of the search
+     * @param elapsedMillis How long ago the search started
+     * @return The time manager
+     */
+    private static TimeManager startedAgo(SearchLimits limits, long elapsedMillis) {
+        TimeManager timeManager = new TimeManager();
+        timeManager.start(limits, System.nanoTime() - elapsedMillis * 1_000_000);
+        return timeManager;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.chessgame.search;
+
+import com.example.chessgame.bitboard.Bitboard;
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.MoveCode;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.nio.LongBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Checks that a {@link TranspositionTable} returns what was stored, treats entries whose key word
+ * does not XOR back to the probed key as misses, replaces the shallowest entry with older searches
+ * counting as shallower, and that the search stores mate scores relative to the position.
+ */
+class TranspositionTableTest {
+
+    // Keys whose high bits are zero all fall into the first bucket of a small table
+    private static final long[] FIRST_BUCKET_KEYS = {0x1111L, 0x2222L, 0x3333L, 0x4444L, 0x5555L, 0x6666L, 0x7777L};
+
+    @Test
+    void storedEntryIsFound() {
+        TranspositionTable table = new TranspositionTable(1);
+        int move = MoveCode.of(Bitboard.parseSquare("e2"), Bitboard.parseSquare("e4"), MoveCode.DOUBLE_PUSH);
+        table.store(0x0123456789ABCDEFL, move, -1234, 17, TranspositionTable.LOWER_BOUND);
+
+        long entry = table.probe(0x0123456789ABCDEFL);
+        assertEquals(move, TranspositionTable.move(entry));
+        assertEquals(-1234, TranspositionTable.score(entry));
+        assertEquals(17, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(entry));
+        assertEquals(0, table.probe(0x0123456789ABCDEEL));
+        assertEquals(1, table.getHits());
+        assertEquals(1, table.getMisses());
+    }
+
+    @Test
+    void tornEntryIsAMiss() throws ReflectiveOperationException {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(FIRST_BUCKET_KEYS[0], 0, 100, 5, TranspositionTable.EXACT);
+        table.store(FIRST_BUCKET_KEYS[1], 0, -200, 6, TranspositionTable.EXACT);
+
+        // Two writes to the first slot at once: the key word of one, the data word of the other
+        LongBuffer segment = firstSegment(table);
+        segment.put(1, segment.get(3));
+        assertEquals(0, table.probe(FIRST_BUCKET_KEYS[0]));
+        assertEquals(-200, TranspositionTable.score(table.probe(FIRST_BUCKET_KEYS[1])));
+    }
+
+    @Test
+    void shallowestEntryIsReplaced() {
+        TranspositionTable table = new TranspositionTable(1);
+        int[] depths = {10, 3, 8, 6};
+        for (int i = 0; i < depths.length; i++) {
+            table.store(FIRST_BUCKET_KEYS[i], 0, 0, depths[i], TranspositionTable.EXACT);
+        }
+        table.store(FIRST_BUCKET_KEYS[4], 0, 0, 1, TranspositionTable.EXACT);
+        assertStored(table, true, false, true, true, true);
+    }
+
+    @Test
+    void entriesOfOlderSearchesAreReplacedFirst() {
+        TranspositionTable table = new TranspositionTable(1);
+        int[] depths = {10, 3, 8, 6};
+        for (int i = 0; i < depths.length; i++) {
+            table.store(FIRST_BUCKET_KEYS[i], 0, 0, depths[i], TranspositionTable.EXACT);
+        }
+
+        // In the next search, the depth 2 entry outlives the depth 6 entry of the search before
+        table.newSearch();
+        table.store(FIRST_BUCKET_KEYS[5], 0, 0, 2, TranspositionTable.EXACT);
+        table.store(FIRST_BUCKET_KEYS[6], 0, 0, 1, TranspositionTable.EXACT);
+        assertStored(table, true, false, true, false, false, true, true);
+        assertEquals(2, table.getCollisions());
+    }
+
+    @Test
+    void shallowerResultReplacesSamePositionOnlyInLaterSearch() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = FIRST_BUCKET_KEYS[0];
+        int move = MoveCode.of(Bitboard.parseSquare("g1"), Bitboard.parseSquare("f3"), MoveCode.QUIET);
+        table.store(key, move, 50, 8, TranspositionTable.EXACT);
+
+        table.store(key, 0, 10, 4, TranspositionTable.LOWER_BOUND);
+        assertEquals(8, TranspositionTable.depth(table.probe(key)));
+
+        table.newSearch();
+        table.store(key, 0, 10, 4, TranspositionTable.LOWER_BOUND);
+        long entry = table.probe(key);
+        assertEquals(4, TranspositionTable.depth(entry));
+        // The new result has no best move, so the old one is kept
+        assertEquals(move, TranspositionTable.move(entry));
+    }
+
+    /**
+     * After 1. Ra6 Black is mated in two half moves, one half move from the root. The table keeps
+     * the distance to the mate from the stored position, not from the root, so the score is still
+     * right when the position is reached at another ply.
+     */
+    @Test
+    void mateScoreIsStoredRelativeToThePosition() {
+        TranspositionTable table = new TranspositionTable(16);
+        Search search = new Search(table);
+        search.setConfig(SearchConfig.NONE);
+        BitboardPosition position = BitboardPosition.fromFen("kbK5/pp6/1P6/8/8/8/8/R7 w - - 0 1");
+        SearchResult result = search.search(position, SearchLimits.depth(4));
+        assertEquals(Search.MATE - 3, result.score());
+
+        position.makeMove(MoveCode.of(Bitboard.parseSquare("a1"), Bitboard.parseSquare("a6"), MoveCode.QUIET));
+        long entry = table.probe(position.getZobristKey());
+        assertNotEquals(0, entry);
+        assertEquals(-(Search.MATE - 2), TranspositionTable.score(entry));
+    }
+
+    /**
+     * Checks which of the first bucket keys are stored in a table.
+     *
+     * @param table  The table
+     * @param stored For every key in order, whether it should be found
+     */
+    private static void assertStored(TranspositionTable table, boolean... stored) {
+        for (int i = 0; i < stored.length; i++) {
+            assertEquals(stored[i], table.probe(FIRST_BUCKET_KEYS[i]) != 0, "Key " + i);
+        }
+    }
+
+    /**
+     * Gets the memory of the first buckets of a table, to write entries the way racing threads can.
+     *
+     * @param table The table
+     * @return The first segment, two longs per entry
+     */
+    private static LongBuffer firstSegment(TranspositionTable table) throws ReflectiveOperationException {
+        Field segments = TranspositionTable.class.getDeclaredField("segments");
+        segments.setAccessible(true);
+        return ((LongBuffer[]) segments.get(table))[0];
+    }
+}
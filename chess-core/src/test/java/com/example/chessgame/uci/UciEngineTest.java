@@ -0,0 +1,170 @@
+package com.example.chessgame.uci;
+
+import com.example.chessgame.bitboard.BitboardPosition;
+import com.example.chessgame.bitboard.MoveCode;
+import com.example.chessgame.bitboard.MoveGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.BufferedReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plays scripted sessions with a {@link UciEngine} the way a GUI does: one command at a time,
+ * waiting for the answers the protocol promises before sending the next one.
+ */
+@Timeout(60)
+class UciEngineTest {
+
+    // Commands to the engine and lines from it
+    private final BlockingQueue<String> commands = new LinkedBlockingQueue<>();
+    private final BlockingQueue<String> answers = new LinkedBlockingQueue<>();
+
+    private Thread engineThread;
+
+    @BeforeEach
+    void startEngine() {
+        BufferedReader input = new BufferedReader(Reader.nullReader()) {
+            @Override
+            public String readLine() {
+                try {
+                    return commands.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+        };
+        PrintStream output = new PrintStream(new OutputStream() {
+            private final StringBuilder line = new StringBuilder();
+
+            @Override
+            public synchronized void write(int b) {
+                if (b == '\n') {
+                    answers.add(line.toString().trim());
+                    line.setLength(0);
+                } else {
+                    line.append((char) b);
+                }
+            }
+        }, true, StandardCharsets.UTF_8);
+
+        UciEngine engine = new UciEngine(input, output);
+        engineThread = new Thread(() -> {
+            try {
+                engine.run();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }, "uci-engine");
+        engineThread.start();
+        send("setoption name Hash value 16");
+    }
+
+    @AfterEach
+    void quitEngine() throws InterruptedException {
+        send("quit");
+        engineThread.join();
+    }
+
+    @Test
+    void handshake() throws InterruptedException {
+        send("uci");
+        List<String> lines = readUntil("uciok");
+        assertTrue(lines.get(0).startsWith("id name "), lines.get(0));
+        assertTrue(lines.contains("option name MultiPV type spin default 1 min 1 max " + MoveGenerator.MAX_MOVES), lines.toString());
+
+        send("isready");
+        assertEquals(List.of("readyok"), readUntil("readyok"));
+    }
+
+    @Test
+    void fixedDepthSearchAfterMoves() throws InterruptedException {
+        send("position startpos moves e2e4 e7e5");
+        send("go depth 3");
+        List<String> lines = readUntil("bestmove");
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("info depth 3 ")), lines.toString());
+        assertLegalBestMove(lines, "rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 2");
+    }
+
+    @Test
+    void infiniteSearchStopsWithAMove() throws InterruptedException {
+        send("position startpos");
+        send("go infinite");
+        send("stop");
+        assertLegalBestMove(readUntil("bestmove"), BitboardPosition.START_FEN);
+    }
+
+    @Test
+    void multiPvReportsEveryVariation() throws InterruptedException {
+        send("setoption name MultiPV value 3");
+        send("position startpos");
+        send("go depth 2");
+        List<String> lines = readUntil("bestmove");
+        Set<String> variations = new TreeSet<>();
+        for (String line : lines) {
+            if (line.startsWith("info depth 2 ")) {
+                variations.add(line.split(" ")[4]);
+            }
+        }
+        assertEquals(Set.of("1", "2", "3"), variations, lines.toString());
+        assertLegalBestMove(lines, BitboardPosition.START_FEN);
+    }
+
+    /**
+     * Sends a command to the engine.
+     *
+     * @param command The command line
+     */
+    private void send(String command) {
+        commands.add(command);
+    }
+
+    /**
+     * Reads the lines of the engine up to and including the first one starting with a word.
+     *
+     * @param word The first word of the last line
+     * @return The lines read
+     */
+    private List<String> readUntil(String word) throws InterruptedException {
+        List<String> lines = new ArrayList<>();
+        String line;
+        do {
+            line = answers.take();
+            lines.add(line);
+        } while (!line.equals(word) && !line.startsWith(word + " "));
+        return lines;
+    }
+
+    /**
+     * Checks that the last line of a search is a bestmove with a legal move.
+     *
+     * @param lines The lines of the search, ending with the bestmove
+     * @param fen   The position searched
+     */
+    private static void assertLegalBestMove(List<String> lines, String fen) {
+        String bestMove = lines.get(lines.size() - 1).split(" ")[1];
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = new MoveGenerator().generateMoves(BitboardPosition.fromFen(fen), moves);
+        for (int i = 0; i < count; i++) {
+            if (MoveCode.toUci(moves[i]).equals(bestMove)) {
+                return;
+            }
+        }
+        throw new AssertionError("Not a legal move: " + bestMove + " in " + fen);
+    }
+}